@@ -21,6 +21,8 @@ import java.net.URL;
 import java.util.IllegalFormatException;
 
 import org.jenkinsci.Symbol;
+import org.jenkinsci.plugins.fitnesse.builder.runner.ResourceGroup;
+import org.jenkinsci.plugins.fitnesse.builder.tree.PagePattern;
 import org.kohsuke.stapler.QueryParameter;
 
 import hudson.Extension;
@@ -53,6 +55,15 @@ public class DescriptorImpl extends BuildStepDescriptor<Builder>
     /** Default number of concurrently running pages */
     public static final int DEFAULT_CONCURRENCY_LEVEL = 5;
 
+    /** Default time to live of the FitNesse page tree retrieved by a previous build, in minutes */
+    public static final int DEFAULT_PAGE_TREE_TIME_TO_LIVE = 60;
+
+    /** Default time window of the imported test history records, in hours */
+    public static final int DEFAULT_HISTORY_TIME_WINDOW = 24;
+
+    /** Default number of concurrently rerun pages */
+    public static final int DEFAULT_RERUN_CONCURRENCY_LEVEL = 1;
+
     /**
      * Default constructor
      */
@@ -177,6 +188,121 @@ public class DescriptorImpl extends BuildStepDescriptor<Builder>
         return FormValidation.ok();
     }
 
+    /**
+     * FitNesse page patterns validation
+     * 
+     * @param value user-submitted value
+     * @return validation result
+     */
+    public FormValidation doCheckTargetPatterns(@QueryParameter final String value)
+    {
+        if ((value == null) || value.trim().isEmpty())
+        {
+            return FormValidation.error(Messages.FitnessePageBuilder_errors_missingTargetPatterns());
+        }
+
+        for (final String expression : value.split("\n"))
+        {
+            try
+            {
+                if (!expression.trim().isEmpty())
+                {
+                    PagePattern.compile(expression);
+                }
+            } catch (final IllegalArgumentException e)
+            {
+                return FormValidation.error(Messages.FitnessePageBuilder_errors_invalidTargetPattern(expression.trim()));
+            }
+        }
+
+        return FormValidation.ok();
+    }
+
+    /**
+     * Page tree time to live validation
+     * 
+     * @param value user-submitted value
+     * @return validation result
+     */
+    public FormValidation doCheckPageTreeTimeToLive(@QueryParameter final String value)
+    {
+        try
+        {
+            if (Integer.parseInt(value) >= 0)
+            {
+                return FormValidation.ok();
+            }
+        } catch (final NumberFormatException nfe)
+        {
+            // handled below
+        }
+
+        return FormValidation.error(Messages.FitnessePageBuilder_errors_invalidPageTreeTimeToLive(value));
+    }
+
+    /**
+     * Resource groups validation
+     * 
+     * @param value user-submitted value
+     * @return validation result
+     */
+    public FormValidation doCheckResourceGroups(@QueryParameter final String value)
+    {
+        try
+        {
+            ResourceGroup.parse(value);
+        } catch (final IllegalArgumentException e)
+        {
+            return FormValidation.error(Messages.FitnessePageBuilder_errors_invalidResourceGroups(e.getMessage()));
+        }
+
+        return FormValidation.ok();
+    }
+
+    /**
+     * Time budget validation
+     * 
+     * @param value user-submitted value
+     * @return validation result
+     */
+    public FormValidation doCheckTimeBudget(@QueryParameter final String value)
+    {
+        try
+        {
+            if (Integer.parseInt(value) >= 0)
+            {
+                return FormValidation.ok();
+            }
+        } catch (final NumberFormatException nfe)
+        {
+            // handled below
+        }
+
+        return FormValidation.error(Messages.FitnessePageBuilder_errors_invalidTimeBudget(value));
+    }
+
+    /**
+     * Test history time window validation
+     * 
+     * @param value user-submitted value
+     * @return validation result
+     */
+    public FormValidation doCheckHistoryTimeWindow(@QueryParameter final String value)
+    {
+        try
+        {
+            if (Integer.parseInt(value) >= 0)
+            {
+                return FormValidation.ok();
+            }
+        } catch (final NumberFormatException nfe)
+        {
+            // handled below
+        }
+
+        return FormValidation.error(Messages.FitnessePageBuilder_errors_invalidHistoryTimeWindow(value));
+    }
+
     /**
      * FitNesse suite validation
      * 
@@ -244,6 +370,17 @@ public class DescriptorImpl extends BuildStepDescriptor<Builder>
         return FormValidation.ok();
     }
 
+    /**
+     * Rerun concurrency level validation
+     * 
+     * @param value user-submitted value
+     * @return validation result
+     */
+    public FormValidation doCheckRerunConcurrencyLevel(@QueryParameter final String value)
+    {
+        return this.doCheckConcurrencyLevel(value);
+    }
+
     /**
      * Concurrency level validation
      * 
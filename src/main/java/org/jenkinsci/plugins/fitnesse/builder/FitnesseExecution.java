@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.jenkinsci.plugins.fitnesse.builder.actions.FitnesseWarmUpAction;
+import org.jenkinsci.plugins.fitnesse.builder.cache.PageResultCache;
+import org.jenkinsci.plugins.fitnesse.builder.journal.ExecutionJournal;
+import org.jenkinsci.plugins.fitnesse.builder.runner.FitnessePageRunner;
+import org.jenkinsci.plugins.fitnesse.builder.runner.FitnesseResponse;
+
+import hudson.FilePath;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+/**
+ * FitNesse tests execution started by a {@link FitnesseResultsBuilder}, running in the background on the node
+ * 
+ * <p>
+ * Once awaited, the responses of the execution are written to the workspace, for them to be picked up
+ * by the publishing step later on.
+ * 
+ */
+public class FitnesseExecution
+{
+
+    private final Run<?, ?> run;
+
+    private final FilePath workspace;
+
+    private final FitnessePageRunner runner;
+
+    private final Future<WarmUpThenTestsCallable.Result> responses;
+
+    private final String filenameOutputFormat;
+
+    private PageResultCache resultCache;
+
+    private String fingerprint;
+
+    private ExecutionJournal journal;
+
+    private int warmUpPages;
+
+    /**
+     * Constructor
+     * 
+     * @param run build which started the execution
+     * @param workspace build workspace
+     * @param runner runner of the FitNesse pages
+     * @param responses pending responses of the execution, and duration of its warm-up
+     * @param filenameOutputFormat filename pattern of the FitNesse results files
+     */
+    FitnesseExecution(final Run<?, ?> run, final FilePath workspace, final FitnessePageRunner runner, final Future<WarmUpThenTestsCallable.Result> responses,
+            final String filenameOutputFormat)
+    {
+        this.run = run;
+        this.workspace = workspace;
+        this.runner = runner;
+        this.responses = responses;
+        this.filenameOutputFormat = filenameOutputFormat;
+    }
+
+    /**
+     * Stores the results of the executed pages, and provides the results of the reused ones
+     * 
+     * @param resultCache cache of the results of the job
+     * @param fingerprint fingerprint of the system under test
+     */
+    void setResultCache(final PageResultCache resultCache, final String fingerprint)
+    {
+        this.resultCache = resultCache;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Deletes the execution journal once the execution completes or is aborted
+     * 
+     * @param journal the execution journal
+     */
+    void setJournal(final ExecutionJournal journal)
+    {
+        this.journal = journal;
+    }
+
+    /**
+     * Records the warm-up which precedes the tests with the build, once the execution completes
+     * 
+     * @param warmUpPages number of warm-up pages
+     */
+    void setWarmUpPages(final int warmUpPages)
+    {
+        this.warmUpPages = warmUpPages;
+    }
+
+    /**
+     * @return build which started the execution
+     */
+    public Run<?, ?> getRun()
+    {
+        return this.run;
+    }
+
+    /**
+     * @return directory where the results files are written, i.e. the workspace or the build directory
+     */
+    public FilePath getResultsDirectory()
+    {
+        return this.workspace;
+    }
+
+    /**
+     * Waits for the execution to complete, and writes the resulting responses in the workspace
+     * 
+     * @param listener build listener, for logging
+     * @throws IOException if the execution failed, or its responses could not be written
+     * @throws InterruptedException if the build was aborted, in which case the execution is cancelled
+     */
+    public void await(final TaskListener listener) throws IOException, InterruptedException
+    {
+        final WarmUpThenTestsCallable.Result result;
+
+        try
+        {
+            result = this.responses.get();
+        } catch (final InterruptedException ie)
+        {
+            listener.getLogger().println("Build was aborted, stopping queued and running tests...");
+            this.cancel();
+
+            // the pages completed by an aborted build are not resumed
+            if (this.journal != null)
+            {
+                try
+                {
+                    this.workspace.child(this.journal.getFileName()).delete();
+                } catch (final IOException e)
+                {
+                    listener.getLogger().printf("Could not delete the execution journal: %s%n", e.getMessage());
+                }
+            }
+
+            throw ie;
+        } catch (final ExecutionException e)
+        {
+            if (e.getCause() instanceof IOException)
+            {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IOException("The FitNesse tests execution failed", e.getCause());
+        }
+
+        if (this.warmUpPages > 0)
+        {
+            this.run.addAction(new FitnesseWarmUpAction(this.warmUpPages, result.getWarmUpDuration()));
+        }
+
+        for (final FitnesseResponse response : result.getResponses())
+        {
+            String content = response.getContent();
+
+            if (response.isResumed())
+            {
+                listener.getLogger().printf("Page \"%s\" was completed by a previous run, skipping it%n", response.getPage());
+                continue;
+            } else if (response.isCached())
+            {
+                content = this.resultCache.getContent(response.getPage());
+
+                if (content == null)
+                {
+                    // another build replaced or evicted the stored result since this one started
+                    listener.getLogger().printf("The cached result of page \"%s\" is no longer available, running it again%n", response.getPage());
+                    content = this.executeAgain(response.getPage());
+                    this.resultCache.update(response.getPage(), response.getContentHash(), this.fingerprint, this.run.getNumber(), content);
+                } else
+                {
+                    listener.getLogger().printf("Reusing the result of page \"%s\" from build #%d%n", response.getPage(), this.resultCache.getEntry(response.getPage()).getBuildNumber());
+                }
+            } else if ((this.resultCache != null) && (response.getContentHash() != null))
+            {
+                this.resultCache.update(response.getPage(), response.getContentHash(), this.fingerprint, this.run.getNumber(), content);
+            }
+
+            // journaled pages are written by the node as soon as they complete
+            if ((this.journal == null) || response.isCached())
+            {
+                this.workspace
+                        .child(String.format(this.filenameOutputFormat, response.getPage()))
+                        .write(content, StandardCharsets.UTF_8.name());
+            }
+        }
+
+        if (this.resultCache != null)
+        {
+            this.resultCache.save();
+        }
+
+        if (this.journal != null)
+        {
+            this.workspace.child(this.journal.getFileName()).delete();
+        }
+    }
+
+    /**
+     * Executes a page whose cached result could not be reused after all
+     * 
+     * @param page name of the FitNesse page
+     * @return the FitNesse response of the page
+     * @throws IOException if the execution failed
+     * @throws InterruptedException if the build was aborted
+     */
+    private String executeAgain(final String page) throws IOException, InterruptedException
+    {
+        try
+        {
+            return this.runner.executePage(page).get().getContent();
+        } catch (final ExecutionException e)
+        {
+            throw new IOException(String.format("The execution of page \"%s\" failed", page), e.getCause());
+        }
+    }
+
+    /**
+     * Cancels the queued and running tests
+     */
+    public void cancel()
+    {
+        this.responses.cancel(true);
+        this.runner.cancelRequests();
+    }
+}
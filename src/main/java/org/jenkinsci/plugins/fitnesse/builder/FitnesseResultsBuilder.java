@@ -17,15 +17,43 @@ package org.jenkinsci.plugins.fitnesse.builder;
 
 import java.io.IOException;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
+import org.jenkinsci.plugins.fitnesse.builder.actions.FitnesseTimeBudgetAction;
+import org.jenkinsci.plugins.fitnesse.builder.cache.PageContentHasher;
+import org.jenkinsci.plugins.fitnesse.builder.cache.PageResultCache;
+import org.jenkinsci.plugins.fitnesse.builder.history.HistoryWindow;
+import org.jenkinsci.plugins.fitnesse.builder.journal.ExecutionJournal;
+import org.jenkinsci.plugins.fitnesse.builder.priority.FailureLikelihood;
+import org.jenkinsci.plugins.fitnesse.builder.priority.PageHistory;
+import org.jenkinsci.plugins.fitnesse.builder.priority.TimeBudgetPlanner;
 import org.jenkinsci.plugins.fitnesse.builder.runner.FitnessePageRunner;
-import org.jenkinsci.plugins.fitnesse.builder.runner.FitnesseResponse;
+import org.jenkinsci.plugins.fitnesse.builder.runner.ResourceGroup;
+import org.jenkinsci.plugins.fitnesse.builder.runner.SuiteFilter;
+import org.jenkinsci.plugins.fitnesse.builder.tree.PagePattern;
+import org.jenkinsci.plugins.fitnesse.builder.tree.PageTree;
+import org.jenkinsci.plugins.fitnesse.builder.tree.PageTreeFetchingCallable;
+import org.jenkinsci.plugins.fitnesse.builder.tree.PageTreeStore;
+import org.jenkinsci.plugins.fitnesse.builder.wiki.WikiIndex;
+import org.jenkinsci.plugins.fitnesse.builder.wiki.WikiIndexStore;
+import org.jenkinsci.plugins.fitnesse.builder.wiki.WikiIndexingCallable;
+import org.jenkinsci.plugins.fitnesse.util.Digests;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
 
+import hudson.AbortException;
 import hudson.FilePath;
 import hudson.Launcher;
+import hudson.Util;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.tasks.Builder;
@@ -46,16 +74,34 @@ import jenkins.tasks.SimpleBuildStep;
 public class FitnesseResultsBuilder extends Builder implements SimpleBuildStep
 {
 
+    /** Name of the directory where the results files are stored when the tests are run from the controller, relative to the build directory */
+    public static final String BUILD_RESULTS_DIRECTORY = "fitnesse-results";
+
+    /** Environment variables holding the SCM revision checked out by the build, as set by the SCM plugins */
+    private static final String[] SCM_REVISION_VARIABLES = { "GIT_COMMIT", "SVN_REVISION", "MERCURIAL_REVISION" };
+
     private URL remoteFitnesseUrl;
 
     private String targetType;
 
     private String targetSuite;
 
+    private String suiteFilter;
+
+    private String excludeSuiteFilter;
+
+    private boolean runTestsMatchingAllTags;
+
+    private String partitionTags;
+
     private String targetPages;
 
     private String targetFile;
 
+    private String targetPatterns;
+
+    private int pageTreeTimeToLive;
+
     private boolean includeHtmlOutput;
 
     private int httpTimeout;
@@ -64,6 +110,36 @@ public class FitnesseResultsBuilder extends Builder implements SimpleBuildStep
 
     private int concurrencyLevel;
 
+    private String warmUpPages;
+
+    private boolean rampUp;
+
+    private String resourceGroups;
+
+    private boolean prioritizeFailures;
+
+    private int timeBudget;
+
+    private boolean noHistory;
+
+    private boolean junitFormat;
+
+    private boolean rerunFailedPages;
+
+    private int rerunConcurrencyLevel;
+
+    private boolean reuseCachedResults;
+
+    private String sutFingerprint;
+
+    private String wikiRootPath;
+
+    private boolean resumable;
+
+    private boolean importFromHistory;
+
+    private int historyTimeWindow;
+
     /** Default constructor */
     @DataBoundConstructor
     public FitnesseResultsBuilder()
@@ -71,32 +147,487 @@ public class FitnesseResultsBuilder extends Builder implements SimpleBuildStep
         this.httpTimeout = DescriptorImpl.DEFAULT_HTTP_TIMEOUT;
         this.filenameOutputFormat = DescriptorImpl.DEFAULT_FILENAME_OUTPUT_FORMAT;
         this.concurrencyLevel = DescriptorImpl.DEFAULT_CONCURRENCY_LEVEL;
+        this.pageTreeTimeToLive = DescriptorImpl.DEFAULT_PAGE_TREE_TIME_TO_LIVE;
+        this.historyTimeWindow = DescriptorImpl.DEFAULT_HISTORY_TIME_WINDOW;
+        this.rerunConcurrencyLevel = DescriptorImpl.DEFAULT_RERUN_CONCURRENCY_LEVEL;
     }
 
     /** {@inheritDoc} */
     @Override
     public void perform(final Run<?, ?> run, final FilePath workspace, final Launcher launcher, final TaskListener listener) throws InterruptedException, IOException
     {
-        listener.getLogger().printf("Launching FitNesse tests on remote host \"%s\"...%n", this.remoteFitnesseUrl);
+        this.start(run, workspace, listener).await(listener);
+    }
+
+    /**
+     * Starts the execution of the FitNesse pages in the background on the node
+     * 
+     * @param run current build
+     * @param workspace build workspace
+     * @param listener build listener, for logging
+     * @return the started execution, which writes the responses in the workspace once awaited
+     * @throws IOException if the pages to run could not be determined
+     * @throws InterruptedException if the build was aborted
+     */
+    public FitnesseExecution start(final Run<?, ?> run, final FilePath workspace, final TaskListener listener) throws InterruptedException, IOException
+    {
+        if (this.importFromHistory)
+        {
+            listener.getLogger().printf("Importing the FitNesse test history of remote host \"%s\"...%n", this.remoteFitnesseUrl);
+        } else
+        {
+            listener.getLogger().printf("Launching FitNesse tests on remote host \"%s\"...%n", this.remoteFitnesseUrl);
+        }
 
         final FitnessePageRunner runner = new FitnessePageRunner(this.remoteFitnesseUrl, this.httpTimeout, this.includeHtmlOutput, this.concurrencyLevel, listener);
-        final TestsExecutionCallable callable = new TestsExecutionCallable(runner, listener, this.targetType, this.targetFile, this.targetPages, this.targetSuite);
+        runner.setRampUp(this.rampUp);
+        runner.setLeanProfile(this.noHistory, this.junitFormat);
+
+        final TargetType suppliedTargetType = TargetType.targetTypeFor(this.targetType);
+
+        String actualTargetType = this.targetType;
+        String actualTargetPages = this.targetPages;
+
+        // select the pages affected by the changes made to the wiki since the last successful build,
+        // or the pages matching the configured patterns
+        if ((suppliedTargetType == TargetType.CHANGED) || (suppliedTargetType == TargetType.PATTERN))
+        {
+            final Set<String> selectedPages = suppliedTargetType == TargetType.CHANGED
+                    ? this.selectChangedPages(run, workspace, listener)
+                    : this.selectMatchingPages(run, workspace, listener, runner);
+
+            if (selectedPages.isEmpty())
+            {
+                listener.getLogger().println("No page was selected, skipping the FitNesse tests");
+                return new FitnesseExecution(run, workspace, runner, CompletableFuture.completedFuture(WarmUpThenTestsCallable.Result.EMPTY), this.filenameOutputFormat);
+            }
+
+            actualTargetType = TargetType.PAGES.getName();
+            actualTargetPages = String.join("\n", selectedPages);
+        }
+
+        // estimate how likely the pages are to fail from the results of the previous builds
+        PageHistory history = null;
+        Map<String, Double> failureScores = null;
+
+        if ((this.prioritizeFailures || (this.timeBudget > 0)) && !this.importFromHistory)
+        {
+            final Set<String> changedPages = suppliedTargetType == TargetType.CHANGED
+                    ? Collections.emptySet()
+                    : this.getRecentlyChangedPages(run, workspace, listener);
+
+            history = PageHistory.read(run);
+            failureScores = FailureLikelihood.estimate(history, changedPages);
+        }
+
+        // select the most valuable pages which fit the time budget
+        if ((history != null) && (this.timeBudget > 0))
+        {
+            if (TargetType.targetTypeFor(actualTargetType) == TargetType.SUITE)
+            {
+                listener.getLogger().println("The time budget only applies to pages lists, running the whole suite");
+            } else if (history.getPages().isEmpty())
+            {
+                listener.getLogger().println("No previous results to estimate the pages durations from, running all the pages");
+            } else
+            {
+                final List<String> candidatePages = TargetType.targetTypeFor(actualTargetType) == TargetType.TEXT_FILE
+                        ? FitnesseResultsBuilder.parsePages(workspace.child(this.targetFile).readToString())
+                        : FitnesseResultsBuilder.parsePages(actualTargetPages);
+                final List<String> selectedPages = this.selectPagesWithinBudget(run, listener, history, failureScores, candidatePages);
+
+                if (selectedPages.isEmpty())
+                {
+                    listener.getLogger().println("No page fits the time budget, skipping the FitNesse tests");
+                    return new FitnesseExecution(run, workspace, runner, CompletableFuture.completedFuture(WarmUpThenTestsCallable.Result.EMPTY), this.filenameOutputFormat);
+                }
+
+                actualTargetType = TargetType.PAGES.getName();
+                actualTargetPages = String.join("\n", selectedPages);
+            }
+        }
 
-        // execute the pages on the node and write the resulting responses in the workspace
+        final TestsExecutionCallable callable = new TestsExecutionCallable(runner, listener, actualTargetType, this.targetFile, actualTargetPages, this.targetSuite);
+        final List<SuiteFilter> suiteFilters = (TargetType.targetTypeFor(actualTargetType) == TargetType.SUITE) && !this.importFromHistory
+                ? this.getSuiteFilters(listener)
+                : Collections.emptyList();
+
+        callable.setSuiteFilters(suiteFilters);
+
+        // limit the concurrency of the pages sharing resources
         try
         {
-            for (final FitnesseResponse response : workspace.act(callable))
+            callable.setResourceGroups(ResourceGroup.parse(this.resourceGroups), this.wikiRootPath);
+        } catch (final IllegalArgumentException e)
+        {
+            throw new AbortException(e.getMessage());
+        }
+
+        // run the pages most likely to fail first, for the failures to be reported early
+        if (this.prioritizeFailures && (failureScores != null))
+        {
+            callable.setPagePriorities(failureScores, FailureLikelihood.UNKNOWN_PAGE_SCORE);
+        }
+
+        // rerun the failed pages, with less load on the system under test
+        if (this.rerunFailedPages && !this.importFromHistory)
+        {
+            final FitnessePageRunner rerunRunner = new FitnessePageRunner(this.remoteFitnesseUrl, this.httpTimeout, this.includeHtmlOutput, this.rerunConcurrencyLevel, listener);
+            rerunRunner.setLeanProfile(this.noHistory, this.junitFormat);
+            callable.setRerunRunner(rerunRunner);
+        }
+
+        // read the results FitNesse stored when it ran the pages on its own schedule
+        if (this.importFromHistory)
+        {
+            callable.setHistoryWindow(HistoryWindow.lastHours(this.historyTimeWindow));
+        }
+
+        // journal the completed pages, for a rerun of the same step to only run the remaining ones
+        ExecutionJournal journal = null;
+
+        if (this.resumable)
+        {
+            final String scmRevision = FitnesseResultsBuilder.getScmRevision(run.getEnvironment(listener));
+            journal = new ExecutionJournal(this.getParametersKey(actualTargetType, actualTargetPages, suiteFilters, scmRevision), this.filenameOutputFormat, run.getNumber());
+            callable.setJournal(journal);
+        }
+
+        // skip the pages which passed with the same wiki content and system under test
+        PageResultCache resultCache = null;
+        String fingerprint = null;
+
+        if (this.reuseCachedResults && !this.importFromHistory)
+        {
+            resultCache = PageResultCache.forJob(run.getParent());
+            fingerprint = run.getEnvironment(listener).expand(Util.fixNull(this.sutFingerprint));
+            callable.setResultReuse(new PageContentHasher(runner, this.wikiRootPath), resultCache.getReusableContentHashes(fingerprint));
+        }
+
+        // prime the FitNesse server and the system under test, outside of the measured run
+        final List<String> warmUpPageNames = this.importFromHistory ? Collections.emptyList() : FitnesseResultsBuilder.parsePages(this.warmUpPages);
+        WarmUpCallable warmUp = null;
+
+        if (!warmUpPageNames.isEmpty())
+        {
+            listener.getLogger().printf("Warming up FitNesse with %d pages before the tests...%n", warmUpPageNames.size());
+            warmUp = new WarmUpCallable(runner, warmUpPageNames, listener);
+        }
+
+        // execute the pages on the node after the warm-up, the responses are written in the workspace once awaited
+        final FitnesseExecution execution = new FitnesseExecution(run, workspace, runner,
+                workspace.actAsync(new WarmUpThenTestsCallable(warmUp, callable, listener)), this.filenameOutputFormat);
+        execution.setJournal(journal);
+        execution.setWarmUpPages(warmUpPageNames.size());
+
+        if (resultCache != null)
+        {
+            execution.setResultCache(resultCache, fingerprint);
+        }
+
+        return execution;
+    }
+
+    /**
+     * Starts the execution of the FitNesse pages in the background on the controller, without tying up an executor
+     * 
+     * <p>
+     * The results files are written to the build directory, since there is no workspace.
+     * 
+     * @param run current build
+     * @param listener build listener, for logging
+     * @return the started execution, which writes the responses in the build directory once awaited
+     * @throws IOException if the target type requires a workspace, or the pages to run could not be determined
+     * @throws InterruptedException if the build was aborted
+     */
+    public FitnesseExecution startOnController(final Run<?, ?> run, final TaskListener listener) throws InterruptedException, IOException
+    {
+        final TargetType suppliedTargetType = TargetType.targetTypeFor(this.targetType);
+
+        // both the pages file and the wiki pages are read from the workspace
+        if ((suppliedTargetType == TargetType.TEXT_FILE) || (suppliedTargetType == TargetType.CHANGED))
+        {
+            throw new AbortException(String.format("The \"%s\" target type requires a workspace", this.targetType));
+        }
+
+        final FilePath resultsDirectory = FitnesseResultsBuilder.getBuildResultsDirectory(run);
+        resultsDirectory.mkdirs();
+
+        listener.getLogger().printf("Running FitNesse tests from the controller, the results are stored in \"%s\"%n", resultsDirectory.getRemote());
+
+        return this.start(run, resultsDirectory, listener);
+    }
+
+    /**
+     * @param pages page names, one per line (may be {@code null})
+     * @return the non-blank page names
+     */
+    private static List<String> parsePages(final String pages)
+    {
+        final List<String> pageNames = new ArrayList<>();
+
+        for (final String page : Util.fixNull(pages).split("\\r?\\n"))
+        {
+            if (!page.trim().isEmpty())
             {
-                workspace
-                        .child(String.format(this.filenameOutputFormat, response.getPage()))
-                        .write(response.getContent(), StandardCharsets.UTF_8.name());
+                pageNames.add(page.trim());
             }
-        } catch (final InterruptedException ie)
+        }
+
+        return pageNames;
+    }
+
+    /**
+     * @param run a build
+     * @return directory where the results files are stored when the tests are run from the controller
+     */
+    public static FilePath getBuildResultsDirectory(final Run<?, ?> run)
+    {
+        return new FilePath(run.getRootDir()).child(FitnesseResultsBuilder.BUILD_RESULTS_DIRECTORY);
+    }
+
+    /**
+     * Determines the suite requests to run, according to the configured tags
+     * 
+     * @param listener build listener, for logging
+     * @return one filter per suite request, or an empty list to run the whole suite
+     */
+    private List<SuiteFilter> getSuiteFilters(final TaskListener listener)
+    {
+        final List<String> includedTags = SuiteFilter.parseTags(this.suiteFilter);
+        final List<String> excludedTags = SuiteFilter.parseTags(this.excludeSuiteFilter);
+        final List<String> partitioningTags = SuiteFilter.parseTags(this.partitionTags);
+
+        if (!partitioningTags.isEmpty())
+        {
+            if (!includedTags.isEmpty())
+            {
+                listener.getLogger().println("The suite is partitioned by tags, ignoring the tags of the pages to run");
+            }
+
+            listener.getLogger().printf("Running suite \"%s\" in %d partitions%n", this.targetSuite, partitioningTags.size() + 1);
+            return SuiteFilter.partition(partitioningTags, excludedTags);
+        }
+
+        if (includedTags.isEmpty() && excludedTags.isEmpty())
+        {
+            return Collections.emptyList();
+        }
+
+        return Collections.singletonList(new SuiteFilter(includedTags, excludedTags, this.runTestsMatchingAllTags));
+    }
+
+    /**
+     * @param environment environment variables of the build
+     * @return the SCM revision the build checked out, or the empty string if it is unknown
+     */
+    private static String getScmRevision(final Map<String, String> environment)
+    {
+        for (final String variable : FitnesseResultsBuilder.SCM_REVISION_VARIABLES)
+        {
+            final String revision = Util.fixEmptyAndTrim(environment.get(variable));
+
+            if (revision != null)
+            {
+                return revision;
+            }
+        }
+
+        return "";
+    }
+
+    /**
+     * Identifies the parameters of this build step, so that a journal is only resumed by the same step
+     * 
+     * @param actualTargetType type of the executed target
+     * @param actualTargetPages executed pages, if any
+     * @param suiteFilters executed suite filters, if any
+     * @param scmRevision SCM revision the build checked out, so that a journal is not resumed once the tests changed
+     * @return hash of the build step parameters
+     */
+    private String getParametersKey(final String actualTargetType, final String actualTargetPages, final List<SuiteFilter> suiteFilters, final String scmRevision)
+    {
+        final StringBuilder parameters = new StringBuilder()
+                .append(scmRevision).append('\n')
+                .append(this.remoteFitnesseUrl).append('\n')
+                .append(actualTargetType).append('\n')
+                .append(Util.fixNull(actualTargetPages)).append('\n')
+                .append(Util.fixNull(this.targetFile)).append('\n')
+                .append(Util.fixNull(this.targetSuite)).append('\n')
+                .append(this.includeHtmlOutput).append('\n')
+                .append(this.importFromHistory).append('\n')
+                .append(this.filenameOutputFormat);
+
+        suiteFilters.forEach(suiteFilter -> parameters.append('\n').append(suiteFilter.getResultName(this.targetSuite))
+                .append(suiteFilter.getIncludedTags()).append(suiteFilter.getExcludedTags()).append(suiteFilter.getMatchAllTags()));
+
+        return Digests.sha256(parameters.toString());
+    }
+
+    /**
+     * Expands the configured page patterns against the page tree of the remote FitNesse wiki
+     * 
+     * @param run current build
+     * @param workspace build workspace
+     * @param listener build listener, for logging
+     * @param runner runner used to retrieve the page tree
+     * @return names of the matching pages
+     * @throws IOException if the page tree could not be retrieved, or a pattern is invalid
+     * @throws InterruptedException if the build was aborted
+     */
+    private Set<String> selectMatchingPages(final Run<?, ?> run, final FilePath workspace, final TaskListener listener, final FitnessePageRunner runner) throws IOException, InterruptedException
+    {
+        final List<PagePattern> patterns = new ArrayList<>();
+
+        for (final String expression : Util.fixNull(this.targetPatterns).split("\n"))
+        {
+            if (!expression.trim().isEmpty())
+            {
+                try
+                {
+                    patterns.add(PagePattern.compile(expression));
+                } catch (final IllegalArgumentException e)
+                {
+                    throw new AbortException(e.getMessage());
+                }
+            }
+        }
+
+        // reuse the page tree retrieved by a previous build while it is fresh enough
+        final PageTreeStore store = new PageTreeStore(run.getParent());
+        PageTree tree = store.get();
+
+        if (!PageTreeStore.isFresh(tree, this.pageTreeTimeToLive))
+        {
+            listener.getLogger().println("Retrieving the FitNesse page tree...");
+            tree = workspace.act(new PageTreeFetchingCallable(runner, tree));
+            store.save(tree);
+        }
+
+        final Set<String> matchingPages = new TreeSet<>();
+
+        for (final PagePattern pattern : patterns)
+        {
+            final Set<String> patternPages = tree.expand(pattern);
+            listener.getLogger().printf("%d pages matching \"%s\"%n", patternPages.size(), pattern);
+            matchingPages.addAll(patternPages);
+        }
+
+        return matchingPages;
+    }
+
+    /**
+     * Indexes the workspace {@code FitNesseRoot} directory, and selects the test pages affected by the changes
+     * made since the last successful build
+     * 
+     * @param run current build
+     * @param workspace build workspace
+     * @param listener build listener, for logging
+     * @return names of the affected test pages
+     * @throws IOException if the wiki could not be indexed
+     * @throws InterruptedException if the build was aborted
+     */
+    private Set<String> selectChangedPages(final Run<?, ?> run, final FilePath workspace, final TaskListener listener) throws IOException, InterruptedException
+    {
+        if (Util.fixEmptyAndTrim(this.wikiRootPath) == null)
+        {
+            throw new AbortException("Selecting the changed pages requires the path of the FitNesseRoot directory in the workspace");
+        }
+
+        final WikiIndexStore store = new WikiIndexStore(run.getParent());
+        final WikiIndex baseline = store.getBaseline();
+        final WikiIndex index = workspace.act(new WikiIndexingCallable(this.wikiRootPath.trim(), store.getLatest()));
+        store.setLatest(index, run.getNumber());
+
+        final Set<String> changedPages = index.getAffectedTestPages(baseline);
+
+        if (baseline == null)
+        {
+            listener.getLogger().printf("No successful build to compare the wiki with, selecting all %d test pages%n", changedPages.size());
+        } else
+        {
+            listener.getLogger().printf("%d test pages affected by the changes made to the wiki since the last successful build%n", changedPages.size());
+        }
+
+        return changedPages;
+    }
+
+    /**
+     * Selects the pages which fit the time budget, according to their duration and failure likelihood in the previous builds
+     * 
+     * @param run current build
+     * @param listener build listener, for logging
+     * @param history results of the previous builds
+     * @param failureScores failure likelihood score of the pages
+     * @param candidatePages names of the pages to select from
+     * @return names of the selected pages, in the order they are to be run
+     */
+    private List<String> selectPagesWithinBudget(final Run<?, ?> run, final TaskListener listener, final PageHistory history, final Map<String, Double> failureScores,
+            final List<String> candidatePages)
+    {
+        // a page listed several times is run once
+        final Set<String> pages = new LinkedHashSet<>(candidatePages);
+
+        // the pages which never ran are assumed to last as long as the average page
+        final Map<String, Long> durations = new HashMap<>();
+        final Map<String, Double> scores = new HashMap<>();
+
+        for (final String page : pages)
+        {
+            final Long duration = history.getDuration(page);
+            durations.put(page, duration == null ? history.getMeanDuration() : duration);
+            scores.put(page, failureScores.getOrDefault(page, FailureLikelihood.UNKNOWN_PAGE_SCORE));
+        }
+
+        final long budget = TimeUnit.MINUTES.toMillis(this.timeBudget);
+        final TimeBudgetPlanner.Plan plan = new TimeBudgetPlanner(this.concurrencyLevel, budget).plan(pages, durations, scores);
+
+        listener.getLogger().printf("%d of %d pages selected to fit the time budget of %d minutes, estimated to run in %s%n",
+                plan.getSelectedPages().size(), pages.size(), this.timeBudget, Util.getTimeSpanString(plan.getEstimatedDuration()));
+        plan.getSkippedPages().forEach(page -> listener.getLogger().printf("Skipping page \"%s\" to fit the time budget%n", page));
+
+        run.addAction(new FitnesseTimeBudgetAction(budget, plan.getSelectedPages().size(), plan.getEstimatedDuration(), plan.getSkippedPages()));
+
+        return plan.getSelectedPages();
+    }
+
+    /**
+     * Indexes the workspace {@code FitNesseRoot} directory, and selects the test pages affected by the changes
+     * made since the previous build
+     * 
+     * @param run current build
+     * @param workspace build workspace
+     * @param listener build listener, for logging
+     * @return names of the affected test pages, empty if the wiki is not in the workspace or was never indexed
+     * @throws IOException if the wiki index could not be stored
+     * @throws InterruptedException if the build was aborted
+     */
+    private Set<String> getRecentlyChangedPages(final Run<?, ?> run, final FilePath workspace, final TaskListener listener) throws IOException, InterruptedException
+    {
+        if (Util.fixEmptyAndTrim(this.wikiRootPath) == null)
+        {
+            return Collections.emptySet();
+        }
+
+        // promote the index of the previous build first, for the changed pages selection to keep its baseline
+        final WikiIndexStore store = new WikiIndexStore(run.getParent());
+        store.getBaseline();
+
+        final WikiIndex previous = store.getLatest();
+        final WikiIndex index;
+
+        try
+        {
+            index = workspace.act(new WikiIndexingCallable(this.wikiRootPath.trim(), previous));
+        } catch (final IOException e)
         {
-            listener.getLogger().println("Build was aborted, stopping queued and running tests...");
-            runner.cancelRequests();
-            throw ie;
+            listener.getLogger().printf("Could not index the wiki to find the recently changed pages: %s%n", e.getMessage());
+            return Collections.emptySet();
         }
+
+        store.setLatest(index, run.getNumber());
+
+        return previous == null ? Collections.emptySet() : index.getAffectedTestPages(previous);
     }
 
     /** {@inheritDoc} */
@@ -138,6 +669,22 @@ public class FitnesseResultsBuilder extends Builder implements SimpleBuildStep
         return this.targetPages;
     }
 
+    /**
+     * @return newline-delimited list of the patterns matching the FitNesse pages to run
+     */
+    public String getTargetPatterns()
+    {
+        return this.targetPatterns;
+    }
+
+    /**
+     * @return time to live of the FitNesse page tree retrieved by a previous build, in minutes
+     */
+    public int getPageTreeTimeToLive()
+    {
+        return this.pageTreeTimeToLive;
+    }
+
     /**
      * @return name of the targeted FitNesse suite
      */
@@ -146,6 +693,38 @@ public class FitnesseResultsBuilder extends Builder implements SimpleBuildStep
         return this.targetSuite;
     }
 
+    /**
+     * @return tags of the suite pages to run
+     */
+    public String getSuiteFilter()
+    {
+        return this.suiteFilter;
+    }
+
+    /**
+     * @return tags of the suite pages not to run
+     */
+    public String getExcludeSuiteFilter()
+    {
+        return this.excludeSuiteFilter;
+    }
+
+    /**
+     * @return whether to run the suite pages bearing all the tags to run, instead of any of them
+     */
+    public boolean getRunTestsMatchingAllTags()
+    {
+        return this.runTestsMatchingAllTags;
+    }
+
+    /**
+     * @return tags according to which the suite is partitioned
+     */
+    public String getPartitionTags()
+    {
+        return this.partitionTags;
+    }
+
     /**
      * @return whether to capture the HTML output of the FitNesse tests
      */
@@ -178,6 +757,126 @@ public class FitnesseResultsBuilder extends Builder implements SimpleBuildStep
         return this.concurrencyLevel;
     }
 
+    /**
+     * @return pages run before the measured run to warm up FitNesse, one per line (may be {@code null})
+     */
+    public String getWarmUpPages()
+    {
+        return this.warmUpPages;
+    }
+
+    /**
+     * @return whether to ramp up the number of concurrently running pages
+     */
+    public boolean getRampUp()
+    {
+        return this.rampUp;
+    }
+
+    /**
+     * @return groups of pages sharing resources, one per line (may be {@code null})
+     */
+    public String getResourceGroups()
+    {
+        return this.resourceGroups;
+    }
+
+    /**
+     * @return whether to run the pages most likely to fail first
+     */
+    public boolean getPrioritizeFailures()
+    {
+        return this.prioritizeFailures;
+    }
+
+    /**
+     * @return wall-clock budget of the pages in minutes, {@code 0} to run all the pages
+     */
+    public int getTimeBudget()
+    {
+        return this.timeBudget;
+    }
+
+    /**
+     * @return whether to prevent FitNesse from recording the executions in its test history
+     */
+    public boolean getNoHistory()
+    {
+        return this.noHistory;
+    }
+
+    /**
+     * @return whether to request the lighter JUnit format when the HTML output is not included
+     */
+    public boolean getJunitFormat()
+    {
+        return this.junitFormat;
+    }
+
+    /**
+     * @return whether to rerun the failed pages
+     */
+    public boolean getRerunFailedPages()
+    {
+        return this.rerunFailedPages;
+    }
+
+    /**
+     * @return maximum number of concurrently rerun FitNesse pages
+     */
+    public int getRerunConcurrencyLevel()
+    {
+        return this.rerunConcurrencyLevel;
+    }
+
+    /**
+     * @return whether to reuse the previous results of the unchanged pages which passed
+     */
+    public boolean getReuseCachedResults()
+    {
+        return this.reuseCachedResults;
+    }
+
+    /**
+     * @return fingerprint of the system under test, which may contain environment variables
+     */
+    public String getSutFingerprint()
+    {
+        return this.sutFingerprint;
+    }
+
+    /**
+     * @return whether a rerun of an interrupted build step only runs the pages it did not complete
+     */
+    public boolean getResumable()
+    {
+        return this.resumable;
+    }
+
+    /**
+     * @return whether to import the latest test history records stored by FitNesse instead of executing the pages
+     */
+    public boolean getImportFromHistory()
+    {
+        return this.importFromHistory;
+    }
+
+    /**
+     * @return time window of the imported test history records, in hours ({@code 0} for no limit)
+     */
+    public int getHistoryTimeWindow()
+    {
+        return this.historyTimeWindow;
+    }
+
+    /**
+     * @return path of the {@code FitNesseRoot} directory, relative to the workspace (may be {@code null})
+     */
+    public String getWikiRootPath()
+    {
+        return this.wikiRootPath;
+    }
+
     /**
      * @param remoteFitnesseUrl
      */
@@ -223,6 +922,42 @@ public class FitnesseResultsBuilder extends Builder implements SimpleBuildStep
         this.targetSuite = targetSuite;
     }
 
+    /**
+     * @param suiteFilter
+     */
+    @DataBoundSetter
+    public void setSuiteFilter(final String suiteFilter)
+    {
+        this.suiteFilter = suiteFilter;
+    }
+
+    /**
+     * @param excludeSuiteFilter
+     */
+    @DataBoundSetter
+    public void setExcludeSuiteFilter(final String excludeSuiteFilter)
+    {
+        this.excludeSuiteFilter = excludeSuiteFilter;
+    }
+
+    /**
+     * @param runTestsMatchingAllTags
+     */
+    @DataBoundSetter
+    public void setRunTestsMatchingAllTags(final boolean runTestsMatchingAllTags)
+    {
+        this.runTestsMatchingAllTags = runTestsMatchingAllTags;
+    }
+
+    /**
+     * @param partitionTags
+     */
+    @DataBoundSetter
+    public void setPartitionTags(final String partitionTags)
+    {
+        this.partitionTags = partitionTags;
+    }
+
     /**
      * @param targetPages
      */
@@ -232,6 +967,24 @@ public class FitnesseResultsBuilder extends Builder implements SimpleBuildStep
         this.targetPages = targetPages;
     }
 
+    /**
+     * @param targetPatterns
+     */
+    @DataBoundSetter
+    public void setTargetPatterns(final String targetPatterns)
+    {
+        this.targetPatterns = targetPatterns;
+    }
+
+    /**
+     * @param pageTreeTimeToLive
+     */
+    @DataBoundSetter
+    public void setPageTreeTimeToLive(final int pageTreeTimeToLive)
+    {
+        this.pageTreeTimeToLive = pageTreeTimeToLive;
+    }
+
     /**
      * @param targetTextFile
      */
@@ -259,6 +1012,141 @@ public class FitnesseResultsBuilder extends Builder implements SimpleBuildStep
         this.concurrencyLevel = concurrencyLevel;
     }
 
+    /**
+     * @param warmUpPages
+     */
+    @DataBoundSetter
+    public void setWarmUpPages(final String warmUpPages)
+    {
+        this.warmUpPages = warmUpPages;
+    }
+
+    /**
+     * @param rampUp
+     */
+    @DataBoundSetter
+    public void setRampUp(final boolean rampUp)
+    {
+        this.rampUp = rampUp;
+    }
+
+    /**
+     * @param resourceGroups
+     */
+    @DataBoundSetter
+    public void setResourceGroups(final String resourceGroups)
+    {
+        this.resourceGroups = resourceGroups;
+    }
+
+    /**
+     * @param prioritizeFailures
+     */
+    @DataBoundSetter
+    public void setPrioritizeFailures(final boolean prioritizeFailures)
+    {
+        this.prioritizeFailures = prioritizeFailures;
+    }
+
+    /**
+     * @param timeBudget
+     */
+    @DataBoundSetter
+    public void setTimeBudget(final int timeBudget)
+    {
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * @param noHistory
+     */
+    @DataBoundSetter
+    public void setNoHistory(final boolean noHistory)
+    {
+        this.noHistory = noHistory;
+    }
+
+    /**
+     * @param junitFormat
+     */
+    @DataBoundSetter
+    public void setJunitFormat(final boolean junitFormat)
+    {
+        this.junitFormat = junitFormat;
+    }
+
+    /**
+     * @param rerunFailedPages
+     */
+    @DataBoundSetter
+    public void setRerunFailedPages(final boolean rerunFailedPages)
+    {
+        this.rerunFailedPages = rerunFailedPages;
+    }
+
+    /**
+     * @param rerunConcurrencyLevel
+     */
+    @DataBoundSetter
+    public void setRerunConcurrencyLevel(final int rerunConcurrencyLevel)
+    {
+        this.rerunConcurrencyLevel = rerunConcurrencyLevel;
+    }
+
+    /**
+     * @param reuseCachedResults
+     */
+    @DataBoundSetter
+    public void setReuseCachedResults(final boolean reuseCachedResults)
+    {
+        this.reuseCachedResults = reuseCachedResults;
+    }
+
+    /**
+     * @param sutFingerprint
+     */
+    @DataBoundSetter
+    public void setSutFingerprint(final String sutFingerprint)
+    {
+        this.sutFingerprint = sutFingerprint;
+    }
+
+    /**
+     * @param wikiRootPath
+     */
+    @DataBoundSetter
+    public void setWikiRootPath(final String wikiRootPath)
+    {
+        this.wikiRootPath = wikiRootPath;
+    }
+
+    /**
+     * @param resumable
+     */
+    @DataBoundSetter
+    public void setResumable(final boolean resumable)
+    {
+        this.resumable = resumable;
+    }
+
+    /**
+     * @param importFromHistory
+     */
+    @DataBoundSetter
+    public void setImportFromHistory(final boolean importFromHistory)
+    {
+        this.importFromHistory = importFromHistory;
+    }
+
+    /**
+     * @param historyTimeWindow
+     */
+    @DataBoundSetter
+    public void setHistoryTimeWindow(final int historyTimeWindow)
+    {
+        this.historyTimeWindow = historyTimeWindow;
+    }
+
     /**
      * FitNesse execution targets
      * 
@@ -279,6 +1167,12 @@ public class FitnesseResultsBuilder extends Builder implements SimpleBuildStep
         /** FitNesse page containing a list of FitNesse pages to execute */
         SUITE("suite"),
 
+        /** Test pages of the workspace FitNesseRoot affected by the changes made since the last successful build */
+        CHANGED("changed"),
+
+        /** Glob or regular expression patterns matching the FitNesse pages to execute */
+        PATTERN("pattern"),
+
         /** Unsupported target type */
         UNKNOWN("unknown");
 
@@ -17,17 +17,35 @@ package org.jenkinsci.plugins.fitnesse.builder;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.jenkinsci.plugins.fitnesse.builder.FitnesseResultsBuilder.TargetType;
+import org.jenkinsci.plugins.fitnesse.builder.cache.PageContentHasher;
+import org.jenkinsci.plugins.fitnesse.builder.history.HistoryWindow;
+import org.jenkinsci.plugins.fitnesse.builder.history.SuiteHistoryRecord;
+import org.jenkinsci.plugins.fitnesse.builder.journal.ExecutionJournal;
+import org.jenkinsci.plugins.fitnesse.builder.rerun.FirstAttempt;
 import org.jenkinsci.plugins.fitnesse.builder.runner.FitnessePageRunner;
 import org.jenkinsci.plugins.fitnesse.builder.runner.FitnesseResponse;
+import org.jenkinsci.plugins.fitnesse.builder.runner.PageScheduler;
+import org.jenkinsci.plugins.fitnesse.builder.runner.ResourceGroup;
+import org.jenkinsci.plugins.fitnesse.builder.runner.SuiteFilter;
+import org.jenkinsci.plugins.fitnesse.builder.wiki.WikiIndexer;
+import org.jenkinsci.plugins.fitnesse.builder.wiki.WikiPage;
 
 import hudson.AbortException;
 import hudson.FilePath;
@@ -67,6 +85,28 @@ public class TestsExecutionCallable extends MasterToSlaveFileCallable<List<Fitne
 
     private final String targetSuite;
 
+    private PageContentHasher contentHasher;
+
+    private Map<String, String> reusableContentHashes;
+
+    private List<SuiteFilter> suiteFilters;
+
+    private ExecutionJournal journal;
+
+    private HistoryWindow historyWindow;
+
+    private List<ResourceGroup> resourceGroups;
+
+    private String wikiRootPath;
+
+    private Map<String, Double> pagePriorities;
+
+    private double defaultPriority;
+
+    private FitnessePageRunner rerunRunner;
+
+    private transient Set<String> completedPages;
+
     /**
      * Initializes a new callable responsible for executing
      * the tests with the supplied runner & targets
@@ -94,6 +134,83 @@ public class TestsExecutionCallable extends MasterToSlaveFileCallable<List<Fitne
         this.targetSuite = targetSuite;
     }
 
+    /**
+     * Enables the reuse of previous results, for the pages whose wiki content did not change
+     * 
+     * @param contentHasher computes the hash of the pages' wiki content
+     * @param reusableContentHashes pages having a reusable result, and the hash of the wiki content this result was produced with
+     */
+    public void setResultReuse(final PageContentHasher contentHasher, final Map<String, String> reusableContentHashes)
+    {
+        this.contentHasher = contentHasher;
+        this.reusableContentHashes = reusableContentHashes;
+    }
+
+    /**
+     * Selects the suite pages to run according to their tags, running one suite request per filter
+     * 
+     * @param suiteFilters filters of the suite pages, e.g. the partitions of the suite
+     */
+    public void setSuiteFilters(final List<SuiteFilter> suiteFilters)
+    {
+        this.suiteFilters = suiteFilters;
+    }
+
+    /**
+     * Records the completed pages in a workspace journal, and skips the pages completed by a previous run
+     * 
+     * @param journal the execution journal
+     */
+    public void setJournal(final ExecutionJournal journal)
+    {
+        this.journal = journal;
+    }
+
+    /**
+     * Imports the latest test history records stored by FitNesse instead of executing the pages or suite
+     * 
+     * @param historyWindow time window of the imported records
+     */
+    public void setHistoryWindow(final HistoryWindow historyWindow)
+    {
+        this.historyWindow = historyWindow;
+    }
+
+    /**
+     * Limits the number of concurrently running pages of each resource group
+     * 
+     * @param resourceGroups the resource groups
+     * @param wikiRootPath path of the {@code FitNesseRoot} directory relative to the workspace, from which the tags
+     *            of the pages are read (may be {@code null})
+     */
+    public void setResourceGroups(final List<ResourceGroup> resourceGroups, final String wikiRootPath)
+    {
+        this.resourceGroups = resourceGroups;
+        this.wikiRootPath = wikiRootPath;
+    }
+
+    /**
+     * Runs the pages by decreasing priority, instead of in the order they are listed
+     * 
+     * @param pagePriorities priority of the pages, by page name
+     * @param defaultPriority priority of the pages which are not listed
+     */
+    public void setPagePriorities(final Map<String, Double> pagePriorities, final double defaultPriority)
+    {
+        this.pagePriorities = pagePriorities;
+        this.defaultPriority = defaultPriority;
+    }
+
+    /**
+     * Reruns the failed pages once all the pages completed, the response of a rerun page replacing its first one
+     * 
+     * @param rerunRunner class responsible for rerunning the failed pages, e.g. at a lower concurrency level
+     */
+    public void setRerunRunner(final FitnessePageRunner rerunRunner)
+    {
+        this.rerunRunner = rerunRunner;
+    }
+
     /** {@inheritDoc} */
     @Override
     public List<FitnesseResponse> invoke(final File workspace, final VirtualChannel channel) throws IOException, InterruptedException
@@ -105,15 +222,223 @@ public class TestsExecutionCallable extends MasterToSlaveFileCallable<List<Fitne
             throw new AbortException(String.format("Unsupported target type \"%s\"", this.targetType));
         }
 
+        this.completedPages = this.journal == null ? Collections.emptySet() : this.journal.readCompletedPages(workspace);
+
+        if (!this.completedPages.isEmpty())
+        {
+            this.listener.getLogger().printf("Resuming a previous run, %d pages already completed%n", this.completedPages.size());
+        }
+
+        // import of the FitNesse test history
+
+        if (this.historyWindow != null)
+        {
+            if (suppliedTargetType == TargetType.SUITE)
+            {
+                return this.importSuiteResults(workspace);
+            }
+
+            final String[] pages = this.readTargetPages(workspace, suppliedTargetType);
+
+            return this.awaitResponses(Arrays.stream(pages).map(page -> this.resumeOrExecute(workspace, page, () -> this.importLatestResult(page))));
+        }
+
         // execution of a FitNesse suite
 
         if (suppliedTargetType == TargetType.SUITE)
         {
-            return Collections.singletonList(this.runner.executeSuite(this.targetSuite).join());
+            if ((this.suiteFilters == null) || this.suiteFilters.isEmpty())
+            {
+                return Collections.singletonList(this.resumeOrExecute(workspace, this.targetSuite, () -> this.runner.executeSuite(this.targetSuite)).join());
+            }
+
+            if (this.suiteFilters.size() == 1)
+            {
+                final SuiteFilter suiteFilter = this.suiteFilters.get(0);
+
+                return Collections.singletonList(this.resumeOrExecute(workspace, suiteFilter.getResultName(this.targetSuite),
+                        () -> this.runner.executeSuite(this.targetSuite, suiteFilter)).join());
+            }
+
+            // run the partitions of the suite in parallel
+            return this.awaitResponses(this.suiteFilters
+                    .stream()
+                    .map(suiteFilter -> this.resumeOrExecute(workspace, suiteFilter.getResultName(this.targetSuite),
+                            () -> this.runner.executeSuite(this.targetSuite, suiteFilter))));
         }
 
         // execution of a FitNesse pages list
 
+        final String[] pages = this.readTargetPages(workspace, suppliedTargetType);
+        final Map<String, Set<String>> pageTags = this.readPageTags(workspace);
+        final PageScheduler scheduler = this.createScheduler(this.runner.getConcurrencyLevel(), pageTags);
+
+        // the requests are dispatched in the order they are enqueued
+        if (this.pagePriorities != null)
+        {
+            Arrays.sort(pages, Comparator.comparingDouble((final String page) -> -this.getPriority(page)));
+            this.listener.getLogger().printf("Running the pages most likely to fail first, starting with \"%s\"%n", pages.length > 0 ? pages[0] : "");
+        }
+
+        // enqueue all FitNesse calls, the failed pages being journaled once rerun
+        final List<FitnesseResponse> responses = this.awaitResponses(Arrays.stream(pages).map(page -> this.resumeOrExecute(workspace, page, () -> scheduler == null
+                ? this.executeOrReuse(workspace, page)
+                : scheduler.schedule(page, this.getPriority(page), () -> this.executeOrReuse(workspace, page)), this.rerunRunner != null)));
+
+        return this.rerunRunner == null
+                ? responses
+                : this.rerunFailedPages(workspace, responses, this.createScheduler(this.rerunRunner.getConcurrencyLevel(), pageTags));
+    }
+
+    /**
+     * Reruns the pages which failed, to tell the flaky pages from the consistently failing ones
+     * 
+     * @param workspace build workspace
+     * @param responses responses of the first attempts
+     * @param scheduler scheduler which dispatches the reruns according to their resource group (may be {@code null})
+     * @return the responses, the ones of the rerun pages replacing the ones of their first attempt
+     * @throws IOException if the first attempt of a page whose rerun could not complete could not be journaled
+     * @throws InterruptedException if the build was aborted in the meantime
+     */
+    private List<FitnesseResponse> rerunFailedPages(final File workspace, final List<FitnesseResponse> responses, final PageScheduler scheduler)
+            throws IOException, InterruptedException
+    {
+        // a resumed page was journaled once rerun, by the interrupted run
+        final List<FitnesseResponse> failedResponses = responses.stream()
+                .filter(response -> !response.isCached() && !response.isResumed() && FirstAttempt.isFailed(response.getContent()))
+                .collect(Collectors.toList());
+
+        if (failedResponses.isEmpty())
+        {
+            return responses;
+        }
+
+        this.listener.getLogger().printf("Rerunning %d failed pages at a concurrency level of %d...%n", failedResponses.size(), this.rerunRunner.getConcurrencyLevel());
+
+        final Map<String, FitnesseResponse> rerunResponses = this.awaitResponses(failedResponses.stream().map(response -> scheduler == null
+                ? this.rerun(workspace, response)
+                : scheduler.schedule(response.getPage(), this.getPriority(response.getPage()), () -> this.rerun(workspace, response))))
+                .stream()
+                .collect(Collectors.toMap(FitnesseResponse::getPage, response -> response));
+
+        final long flakyPages = rerunResponses.values().stream().filter(response -> !FirstAttempt.isFailed(response.getContent())).count();
+        this.listener.getLogger().printf("%d flaky pages passed when rerun, %d pages failed again%n", flakyPages, rerunResponses.size() - flakyPages);
+
+        // the first attempt is kept for the pages whose rerun could not complete
+        if (this.journal != null)
+        {
+            for (final FitnesseResponse response : failedResponses)
+            {
+                if (!rerunResponses.containsKey(response.getPage()))
+                {
+                    this.journal.record(workspace, response);
+                }
+            }
+        }
+
+        return responses.stream()
+                .map(response -> rerunResponses.getOrDefault(response.getPage(), response))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reruns a failed page, keeping the counts of its first attempt in the response
+     * 
+     * @param workspace build workspace
+     * @param firstAttempt response of the first attempt
+     * @return the response of the rerun
+     */
+    private CompletableFuture<FitnesseResponse> rerun(final File workspace, final FitnesseResponse firstAttempt)
+    {
+        return this.rerunRunner.executePage(firstAttempt.getPage()).thenApply(rerun -> {
+            final FitnesseResponse response = new FitnesseResponse(firstAttempt.getPage(), FirstAttempt.annotate(rerun.getContent(), firstAttempt.getContent()));
+
+            // a flaky page is not reused by the next builds
+            if (FirstAttempt.isFailed(response.getContent()))
+            {
+                response.setContentHash(firstAttempt.getContentHash());
+            }
+
+            if (this.journal != null)
+            {
+                try
+                {
+                    this.journal.record(workspace, response);
+                } catch (final IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            return response;
+        });
+    }
+
+    /**
+     * @param page name of the page
+     * @return priority of the page
+     */
+    private double getPriority(final String page)
+    {
+        return this.pagePriorities == null ? 0 : this.pagePriorities.getOrDefault(page.trim(), this.defaultPriority);
+    }
+
+    /**
+     * Creates the scheduler which dispatches the pages according to their resource group
+     * 
+     * @param concurrencyLevel maximum number of concurrently running pages
+     * @param pageTags tags of the pages, by page name
+     * @return the page scheduler, or {@code null} if the pages are dispatched as they come
+     */
+    private PageScheduler createScheduler(final int concurrencyLevel, final Map<String, Set<String>> pageTags)
+    {
+        if ((this.resourceGroups == null) || this.resourceGroups.isEmpty())
+        {
+            return null;
+        }
+
+        return new PageScheduler(concurrencyLevel, this.resourceGroups, pageTags);
+    }
+
+    /**
+     * Reads the tags of the pages, when a resource group is defined by tags
+     * 
+     * @param workspace build workspace
+     * @return the tags of the pages, by page name
+     * @throws IOException if the tags of the pages could not be read
+     */
+    private Map<String, Set<String>> readPageTags(final File workspace) throws IOException
+    {
+        final Map<String, Set<String>> pageTags = new HashMap<>();
+
+        if ((this.resourceGroups != null) && this.resourceGroups.stream().anyMatch(group -> !group.getTags().isEmpty()))
+        {
+            if ((this.wikiRootPath == null) || this.wikiRootPath.trim().isEmpty())
+            {
+                this.listener.getLogger().println("The tags of the pages are read from the wiki in the workspace, but no FitNesseRoot path was specified");
+            } else
+            {
+                for (final WikiPage page : WikiIndexer.index(workspace.toPath().resolve(this.wikiRootPath.trim()), null).getPages())
+                {
+                    pageTags.put(page.getName(), page.getTags());
+                }
+            }
+        }
+
+        return pageTags;
+    }
+
+    /**
+     * Reads the list of FitNesse pages to run
+     * 
+     * @param workspace build workspace
+     * @param suppliedTargetType type of the targeted pages
+     * @return the names of the targeted pages
+     * @throws IOException if the pages file could not be read
+     * @throws InterruptedException if the build was aborted in the meantime
+     */
+    private String[] readTargetPages(final File workspace, final TargetType suppliedTargetType) throws IOException, InterruptedException
+    {
         String[] pages = new String[] {};
 
         // read pages from a text file in the workspace
@@ -132,14 +457,67 @@ public class TestsExecutionCallable extends MasterToSlaveFileCallable<List<Fitne
             pages = this.targetPages.split("\n");
         }
 
-        // enqueue all FitNesse calls
-        final CompletableFuture<FitnesseResponse>[] responses = Arrays.stream(pages)
-                .map(this.runner::executePage)
+        return pages;
+    }
+
+    /**
+     * Imports the test history records of the pages of the target suite, referenced by the latest record of the suite
+     * 
+     * @param workspace build workspace
+     * @return the test history records of the pages, or the record of the target if it is a test page
+     * @throws InterruptedException if the build was aborted in the meantime
+     */
+    private List<FitnesseResponse> importSuiteResults(final File workspace) throws InterruptedException
+    {
+        final List<FitnesseResponse> records = this.awaitResponses(Stream.of(this.importLatestResult(this.targetSuite)));
+
+        if (records.isEmpty() || !SuiteHistoryRecord.isSuiteRecord(records.get(0).getContent()))
+        {
+            return records;
+        }
+
+        // a suite record only references the records of its pages
+        final Map<String, String> resultDates = SuiteHistoryRecord.getPageResultDates(records.get(0).getContent());
+        this.listener.getLogger().printf("Importing the test history records of the %d pages of suite \"%s\"%n", resultDates.size(), this.targetSuite);
+
+        return this.awaitResponses(resultDates.entrySet().stream().map(resultDate -> this.resumeOrExecute(workspace, resultDate.getKey(),
+                () -> this.runner.fetchResult(resultDate.getKey(), resultDate.getValue()))));
+    }
+
+    /**
+     * Retrieves the latest test history record of a page or suite, rejecting it if it is outside of the time window
+     * 
+     * @param target name of the page or suite
+     * @return the test history record, in the same format as an execution result
+     */
+    private CompletableFuture<FitnesseResponse> importLatestResult(final String target)
+    {
+        return this.runner.fetchLatestResult(target).thenApply(response -> {
+            if (!this.historyWindow.contains(response.getContent()))
+            {
+                throw new IllegalStateException(String.format("The latest test history record of \"%s\" is outside of the time window, skipping it", target));
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Awaits the completion of FitNesse calls, logging the failed ones
+     * 
+     * @param futures the enqueued FitNesse calls
+     * @return the successful responses
+     * @throws InterruptedException if the build was aborted in the meantime
+     */
+    private List<FitnesseResponse> awaitResponses(final Stream<CompletableFuture<FitnesseResponse>> futures) throws InterruptedException
+    {
+        final CompletableFuture<FitnesseResponse>[] responses = futures
                 // log failed responses and null them out
                 .map(future -> future.handle((response, error) -> {
                     if (error != null)
                     {
-                        this.listener.getLogger().println(error.getMessage());
+                        // failures of dependent stages are wrapped
+                        final Throwable cause = ((error instanceof CompletionException) && (error.getCause() != null)) ? error.getCause() : error;
+                        this.listener.getLogger().println(cause.getMessage());
                         return null;
                     }
                     return response;
@@ -165,4 +543,100 @@ public class TestsExecutionCallable extends MasterToSlaveFileCallable<List<Fitne
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Skips a page or suite completed by a previous run, or executes it and records it in the journal
+     * 
+     * @param workspace build workspace
+     * @param name name of the results of the page or suite
+     * @param execution executes the page or suite
+     * @return the response of the execution, or a resumed response placeholder
+     */
+    private CompletableFuture<FitnesseResponse> resumeOrExecute(final File workspace, final String name, final Supplier<CompletableFuture<FitnesseResponse>> execution)
+    {
+        return this.resumeOrExecute(workspace, name, execution, false);
+    }
+
+    /**
+     * Skips a page or suite completed by a previous run, or executes it and records it in the journal
+     * 
+     * @param workspace build workspace
+     * @param name name of the results of the page or suite
+     * @param execution executes the page or suite
+     * @param rerunFailures whether a failed execution is rerun, and journaled once rerun rather than now, for a
+     *            run interrupted in the meantime to execute it again when resumed
+     * @return the response of the execution, or a resumed response placeholder
+     */
+    private CompletableFuture<FitnesseResponse> resumeOrExecute(final File workspace, final String name, final Supplier<CompletableFuture<FitnesseResponse>> execution,
+            final boolean rerunFailures)
+    {
+        if (this.journal == null)
+        {
+            return execution.get();
+        }
+
+        try
+        {
+            if (this.completedPages.contains(name))
+            {
+                this.journal.touch(workspace, name);
+                return CompletableFuture.completedFuture(FitnesseResponse.resumed(name));
+            }
+        } catch (final IOException e)
+        {
+            // run the page again if its results file could not be reused
+            this.listener.getLogger().printf("Could not reuse the results file of \"%s\": %s%n", name, e.getMessage());
+        }
+
+        return execution.get().thenApply(response -> {
+            // reused results are not run, hence not journaled
+            if (!response.isCached() && !(rerunFailures && FirstAttempt.isFailed(response.getContent())))
+            {
+                try
+                {
+                    this.journal.record(workspace, response);
+                } catch (final IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Executes a page, unless its previous result can be reused
+     * 
+     * @param workspace build workspace
+     * @param page name of the FitNesse page
+     * @return the response of the page execution, or a cached response placeholder
+     */
+    private CompletableFuture<FitnesseResponse> executeOrReuse(final File workspace, final String page)
+    {
+        if (this.contentHasher == null)
+        {
+            return this.runner.executePage(page);
+        }
+
+        return this.contentHasher.hash(workspace, page)
+                // execute the page anyway if its content could not be hashed
+                .handle((contentHash, error) -> {
+                    if (error != null)
+                    {
+                        this.listener.getLogger().printf("Could not compute the content hash of page \"%s\": %s%n", page, error.getMessage());
+                    }
+                    return contentHash;
+                })
+                .thenCompose(contentHash -> {
+                    if ((contentHash != null) && contentHash.equals(this.reusableContentHashes.get(page)))
+                    {
+                        return CompletableFuture.completedFuture(FitnesseResponse.cached(page, contentHash));
+                    }
+
+                    return this.runner.executePage(page).thenApply(response -> {
+                        response.setContentHash(contentHash);
+                        return response;
+                    });
+                });
+    }
 }
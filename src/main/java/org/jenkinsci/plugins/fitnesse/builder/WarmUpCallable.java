@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import org.jenkinsci.plugins.fitnesse.builder.runner.FitnessePageRunner;
+
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+
+/**
+ * Runs the warm-up pages which prime the FitNesse server and the system under test,
+ * <strong>on the node where the build occurs</strong>
+ * 
+ * <p>
+ * The results of the warm-up pages are discarded, failures included.
+ * 
+ */
+public class WarmUpCallable extends MasterToSlaveFileCallable<Long>
+{
+
+    private static final long serialVersionUID = 7320885164523913846L;
+
+    private final FitnessePageRunner runner;
+
+    private final List<String> warmUpPages;
+
+    private final TaskListener listener;
+
+    /**
+     * Constructor
+     * 
+     * @param runner runner of the FitNesse pages
+     * @param warmUpPages names of the warm-up pages
+     * @param listener build listener, for logging
+     */
+    public WarmUpCallable(final FitnessePageRunner runner, final List<String> warmUpPages, final TaskListener listener)
+    {
+        this.runner = runner;
+        this.warmUpPages = warmUpPages;
+        this.listener = listener;
+    }
+
+    /**
+     * @return duration of the warm-up, in milliseconds
+     */
+    @Override
+    public Long invoke(final File workspace, final VirtualChannel channel) throws IOException, InterruptedException
+    {
+        final long start = System.currentTimeMillis();
+
+        final CompletableFuture<?>[] responses = this.warmUpPages
+                .stream()
+                .map(page -> this.runner.executePage(page).handle((response, error) -> {
+                    if (error != null)
+                    {
+                        final Throwable cause = ((error instanceof CompletionException) && (error.getCause() != null)) ? error.getCause() : error;
+                        this.listener.getLogger().printf("Warm-up page \"%s\" failed: %s%n", page, cause.getMessage());
+                    }
+                    return null;
+                }))
+                .toArray(CompletableFuture[]::new);
+
+        try
+        {
+            CompletableFuture.allOf(responses).get();
+        } catch (final InterruptedException ie)
+        {
+            this.runner.cancelRequests();
+            throw ie;
+        } catch (final ExecutionException e)
+        {
+            // should not happen, failures are handled beforehand
+            throw new IllegalStateException(e);
+        }
+
+        return System.currentTimeMillis() - start;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+import org.jenkinsci.plugins.fitnesse.builder.runner.FitnesseResponse;
+
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+
+/**
+ * Runs the warm-up pages, then the tests, <strong>on the node where the build occurs</strong>, so that the build
+ * step does not wait for the warm-up to start the execution in the background
+ * 
+ */
+public class WarmUpThenTestsCallable extends MasterToSlaveFileCallable<WarmUpThenTestsCallable.Result>
+{
+
+    private static final long serialVersionUID = -2946139480757385726L;
+
+    private final WarmUpCallable warmUp;
+
+    private final TestsExecutionCallable tests;
+
+    private final TaskListener listener;
+
+    /**
+     * Constructor
+     * 
+     * @param warmUp runs the warm-up pages (may be {@code null})
+     * @param tests runs the tests
+     * @param listener build listener, for logging
+     */
+    public WarmUpThenTestsCallable(final WarmUpCallable warmUp, final TestsExecutionCallable tests, final TaskListener listener)
+    {
+        this.warmUp = warmUp;
+        this.tests = tests;
+        this.listener = listener;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Result invoke(final File workspace, final VirtualChannel channel) throws IOException, InterruptedException
+    {
+        long warmUpDuration = 0;
+
+        if (this.warmUp != null)
+        {
+            warmUpDuration = this.warmUp.invoke(workspace, channel);
+            this.listener.getLogger().printf("FitNesse warm-up completed in %d ms%n", warmUpDuration);
+        }
+
+        return new Result(warmUpDuration, this.tests.invoke(workspace, channel));
+    }
+
+    /**
+     * Responses of the tests, and duration of the warm-up which preceded them
+     */
+    public static final class Result implements Serializable
+    {
+
+        private static final long serialVersionUID = 4160594367851227204L;
+
+        /** Result of an execution which did not run any page */
+        static final Result EMPTY = new Result(0, Collections.emptyList());
+
+        private final long warmUpDuration;
+
+        private final List<FitnesseResponse> responses;
+
+        /**
+         * Constructor
+         * 
+         * @param warmUpDuration duration of the warm-up, in milliseconds
+         * @param responses responses of the tests
+         */
+        public Result(final long warmUpDuration, final List<FitnesseResponse> responses)
+        {
+            this.warmUpDuration = warmUpDuration;
+            this.responses = responses;
+        }
+
+        /**
+         * @return duration of the warm-up, in milliseconds
+         */
+        public long getWarmUpDuration()
+        {
+            return this.warmUpDuration;
+        }
+
+        /**
+         * @return responses of the tests
+         */
+        public List<FitnesseResponse> getResponses()
+        {
+            return this.responses;
+        }
+    }
+}
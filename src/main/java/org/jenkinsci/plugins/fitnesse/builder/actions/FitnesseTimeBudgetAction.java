@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.actions;
+
+import java.util.List;
+
+import hudson.Util;
+import hudson.model.InvisibleAction;
+
+/**
+ * Records the pages a build selected to fit its time budget, and the pages it skipped, shown on the build page
+ * 
+ */
+public class FitnesseTimeBudgetAction extends InvisibleAction
+{
+
+    private final long budget;
+
+    private final int selectedPages;
+
+    private final long estimatedDuration;
+
+    private final List<String> skippedPages;
+
+    /**
+     * Constructor
+     * 
+     * @param budget time budget, in milliseconds
+     * @param selectedPages number of selected pages
+     * @param estimatedDuration estimated duration of the selected pages, in milliseconds
+     * @param skippedPages names of the skipped pages
+     */
+    public FitnesseTimeBudgetAction(final long budget, final int selectedPages, final long estimatedDuration, final List<String> skippedPages)
+    {
+        this.budget = budget;
+        this.selectedPages = selectedPages;
+        this.estimatedDuration = estimatedDuration;
+        this.skippedPages = skippedPages;
+    }
+
+    /**
+     * @return human-readable time budget
+     */
+    public String getBudgetString()
+    {
+        return Util.getTimeSpanString(this.budget);
+    }
+
+    /**
+     * @return number of selected pages
+     */
+    public int getSelectedPages()
+    {
+        return this.selectedPages;
+    }
+
+    /**
+     * @return human-readable estimated duration of the selected pages
+     */
+    public String getEstimatedDurationString()
+    {
+        return Util.getTimeSpanString(this.estimatedDuration);
+    }
+
+    /**
+     * @return names of the skipped pages
+     */
+    public List<String> getSkippedPages()
+    {
+        return this.skippedPages;
+    }
+}
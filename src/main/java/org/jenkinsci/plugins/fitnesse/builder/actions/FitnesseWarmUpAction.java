@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.actions;
+
+import hudson.Util;
+import hudson.model.InvisibleAction;
+
+/**
+ * Records the warm-up of the FitNesse server with a build, whose duration is excluded from the tests results
+ * and shown separately on the build page
+ * 
+ */
+public class FitnesseWarmUpAction extends InvisibleAction
+{
+
+    private final int pages;
+
+    private final long duration;
+
+    /**
+     * Constructor
+     * 
+     * @param pages number of warm-up pages
+     * @param duration duration of the warm-up, in milliseconds
+     */
+    public FitnesseWarmUpAction(final int pages, final long duration)
+    {
+        this.pages = pages;
+        this.duration = duration;
+    }
+
+    /**
+     * @return number of warm-up pages
+     */
+    public int getPages()
+    {
+        return this.pages;
+    }
+
+    /**
+     * @return duration of the warm-up, in milliseconds
+     */
+    public long getDuration()
+    {
+        return this.duration;
+    }
+
+    /**
+     * @return human-readable duration of the warm-up
+     */
+    public String getDurationString()
+    {
+        return Util.getTimeSpanString(this.duration);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jenkinsci.plugins.fitnesse.builder.runner.FitnessePageRunner;
+import org.jenkinsci.plugins.fitnesse.builder.tree.PageTree;
+import org.jenkinsci.plugins.fitnesse.builder.wiki.WikiIndex;
+import org.jenkinsci.plugins.fitnesse.builder.wiki.WikiIndexer;
+import org.jenkinsci.plugins.fitnesse.util.Digests;
+
+/**
+ * Computes the hash of the wiki content of FitNesse pages, along with the content of the pages they depend upon,
+ * <strong>on the node where the build occurs</strong>
+ * 
+ * <p>
+ * The content is read from the {@code FitNesseRoot} directory checked out in the workspace when
+ * its location is known and the page is found there, the hash then covering the included pages, the inherited
+ * set up and tear down pages and the scenario libraries. Otherwise the rendered content is retrieved from the
+ * remote FitNesse host, the included pages being rendered within it, along with the rendered content of the
+ * inherited pages.
+ * 
+ */
+public class PageContentHasher implements Serializable
+{
+
+    private static final long serialVersionUID = -1757412853002874170L;
+
+    private final FitnessePageRunner runner;
+
+    private final String wikiRootPath;
+
+    /** Index of the {@code FitNesseRoot} directory of the workspace, built once */
+    private transient WikiIndex wikiIndex;
+
+    /** Names of the pages of the remote FitNesse host, retrieved once */
+    private transient CompletableFuture<Set<String>> remotePageNames;
+
+    /** Hashes of the rendered content of the remote pages, retrieved once */
+    private transient ConcurrentMap<String, CompletableFuture<String>> remoteContentHashes;
+
+    /**
+     * Constructor
+     * 
+     * @param runner runner used to retrieve the page content from the remote FitNesse host
+     * @param wikiRootPath path of the {@code FitNesseRoot} directory, relative to the workspace (may be {@code null})
+     */
+    public PageContentHasher(final FitnessePageRunner runner, final String wikiRootPath)
+    {
+        this.runner = runner;
+        this.wikiRootPath = wikiRootPath;
+    }
+
+    /**
+     * Computes the hash of the wiki content of a given page and of the pages it depends upon
+     * 
+     * @param workspace build workspace
+     * @param page name of the FitNesse page
+     * @return the hash of the page's wiki content and dependencies
+     */
+    public CompletableFuture<String> hash(final File workspace, final String page)
+    {
+        if ((this.wikiRootPath != null) && !this.wikiRootPath.trim().isEmpty())
+        {
+            final Path wikiRoot = workspace.toPath().resolve(this.wikiRootPath.trim());
+
+            if (Files.isDirectory(wikiRoot))
+            {
+                try
+                {
+                    final String dependencyHash = this.getWikiIndex(wikiRoot).getDependencyHash(page);
+
+                    if (dependencyHash != null)
+                    {
+                        return CompletableFuture.completedFuture(dependencyHash);
+                    }
+                } catch (final IOException e)
+                {
+                    final CompletableFuture<String> failure = new CompletableFuture<>();
+                    failure.completeExceptionally(e);
+                    return failure;
+                }
+            }
+        }
+
+        return this.getRemotePageNames().thenCompose(pageNames -> {
+            final List<String> pages = new ArrayList<>();
+            pages.add(page);
+            pages.addAll(WikiIndex.getInheritedPages(page, pageNames::contains));
+
+            final List<CompletableFuture<String>> contentHashes = new ArrayList<>();
+            pages.forEach(name -> contentHashes.add(this.getRemoteContentHash(name)));
+
+            return CompletableFuture.allOf(contentHashes.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+                final MessageDigest digest = Digests.newSha256();
+
+                for (int i = 0; i < pages.size(); i++)
+                {
+                    digest.update(String.format("%s=%s%n", pages.get(i), contentHashes.get(i).join()).getBytes(StandardCharsets.UTF_8));
+                }
+
+                return Digests.toHex(digest.digest());
+            });
+        });
+    }
+
+    /**
+     * @param wikiRoot the {@code FitNesseRoot} directory of the workspace
+     * @return its index, built on the first call
+     * @throws IOException if the directory could not be indexed
+     */
+    private synchronized WikiIndex getWikiIndex(final Path wikiRoot) throws IOException
+    {
+        if (this.wikiIndex == null)
+        {
+            this.wikiIndex = WikiIndexer.index(wikiRoot, null);
+        }
+
+        return this.wikiIndex;
+    }
+
+    /**
+     * @return names of the pages of the remote FitNesse host, retrieved on the first call
+     */
+    private synchronized CompletableFuture<Set<String>> getRemotePageNames()
+    {
+        if (this.remotePageNames == null)
+        {
+            this.remotePageNames = this.runner.fetchPageNames(null).thenApply(response -> PageTree.parse(response.getContent(), null, 0).getPages());
+        }
+
+        return this.remotePageNames;
+    }
+
+    /**
+     * @param page name of a remote page
+     * @return the hash of its rendered content, retrieved on the first call for this page
+     */
+    private CompletableFuture<String> getRemoteContentHash(final String page)
+    {
+        synchronized (this)
+        {
+            if (this.remoteContentHashes == null)
+            {
+                this.remoteContentHashes = new ConcurrentHashMap<>();
+            }
+        }
+
+        return this.remoteContentHashes.computeIfAbsent(page,
+                name -> this.runner.fetchPageContent(name).thenApply(response -> Digests.sha256(response.getContent())));
+    }
+}
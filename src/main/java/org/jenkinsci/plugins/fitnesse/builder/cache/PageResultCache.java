@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jenkinsci.plugins.fitnesse.publisher.model.FitnesseResult;
+import org.jenkinsci.plugins.fitnesse.publisher.parser.FitnesseResultParser;
+import org.jenkinsci.plugins.fitnesse.util.Digests;
+
+import hudson.XmlFile;
+import hudson.model.Job;
+
+/**
+ * Per-job store of the passing results of FitNesse pages, which allows to skip the execution
+ * of pages whose wiki content and system under test did not change since they last passed
+ * 
+ * <p>
+ * The store lives on the Jenkins master, in the job directory. Each page has at most one entry,
+ * referencing the raw FitNesse response of its last passing execution. The builds running concurrently each
+ * work on the index read when they opened the cache, and merge their own updates into the latest stored
+ * index when they save it. A stored response is named after the page, its content hash and the system under
+ * test fingerprint, so that a build never reads the response another build stored for a different content.
+ * 
+ */
+public class PageResultCache
+{
+
+    /** Name of the cache directory, relative to the job directory */
+    private static final String CACHE_DIRECTORY = "fitnesse-result-cache";
+
+    private static final String INDEX_FILE = "index.xml";
+
+    private static final String ENTRY_EXTENSION = ".xml";
+
+    /** Element added to a reused response, for the report to tell which build produced it */
+    private static final String CACHED_FROM_BUILD_ELEMENT = "cachedFromBuild";
+
+    /** Root element of a FitNesse response, in the XML or the JUnit format */
+    public static final String ROOT_ELEMENT_PATTERN = "<(testResults|testsuite)\\b[^>]*>";
+
+    /** Locks of the caches, by cache directory */
+    private static final ConcurrentMap<Path, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private final Path directory;
+
+    private final XmlFile index;
+
+    private final Map<String, PageResultCacheEntry> entries;
+
+    /** Entries updated since the cache was opened, {@code null} for the removed ones */
+    private final Map<String, PageResultCacheEntry> updatedEntries = new LinkedHashMap<>();
+
+    private final Object lock;
+
+    /**
+     * Opens the cache stored in the given directory
+     * 
+     * @param directory directory where the cache is stored
+     * @throws IOException if the cache index could not be read
+     */
+    public PageResultCache(final Path directory) throws IOException
+    {
+        this.directory = directory;
+        this.index = new XmlFile(directory.resolve(PageResultCache.INDEX_FILE).toFile());
+        this.lock = PageResultCache.LOCKS.computeIfAbsent(directory.toAbsolutePath().normalize(), key -> new Object());
+
+        synchronized (this.lock)
+        {
+            this.entries = this.readIndex();
+        }
+    }
+
+    /**
+     * @param job Jenkins job
+     * @return the cache of the given job
+     * @throws IOException if the cache index could not be read
+     */
+    public static PageResultCache forJob(final Job<?, ?> job) throws IOException
+    {
+        return new PageResultCache(new File(job.getRootDir(), PageResultCache.CACHE_DIRECTORY).toPath());
+    }
+
+    /**
+     * Lists the pages whose stored result can be reused for the given system under test,
+     * provided their wiki content is unchanged
+     * 
+     * @param fingerprint fingerprint of the system under test
+     * @return the reusable pages, and the hash of the wiki content their result was produced with
+     */
+    public synchronized Map<String, String> getReusableContentHashes(final String fingerprint)
+    {
+        final Map<String, String> contentHashes = new HashMap<>();
+
+        for (final Map.Entry<String, PageResultCacheEntry> entry : this.entries.entrySet())
+        {
+            if (entry.getValue().getFingerprint().equals(fingerprint) && Files.exists(this.entryFile(entry.getKey(), entry.getValue())))
+            {
+                contentHashes.put(entry.getKey(), entry.getValue().getContentHash());
+            }
+        }
+
+        return contentHashes;
+    }
+
+    /**
+     * @param page name of the FitNesse page
+     * @return the stored entry of the page, or {@code null} if there is none
+     */
+    public synchronized PageResultCacheEntry getEntry(final String page)
+    {
+        return this.entries.get(page);
+    }
+
+    /**
+     * Reads the stored FitNesse response of a page, marked with the number of the build which produced it
+     * 
+     * @param page name of the FitNesse page
+     * @return the stored FitNesse response, or {@code null} if there is none, e.g. because another build
+     *         replaced or evicted it since the cache was opened
+     * @throws IOException if the stored response could not be read
+     */
+    public synchronized String getContent(final String page) throws IOException
+    {
+        final PageResultCacheEntry entry = this.entries.get(page);
+
+        if (entry == null)
+        {
+            return null;
+        }
+
+        final String content;
+
+        try
+        {
+            content = new String(Files.readAllBytes(this.entryFile(page, entry)), StandardCharsets.UTF_8);
+        } catch (final NoSuchFileException e)
+        {
+            return null;
+        }
+
+        return content.replaceFirst(PageResultCache.ROOT_ELEMENT_PATTERN, "$0" + Matcher.quoteReplacement(
+                String.format("%n\t<%2$s>%1$d</%2$s>", entry.getBuildNumber(), PageResultCache.CACHED_FROM_BUILD_ELEMENT)));
+    }
+
+    /**
+     * Records the result of a freshly executed page: stores it if the page passed, forgets any previous result otherwise
+     * 
+     * @param page name of the FitNesse page
+     * @param contentHash hash of the page's wiki content
+     * @param fingerprint fingerprint of the system under test
+     * @param buildNumber number of the build which executed the page
+     * @param content FitNesse response of the page
+     * @throws IOException if the response could not be stored
+     */
+    public synchronized void update(final String page, final String contentHash, final String fingerprint, final int buildNumber, final String content) throws IOException
+    {
+        if (!PageResultCache.isPassing(content))
+        {
+            this.entries.remove(page);
+            this.updatedEntries.put(page, null);
+            return;
+        }
+
+        final PageResultCacheEntry entry = new PageResultCacheEntry(contentHash, fingerprint, buildNumber);
+
+        Files.createDirectories(this.directory);
+
+        // write the response aside, so that a stored response is never partially written
+        final Path temporaryFile = Files.createTempFile(this.directory, Digests.sha256(page), ".tmp");
+        Files.write(temporaryFile, content.getBytes(StandardCharsets.UTF_8));
+        Files.move(temporaryFile, this.entryFile(page, entry), StandardCopyOption.REPLACE_EXISTING);
+
+        this.entries.put(page, entry);
+        this.updatedEntries.put(page, entry);
+    }
+
+    /**
+     * Persists the cache index, merging the entries updated since the cache was opened into the latest stored index
+     * 
+     * @throws IOException if the index could not be written
+     */
+    public synchronized void save() throws IOException
+    {
+        synchronized (this.lock)
+        {
+            final Map<String, PageResultCacheEntry> latestEntries = this.readIndex();
+
+            for (final Map.Entry<String, PageResultCacheEntry> updatedEntry : this.updatedEntries.entrySet())
+            {
+                final String page = updatedEntry.getKey();
+                final PageResultCacheEntry entry = updatedEntry.getValue();
+                final PageResultCacheEntry replacedEntry = (entry == null) ? latestEntries.remove(page) : latestEntries.put(page, entry);
+
+                // the builds still reusing the replaced response run the page again
+                if ((replacedEntry != null) && ((entry == null) || !this.entryFile(page, entry).equals(this.entryFile(page, replacedEntry))))
+                {
+                    Files.deleteIfExists(this.entryFile(page, replacedEntry));
+                }
+            }
+
+            Files.createDirectories(this.directory);
+            this.index.write(latestEntries);
+            this.updatedEntries.clear();
+        }
+    }
+
+    /**
+     * @return the entries of the stored index
+     * @throws IOException if the index could not be read
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, PageResultCacheEntry> readIndex() throws IOException
+    {
+        return this.index.exists() ? (Map<String, PageResultCacheEntry>) this.index.read() : new HashMap<>();
+    }
+
+    private Path entryFile(final String page, final PageResultCacheEntry entry)
+    {
+        return this.directory.resolve(Digests.sha256(String.join("\n", page, entry.getContentHash(), entry.getFingerprint())) + PageResultCache.ENTRY_EXTENSION);
+    }
+
+    /**
+     * @param content a FitNesse response
+     * @return {@code true} if the response reports some right assertions and neither wrong ones nor exceptions
+     */
+    private static boolean isPassing(final String content)
+    {
+        final FitnesseResultParser parser = new FitnesseResultParser();
+
+        try
+        {
+            parser.parse(new StringReader(content));
+        } catch (final XMLStreamException e)
+        {
+            return false;
+        }
+
+        final FitnesseResult summary = parser.getSummary();
+
+        return (summary != null) && (summary.getRight() > 0) && (summary.getWrong() == 0) && (summary.getExceptions() == 0);
+    }
+}
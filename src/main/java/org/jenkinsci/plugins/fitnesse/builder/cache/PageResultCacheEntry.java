@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.cache;
+
+import java.io.Serializable;
+
+/**
+ * Reference to a passing result of a FitNesse page, stored in a {@link PageResultCache}
+ * 
+ */
+public class PageResultCacheEntry implements Serializable
+{
+
+    private static final long serialVersionUID = 5386409278925734207L;
+
+    private final String contentHash;
+
+    private final String fingerprint;
+
+    private final int buildNumber;
+
+    /**
+     * Constructor
+     * 
+     * @param contentHash hash of the page's wiki content when the result was produced
+     * @param fingerprint fingerprint of the system under test when the result was produced
+     * @param buildNumber number of the build which produced the result
+     */
+    public PageResultCacheEntry(final String contentHash, final String fingerprint, final int buildNumber)
+    {
+        this.contentHash = contentHash;
+        this.fingerprint = fingerprint;
+        this.buildNumber = buildNumber;
+    }
+
+    /**
+     * @return hash of the page's wiki content when the result was produced
+     */
+    public String getContentHash()
+    {
+        return this.contentHash;
+    }
+
+    /**
+     * @return fingerprint of the system under test when the result was produced
+     */
+    public String getFingerprint()
+    {
+        return this.fingerprint;
+    }
+
+    /**
+     * @return number of the build which produced the result
+     */
+    public int getBuildNumber()
+    {
+        return this.buildNumber;
+    }
+
+    /**
+     * @param contentHash hash of the page's current wiki content
+     * @param fingerprint current fingerprint of the system under test
+     * @return {@code true} if the result can be reused for the given page content and system under test, {@code false} otherwise
+     */
+    public boolean matches(final String contentHash, final String fingerprint)
+    {
+        return this.contentHash.equals(contentHash) && this.fingerprint.equals(fingerprint);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.history;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Time window within which a test history record stored by FitNesse may be imported
+ * 
+ * <p>
+ * A record is dated by its most recent page result, so that a suite record is imported
+ * as long as its last page ran within the window.
+ * 
+ */
+public class HistoryWindow implements Serializable
+{
+
+    private static final long serialVersionUID = 4183395872613560923L;
+
+    private static final Pattern DATE_PATTERN = Pattern.compile("<date>([^<]+)</date>");
+
+    /** Offsets without a colon, as written by some FitNesse versions */
+    private static final DateTimeFormatter COMPACT_OFFSET_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssZ");
+
+    private final long since;
+
+    /**
+     * Constructor
+     * 
+     * @param since earliest date of the imported records, in milliseconds since the epoch ({@code 0} for no limit)
+     */
+    public HistoryWindow(final long since)
+    {
+        this.since = since;
+    }
+
+    /**
+     * Creates a window ending now
+     * 
+     * @param hours length of the window, in hours ({@code 0} for no limit)
+     * @return the time window
+     */
+    public static HistoryWindow lastHours(final int hours)
+    {
+        return new HistoryWindow(hours <= 0 ? 0 : System.currentTimeMillis() - (hours * 3600_000L));
+    }
+
+    /**
+     * @return earliest date of the imported records, in milliseconds since the epoch ({@code 0} for no limit)
+     */
+    public long getSince()
+    {
+        return this.since;
+    }
+
+    /**
+     * Whether a test history record falls within this window
+     * 
+     * @param content XML content of the test history record
+     * @return {@code true} if the record's most recent result is recent enough
+     */
+    public boolean contains(final String content)
+    {
+        if (this.since <= 0)
+        {
+            return true;
+        }
+
+        final long resultDate = HistoryWindow.getResultDate(content);
+
+        return resultDate >= this.since;
+    }
+
+    /**
+     * Reads the date of the most recent page result of a test history record
+     * 
+     * @param content XML content of the test history record
+     * @return the date in milliseconds since the epoch, or {@code -1} if the record is not dated
+     */
+    public static long getResultDate(final String content)
+    {
+        long resultDate = -1;
+
+        if (content == null)
+        {
+            return resultDate;
+        }
+
+        final Matcher dateMatcher = HistoryWindow.DATE_PATTERN.matcher(content);
+
+        while (dateMatcher.find())
+        {
+            resultDate = Math.max(resultDate, HistoryWindow.parseDate(dateMatcher.group(1).trim()));
+        }
+
+        return resultDate;
+    }
+
+    private static long parseDate(final String date)
+    {
+        try
+        {
+            return OffsetDateTime.parse(date, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toInstant().toEpochMilli();
+        } catch (final DateTimeParseException e)
+        {
+            // try the compact offset format below
+        }
+
+        try
+        {
+            return OffsetDateTime.parse(date, HistoryWindow.COMPACT_OFFSET_FORMATTER).toInstant().toEpochMilli();
+        } catch (final DateTimeParseException e)
+        {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.history;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Test history record of a suite stored by FitNesse, which only references the records of the pages of the suite
+ * 
+ * <p>
+ * Unlike the response of a suite execution, the record does not hold the results of the pages: each
+ * {@code <pageHistoryReference>} gives the name of a page and the link to its own record.
+ * 
+ */
+public final class SuiteHistoryRecord
+{
+
+    private static final Pattern ROOT_ELEMENT_PATTERN = Pattern.compile("<suiteResults\\b");
+
+    private static final Pattern REFERENCE_PATTERN = Pattern.compile("<pageHistoryReference>(.*?)</pageHistoryReference>", Pattern.DOTALL);
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("<name>\\s*([^<\\s]+)\\s*</name>");
+
+    private static final Pattern RESULT_DATE_PATTERN = Pattern.compile("[?&;]resultDate=(\\w+)");
+
+    private SuiteHistoryRecord()
+    {
+        // utility class
+    }
+
+    /**
+     * @param content XML content of a test history record
+     * @return {@code true} if the record is the one of a suite
+     */
+    public static boolean isSuiteRecord(final String content)
+    {
+        return (content != null) && SuiteHistoryRecord.ROOT_ELEMENT_PATTERN.matcher(content).find();
+    }
+
+    /**
+     * Reads the references to the page records of a suite record
+     * 
+     * @param content XML content of a suite test history record
+     * @return for each page of the suite, in the order of the record, the date of its record
+     */
+    public static Map<String, String> getPageResultDates(final String content)
+    {
+        final Map<String, String> resultDates = new LinkedHashMap<>();
+        final Matcher referenceMatcher = SuiteHistoryRecord.REFERENCE_PATTERN.matcher(content);
+
+        while (referenceMatcher.find())
+        {
+            final Matcher nameMatcher = SuiteHistoryRecord.NAME_PATTERN.matcher(referenceMatcher.group(1));
+            final Matcher resultDateMatcher = SuiteHistoryRecord.RESULT_DATE_PATTERN.matcher(referenceMatcher.group(1));
+
+            if (nameMatcher.find() && resultDateMatcher.find())
+            {
+                resultDates.put(nameMatcher.group(1), resultDateMatcher.group(1));
+            }
+        }
+
+        return resultDates;
+    }
+}
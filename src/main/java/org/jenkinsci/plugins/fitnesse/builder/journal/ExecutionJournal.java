@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jenkinsci.plugins.fitnesse.builder.runner.FitnesseResponse;
+
+/**
+ * Workspace journal of the FitNesse pages which completed during a build step, which allows
+ * an interrupted or rerun build step to only run the remaining pages
+ * 
+ * <p>
+ * Each completed page is appended as a tab-delimited line: page, status, result file and duration, after a header
+ * line recording the build which started the journal and when. The journal is specific to a given set of build
+ * step parameters, which include the SCM revision, and is deleted once the step completes or is aborted. A journal
+ * left over by a build which did not complete expires after a day.
+ * 
+ */
+public class ExecutionJournal implements Serializable
+{
+
+    private static final long serialVersionUID = -3829133407236851052L;
+
+    private static final String FILE_PREFIX = ".fitnesse-journal-";
+
+    /** Length of the parameters key used in the journal file name */
+    private static final int KEY_LENGTH = 16;
+
+    private static final Pattern FAILED_COUNTS_PATTERN = Pattern.compile("<(wrong|exceptions)>[1-9]|<(failure|error)[ >]");
+
+    private static final Pattern DURATION_PATTERN = Pattern.compile("<totalRunTimeInMillis>(\\d+)</totalRunTimeInMillis>");
+
+    /** First field of the header line */
+    private static final String HEADER = "#build";
+
+    /** Age after which the pages completed by a previous run are run again */
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(1);
+
+    private final String parametersKey;
+
+    private final String filenameOutputFormat;
+
+    private final int buildNumber;
+
+    /**
+     * Constructor
+     * 
+     * @param parametersKey hash of the build step parameters
+     * @param filenameOutputFormat filename pattern of the FitNesse results files
+     * @param buildNumber number of the current build
+     */
+    public ExecutionJournal(final String parametersKey, final String filenameOutputFormat, final int buildNumber)
+    {
+        this.parametersKey = parametersKey;
+        this.filenameOutputFormat = filenameOutputFormat;
+        this.buildNumber = buildNumber;
+    }
+
+    /**
+     * @return name of the journal file, relative to the workspace
+     */
+    public String getFileName()
+    {
+        return ExecutionJournal.FILE_PREFIX + this.parametersKey.substring(0, Math.min(ExecutionJournal.KEY_LENGTH, this.parametersKey.length()));
+    }
+
+    /**
+     * Reads the pages completed by a previous, interrupted run of the same build step, deleting the journal if it expired
+     * 
+     * @param workspace build workspace
+     * @return names of the completed pages whose results file is still present
+     * @throws IOException if the journal could not be read
+     */
+    public Set<String> readCompletedPages(final File workspace) throws IOException
+    {
+        final Path journalFile = workspace.toPath().resolve(this.getFileName());
+
+        if (!Files.exists(journalFile))
+        {
+            return Collections.emptySet();
+        }
+
+        final List<String> lines = Files.readAllLines(journalFile, StandardCharsets.UTF_8);
+
+        // the results of an expired journal may be stale, e.g. the system under test was redeployed meanwhile
+        if (lines.isEmpty() || ExecutionJournal.isExpired(lines.get(0)))
+        {
+            Files.delete(journalFile);
+            return Collections.emptySet();
+        }
+
+        final Set<String> completedPages = new HashSet<>();
+
+        for (final String line : lines)
+        {
+            final String[] fields = line.split("\t");
+
+            // ignore a last line which may have been partially written
+            if ((fields.length == 4) && Files.exists(workspace.toPath().resolve(fields[2])))
+            {
+                completedPages.add(fields[0]);
+            }
+        }
+
+        return completedPages;
+    }
+
+    /**
+     * Marks the results file of a page completed by a previous run as produced by the current build,
+     * for it to be picked up by the publishing step
+     * 
+     * @param workspace build workspace
+     * @param page name of the completed page
+     * @throws IOException if the results file could not be updated
+     */
+    public void touch(final File workspace, final String page) throws IOException
+    {
+        final File resultFile = new File(workspace, String.format(this.filenameOutputFormat, page));
+
+        if (!resultFile.setLastModified(System.currentTimeMillis()))
+        {
+            throw new IOException(String.format("Could not update results file \"%s\"", resultFile));
+        }
+    }
+
+    /**
+     * Writes the results file of a completed page, and appends the page to the journal
+     * 
+     * @param workspace build workspace
+     * @param response FitNesse response of the completed page
+     * @throws IOException if the results file or the journal could not be written
+     */
+    public synchronized void record(final File workspace, final FitnesseResponse response) throws IOException
+    {
+        final String resultFile = String.format(this.filenameOutputFormat, response.getPage());
+        final Path resultPath = workspace.toPath().resolve(resultFile);
+
+        Files.createDirectories(resultPath.getParent());
+        Files.write(resultPath, response.getContent().getBytes(StandardCharsets.UTF_8));
+
+        final String status = ExecutionJournal.FAILED_COUNTS_PATTERN.matcher(response.getContent()).find() ? "failed" : "passed";
+        final Matcher durationMatcher = ExecutionJournal.DURATION_PATTERN.matcher(response.getContent());
+        final String duration = durationMatcher.find() ? durationMatcher.group(1) : "-1";
+
+        final Path journalFile = workspace.toPath().resolve(this.getFileName());
+        final StringBuilder lines = new StringBuilder();
+
+        if (!Files.exists(journalFile))
+        {
+            lines.append(String.join("\t", ExecutionJournal.HEADER, Integer.toString(this.buildNumber), Long.toString(System.currentTimeMillis()))).append('\n');
+        }
+
+        lines.append(String.join("\t", response.getPage(), status, resultFile, duration)).append('\n');
+
+        Files.write(
+                journalFile,
+                lines.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+    }
+
+    /**
+     * @param header header line of a journal
+     * @return {@code true} if the journal was started too long ago, or has no valid header
+     */
+    private static boolean isExpired(final String header)
+    {
+        final String[] fields = header.split("\t");
+
+        if ((fields.length != 3) || !ExecutionJournal.HEADER.equals(fields[0]))
+        {
+            return true;
+        }
+
+        try
+        {
+            return System.currentTimeMillis() - Long.parseLong(fields[2]) > ExecutionJournal.MAX_AGE;
+        } catch (final NumberFormatException e)
+        {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.pipeline;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jenkinsci.plugins.fitnesse.builder.FitnesseExecution;
+import org.jenkinsci.plugins.fitnesse.publisher.FitnesseResultsPublisher;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+/**
+ * Pipeline step which waits for the FitNesse pages started by {@link FitnesseStartStep} to complete,
+ * and writes their results in the workspace for the publishing step
+ * 
+ * <p>
+ * When a publisher is configured, the results are published right away from where they were written,
+ * which is the only way to publish the results stored in the build directory by tests run from the controller.
+ * 
+ */
+public class FitnesseAwaitStep extends Step
+{
+
+    private final String handle;
+
+    private FitnesseResultsPublisher publisher;
+
+    /**
+     * Constructor
+     * 
+     * @param handle handle returned by {@link FitnesseStartStep}
+     */
+    @DataBoundConstructor
+    public FitnesseAwaitStep(final String handle)
+    {
+        this.handle = handle;
+    }
+
+    /**
+     * @return handle returned by {@link FitnesseStartStep}
+     */
+    public String getHandle()
+    {
+        return this.handle;
+    }
+
+    /**
+     * @return publisher of the results, once awaited (may be {@code null})
+     */
+    public FitnesseResultsPublisher getPublisher()
+    {
+        return this.publisher;
+    }
+
+    /**
+     * @param publisher
+     */
+    @DataBoundSetter
+    public void setPublisher(final FitnesseResultsPublisher publisher)
+    {
+        this.publisher = publisher;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public StepExecution start(final StepContext context) throws Exception
+    {
+        return new Execution(context, this.handle, this.publisher);
+    }
+
+    /**
+     * Awaits the execution, cancelling it if the step is stopped
+     */
+    private static class Execution extends SynchronousNonBlockingStepExecution<Void>
+    {
+
+        private static final long serialVersionUID = -5217388064587960412L;
+
+        private final String handle;
+
+        private final transient FitnesseResultsPublisher publisher;
+
+        Execution(final StepContext context, final String handle, final FitnesseResultsPublisher publisher)
+        {
+            super(context);
+            this.handle = handle;
+            this.publisher = publisher;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Void run() throws Exception
+        {
+            final FitnesseExecution execution = FitnesseExecutions.remove(this.handle);
+
+            if (execution == null)
+            {
+                throw new AbortException(Messages.FitnesseAwaitStep_errors_unknownHandle(this.handle));
+            }
+
+            final TaskListener listener = this.getContext().get(TaskListener.class);
+            execution.await(listener);
+
+            if (this.publisher != null)
+            {
+                this.publisher.publish(this.getContext().get(Run.class), execution.getResultsDirectory(), listener);
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * {@link FitnesseAwaitStep} descriptor
+     */
+    @Extension
+    public static class DescriptorImpl extends StepDescriptor
+    {
+
+        /** {@inheritDoc} */
+        @Override
+        public Set<? extends Class<?>> getRequiredContext()
+        {
+            return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(Run.class, TaskListener.class)));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getFunctionName()
+        {
+            return "fitnesseAwait";
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getDisplayName()
+        {
+            return Messages.FitnesseAwaitStep_displayName();
+        }
+    }
+}
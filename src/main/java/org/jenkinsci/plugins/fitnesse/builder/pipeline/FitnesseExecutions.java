@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.pipeline;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jenkinsci.plugins.fitnesse.builder.FitnesseExecution;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+
+/**
+ * Registry of the FitNesse executions started by {@link FitnesseStartStep} and not yet awaited by {@link FitnesseAwaitStep}
+ * 
+ * <p>
+ * The executions are only kept in memory, and thus cannot be awaited after a restart of the Jenkins master.
+ * 
+ */
+public final class FitnesseExecutions
+{
+
+    private static final Map<String, FitnesseExecution> EXECUTIONS = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a started execution
+     * 
+     * @param execution the started execution
+     * @return handle of the execution
+     */
+    public static String register(final FitnesseExecution execution)
+    {
+        final String handle = UUID.randomUUID().toString();
+        FitnesseExecutions.EXECUTIONS.put(handle, execution);
+
+        return handle;
+    }
+
+    /**
+     * Removes an execution from the registry, for it to be awaited
+     * 
+     * @param handle handle of the execution
+     * @return the execution, or {@code null} if there is none
+     */
+    public static FitnesseExecution remove(final String handle)
+    {
+        return handle == null ? null : FitnesseExecutions.EXECUTIONS.remove(handle);
+    }
+
+    /** no-op */
+    private FitnesseExecutions()
+    {
+        // no-op
+    }
+
+    /**
+     * Cancels the executions which were never awaited once their build completes
+     */
+    @Extension
+    public static class CompletedRunListener extends RunListener<Run<?, ?>>
+    {
+
+        /** {@inheritDoc} */
+        @Override
+        public void onCompleted(final Run<?, ?> run, final TaskListener listener)
+        {
+            final Iterator<Map.Entry<String, FitnesseExecution>> iterator = FitnesseExecutions.EXECUTIONS.entrySet().iterator();
+
+            while (iterator.hasNext())
+            {
+                final Map.Entry<String, FitnesseExecution> entry = iterator.next();
+
+                if (entry.getValue().getRun() == run)
+                {
+                    listener.getLogger().printf("The FitNesse tests started with handle \"%s\" were never awaited, stopping them%n", entry.getKey());
+                    entry.getValue().cancel();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.pipeline;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jenkinsci.plugins.fitnesse.builder.FitnesseResultsBuilder;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+/**
+ * Pipeline step which starts the execution of FitNesse pages in the background, and returns a handle
+ * for {@link FitnesseAwaitStep} to collect the results later on
+ * 
+ * <p>
+ * Outside of a {@code node} block, the FitNesse HTTP calls are made from the controller without tying up
+ * an executor, and the results files are stored in the build directory.
+ * 
+ * <pre>
+ * def fitnesse = fitnesseStart builder: fitnesseBuilder(remoteFitnesseUrl: '...', targetType: 'suite', targetSuite: '...')
+ * // other stages
+ * fitnesseAwait handle: fitnesse, publisher: fitnessePublisher()
+ * </pre>
+ * 
+ */
+public class FitnesseStartStep extends Step
+{
+
+    private final FitnesseResultsBuilder builder;
+
+    /**
+     * Constructor
+     * 
+     * @param builder configuration of the FitNesse tests execution
+     */
+    @DataBoundConstructor
+    public FitnesseStartStep(final FitnesseResultsBuilder builder)
+    {
+        this.builder = builder;
+    }
+
+    /**
+     * @return configuration of the FitNesse tests execution
+     */
+    public FitnesseResultsBuilder getBuilder()
+    {
+        return this.builder;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public StepExecution start(final StepContext context) throws Exception
+    {
+        return new Execution(context, this.builder);
+    }
+
+    /**
+     * Starts the execution, without waiting for its completion
+     */
+    private static class Execution extends SynchronousNonBlockingStepExecution<String>
+    {
+
+        private static final long serialVersionUID = 2960488591325383447L;
+
+        private final transient FitnesseResultsBuilder builder;
+
+        Execution(final StepContext context, final FitnesseResultsBuilder builder)
+        {
+            super(context);
+            this.builder = builder;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected String run() throws Exception
+        {
+            final Run<?, ?> run = this.getContext().get(Run.class);
+            final TaskListener listener = this.getContext().get(TaskListener.class);
+            final FilePath workspace = this.getContext().get(FilePath.class);
+
+            final String handle = FitnesseExecutions.register(workspace == null
+                    ? this.builder.startOnController(run, listener)
+                    : this.builder.start(run, workspace, listener));
+
+            listener.getLogger().printf("FitNesse tests started in the background with handle \"%s\"%n", handle);
+
+            return handle;
+        }
+    }
+
+    /**
+     * {@link FitnesseStartStep} descriptor
+     */
+    @Extension
+    public static class DescriptorImpl extends StepDescriptor
+    {
+
+        /** {@inheritDoc} */
+        @Override
+        public Set<? extends Class<?>> getRequiredContext()
+        {
+            // the workspace is optional
+            return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(Run.class, TaskListener.class)));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getFunctionName()
+        {
+            return "fitnesseStart";
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getDisplayName()
+        {
+            return Messages.FitnesseStartStep_displayName();
+        }
+    }
+}
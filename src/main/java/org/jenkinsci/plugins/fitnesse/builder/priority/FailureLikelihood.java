@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.priority;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates how likely each page is to fail, from its results in the previous builds,
+ * so that the pages most likely to fail are run first
+ * 
+ * <p>
+ * From the most to the least likely to fail: the pages which failed in the latest build they ran in,
+ * the pages which changed or never ran, the pages whose outcome often flips, and the pages which failed in older builds.
+ * 
+ */
+public final class FailureLikelihood
+{
+
+    private static final double RECENT_FAILURE_WEIGHT = 4;
+
+    private static final double CHANGE_WEIGHT = 2;
+
+    /** Score of the pages which never ran, which are as likely to fail as the changed pages */
+    public static final double UNKNOWN_PAGE_SCORE = FailureLikelihood.CHANGE_WEIGHT;
+
+    private static final double FLAKINESS_WEIGHT = 1;
+
+    private static final double FAILURE_RATE_WEIGHT = 0.5;
+
+    /** Weight of a build's outcome relative to the next more recent build */
+    private static final double DECAY = 0.7;
+
+    private FailureLikelihood()
+    {
+        // utility class
+    }
+
+    /**
+     * Estimates the failure likelihood of the pages which ran in the previous builds, or changed since
+     * 
+     * @param history results of the previous builds
+     * @param changedPages names of the pages which changed since the previous build
+     * @return failure likelihood score of each page, the higher the more likely to fail; the pages which are not
+     *         part of the result are scored {@link #UNKNOWN_PAGE_SCORE}
+     */
+    public static Map<String, Double> estimate(final PageHistory history, final Set<String> changedPages)
+    {
+        final Map<String, Double> scores = new HashMap<>();
+
+        history.getPages().forEach(page -> scores.put(page, FailureLikelihood.score(history.getFailures(page))));
+        changedPages.forEach(page -> scores.merge(page, FailureLikelihood.CHANGE_WEIGHT, Double::sum));
+
+        return scores;
+    }
+
+    /**
+     * Scores a page from its outcomes in the previous builds
+     * 
+     * @param failures whether the page failed, from the most recent build to the oldest (may be {@code null})
+     * @return failure likelihood score of the page
+     */
+    static double score(final List<Boolean> failures)
+    {
+        if ((failures == null) || failures.isEmpty())
+        {
+            return 0;
+        }
+
+        double weightedFailures = 0;
+        double totalWeight = 0;
+        double weight = 1;
+        int flips = 0;
+
+        for (int i = 0; i < failures.size(); i++)
+        {
+            weightedFailures += failures.get(i) ? weight : 0;
+            totalWeight += weight;
+            weight *= FailureLikelihood.DECAY;
+
+            if ((i > 0) && !failures.get(i).equals(failures.get(i - 1)))
+            {
+                flips++;
+            }
+        }
+
+        final double flakiness = failures.size() > 1 ? (double) flips / (failures.size() - 1) : 0;
+
+        return (failures.get(0) ? FailureLikelihood.RECENT_FAILURE_WEIGHT : 0)
+                + (FailureLikelihood.FLAKINESS_WEIGHT * flakiness)
+                + (FailureLikelihood.FAILURE_RATE_WEIGHT * (weightedFailures / totalWeight));
+    }
+}
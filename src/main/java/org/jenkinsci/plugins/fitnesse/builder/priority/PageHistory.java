@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.priority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jenkinsci.plugins.fitnesse.publisher.actions.FitnesseResultsAction;
+import org.jenkinsci.plugins.fitnesse.publisher.model.FitnessePageResult;
+
+import hudson.model.Run;
+import hudson.tasks.test.TestResult;
+
+/**
+ * Outcomes and durations of the pages in the results published by the previous builds
+ * 
+ */
+public class PageHistory
+{
+
+    /** Number of previous builds whose results are taken into account */
+    public static final int DEPTH = 10;
+
+    private final Map<String, List<Boolean>> failures = new HashMap<>();
+
+    private final Map<String, Long> durations = new HashMap<>();
+
+    /**
+     * Reads the results published by the builds preceding a given build
+     * 
+     * @param run current build
+     * @return the page history
+     */
+    public static PageHistory read(final Run<?, ?> run)
+    {
+        final PageHistory history = new PageHistory();
+        Run<?, ?> build = run.getPreviousBuild();
+        int depth = 0;
+
+        while ((build != null) && (depth < PageHistory.DEPTH))
+        {
+            final FitnesseResultsAction action = build.getAction(FitnesseResultsAction.class);
+
+            if (action != null)
+            {
+                for (final TestResult child : action.getResult().getChildren())
+                {
+                    history.add((FitnessePageResult) child);
+                }
+
+                depth++;
+            }
+
+            build = build.getPreviousBuild();
+        }
+
+        return history;
+    }
+
+    /**
+     * Adds the result of a page, the results being added from the most recent to the oldest
+     * 
+     * @param result result of the page
+     */
+    void add(final FitnessePageResult result)
+    {
+        this.failures.computeIfAbsent(result.getName(), page -> new ArrayList<>()).add(result.hasFailures());
+        this.durations.putIfAbsent(result.getName(), (long) (result.getDuration() * 1000));
+    }
+
+    /**
+     * @return names of the pages having at least one result
+     */
+    public Set<String> getPages()
+    {
+        return Collections.unmodifiableSet(this.failures.keySet());
+    }
+
+    /**
+     * @param page name of the page
+     * @return whether the page failed, from the most recent build to the oldest (empty if it never ran)
+     */
+    public List<Boolean> getFailures(final String page)
+    {
+        return this.failures.getOrDefault(page, Collections.emptyList());
+    }
+
+    /**
+     * @param page name of the page
+     * @return duration of the most recent run of the page in milliseconds, or {@code null} if it never ran
+     */
+    public Long getDuration(final String page)
+    {
+        return this.durations.get(page);
+    }
+
+    /**
+     * @return mean duration of the pages in milliseconds, or {@code 0} if no page ever ran
+     */
+    public long getMeanDuration()
+    {
+        return (long) this.durations.values().stream().mapToLong(Long::longValue).average().orElse(0);
+    }
+}
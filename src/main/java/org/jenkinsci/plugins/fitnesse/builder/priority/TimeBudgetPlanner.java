@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.priority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Selects the pages which fit a wall-clock budget, favouring the pages most likely to fail and the shortest ones
+ * 
+ * <p>
+ * The pages are considered by decreasing value per millisecond, a page being worth one plus its failure likelihood score.
+ * The schedule of the concurrently running pages is simulated, each page starting as soon as one of the
+ * {@code concurrencyLevel} slots is free, as the FitNesse requests are dispatched; a page which would complete after
+ * the budget is skipped.
+ * 
+ */
+public class TimeBudgetPlanner
+{
+
+    private final int concurrencyLevel;
+
+    private final long budget;
+
+    /**
+     * Constructor
+     * 
+     * @param concurrencyLevel maximum number of concurrently running pages
+     * @param budget wall-clock budget, in milliseconds
+     */
+    public TimeBudgetPlanner(final int concurrencyLevel, final long budget)
+    {
+        this.concurrencyLevel = concurrencyLevel;
+        this.budget = budget;
+    }
+
+    /**
+     * Plans the pages to run within the budget
+     * 
+     * @param pages names of the candidate pages, a page listed several times being planned once
+     * @param durations estimated duration of each page, in milliseconds
+     * @param scores failure likelihood score of each page
+     * @return the selected pages, in the order they are to be run, and the skipped pages
+     */
+    public Plan plan(final Collection<String> pages, final Map<String, Long> durations, final Map<String, Double> scores)
+    {
+        final List<String> candidates = new ArrayList<>(new LinkedHashSet<>(pages));
+        candidates.sort(Comparator.comparingDouble((final String page) -> -(1 + scores.get(page)) / Math.max(1, durations.get(page))));
+
+        // completion time of the page running in each slot
+        final PriorityQueue<Long> slots = new PriorityQueue<>(Collections.nCopies(Math.max(1, this.concurrencyLevel), 0L));
+        final List<String> selectedPages = new ArrayList<>();
+        final List<String> skippedPages = new ArrayList<>();
+        long makespan = 0;
+
+        for (final String page : candidates)
+        {
+            final long completion = slots.peek() + durations.get(page);
+
+            if (completion <= this.budget)
+            {
+                slots.poll();
+                slots.add(completion);
+                selectedPages.add(page);
+                makespan = Math.max(makespan, completion);
+            } else
+            {
+                skippedPages.add(page);
+            }
+        }
+
+        return new Plan(selectedPages, skippedPages, makespan);
+    }
+
+    /**
+     * Pages selected to run within the budget
+     */
+    public static final class Plan
+    {
+
+        private final List<String> selectedPages;
+
+        private final List<String> skippedPages;
+
+        private final long estimatedDuration;
+
+        Plan(final List<String> selectedPages, final List<String> skippedPages, final long estimatedDuration)
+        {
+            this.selectedPages = selectedPages;
+            this.skippedPages = skippedPages;
+            this.estimatedDuration = estimatedDuration;
+        }
+
+        /**
+         * @return the selected pages, in the order they are to be run
+         */
+        public List<String> getSelectedPages()
+        {
+            return this.selectedPages;
+        }
+
+        /**
+         * @return the pages which do not fit the budget
+         */
+        public List<String> getSkippedPages()
+        {
+            return this.skippedPages;
+        }
+
+        /**
+         * @return estimated duration of the selected pages, in milliseconds
+         */
+        public long getEstimatedDuration()
+        {
+            return this.estimatedDuration;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.rerun;
+
+import java.io.StringReader;
+import java.util.regex.Matcher;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jenkinsci.plugins.fitnesse.builder.cache.PageResultCache;
+import org.jenkinsci.plugins.fitnesse.publisher.model.FitnesseResult;
+import org.jenkinsci.plugins.fitnesse.publisher.parser.FitnesseResultParser;
+
+/**
+ * Keeps the counts of the first, failed attempt of a page in the FitNesse response of its rerun,
+ * for the report to tell the flaky pages from the consistently failing ones
+ * 
+ */
+public final class FirstAttempt
+{
+
+    /** Element added to the response of a rerun page */
+    private static final String FIRST_ATTEMPT_ELEMENT = "firstAttempt";
+
+    private FirstAttempt()
+    {
+        // utility class
+    }
+
+    /**
+     * @param content a FitNesse response
+     * @return {@code true} if the response reports wrong assertions or exceptions
+     */
+    public static boolean isFailed(final String content)
+    {
+        final FitnesseResult summary = FirstAttempt.parseSummary(content);
+
+        return (summary != null) && ((summary.getWrong() > 0) || (summary.getExceptions() > 0));
+    }
+
+    /**
+     * Adds the counts of the first attempt of a page to the response of its rerun
+     * 
+     * @param rerunContent FitNesse response of the rerun
+     * @param firstAttemptContent FitNesse response of the first attempt
+     * @return the response of the rerun, including the counts of the first attempt
+     */
+    public static String annotate(final String rerunContent, final String firstAttemptContent)
+    {
+        final FitnesseResult summary = FirstAttempt.parseSummary(firstAttemptContent);
+
+        if (summary == null)
+        {
+            return rerunContent;
+        }
+
+        final String element = String.format("<%s right=\"%d\" wrong=\"%d\" ignores=\"%d\" exceptions=\"%d\" runTimeInMillis=\"%d\"/>",
+                FirstAttempt.FIRST_ATTEMPT_ELEMENT, summary.getRight(), summary.getWrong(), summary.getIgnored(), summary.getExceptions(), summary.getDuration());
+
+        return rerunContent.replaceFirst(PageResultCache.ROOT_ELEMENT_PATTERN, "$0" + Matcher.quoteReplacement(String.format("%n\t%s", element)));
+    }
+
+    private static FitnesseResult parseSummary(final String content)
+    {
+        final FitnesseResultParser parser = new FitnesseResultParser();
+
+        try
+        {
+            parser.parse(new StringReader(content));
+        } catch (final XMLStreamException e)
+        {
+            return null;
+        }
+
+        return parser.getSummary();
+    }
+}
@@ -38,6 +38,9 @@ public class FitnessePageRunner implements Serializable
 
     private static final long serialVersionUID = -4160591890313113976L;
 
+    /** Name of the root page of a FitNesse wiki */
+    private static final String ROOT_PAGE = "root";
+
     private final URL hostUrl;
 
     private final boolean includeHtmlOutput;
@@ -48,6 +51,12 @@ public class FitnessePageRunner implements Serializable
 
     private final TaskListener listener;
 
+    private boolean rampUp;
+
+    private boolean noHistory;
+
+    private boolean junitFormat;
+
     private transient OkHttpClient httpClient;
 
     /**
@@ -69,6 +78,39 @@ public class FitnessePageRunner implements Serializable
         this.httpClient = this.createHttpClient();
     }
 
+    /**
+     * @return maximum number of concurrently running FitNesse pages
+     */
+    public int getConcurrencyLevel()
+    {
+        return this.concurrencyLevel;
+    }
+
+    /**
+     * Starts running one page at a time, and allows one more concurrent page each time a page completes,
+     * until the concurrency level is reached
+     * 
+     * @param rampUp whether to ramp up the concurrency
+     */
+    public void setRampUp(final boolean rampUp)
+    {
+        this.rampUp = rampUp;
+        this.httpClient.dispatcher().setMaxRequests(this.getInitialMaxRequests());
+    }
+
+    /**
+     * Lightens the executions, for big runs not to be bound by the FitNesse server I/O
+     * 
+     * @param noHistory whether to prevent FitNesse from recording the executions in its test history
+     * @param junitFormat whether to request the JUnit format, which only reports the counts of each page,
+     *            when the HTML output is not included
+     */
+    public void setLeanProfile(final boolean noHistory, final boolean junitFormat)
+    {
+        this.noHistory = noHistory;
+        this.junitFormat = junitFormat;
+    }
+
     /**
      * Executes a given FitNesse page asynchronously
      * 
@@ -81,10 +123,7 @@ public class FitnessePageRunner implements Serializable
                 .withHostUrl(this.hostUrl)
                 .withTargetPage(targetPage);
 
-        if (this.includeHtmlOutput)
-        {
-            requestBuilder.withHtmlOutput();
-        }
+        this.configureExecution(requestBuilder);
 
         return this.scheduleRequest(targetPage, requestBuilder.build());
     }
@@ -96,18 +135,99 @@ public class FitnessePageRunner implements Serializable
      * @return the result of the asychronous suite execution
      */
     public CompletableFuture<FitnesseResponse> executeSuite(final String targetPage)
+    {
+        return this.executeSuite(targetPage, null);
+    }
+
+    /**
+     * Executes the pages of a given FitNesse suite selected by their tags asynchronously
+     * 
+     * @param targetPage name of the targeted page
+     * @param suiteFilter tags of the suite pages to run or not to run (may be {@code null})
+     * @return the result of the asychronous suite execution, named after the suite partition if any
+     */
+    public CompletableFuture<FitnesseResponse> executeSuite(final String targetPage, final SuiteFilter suiteFilter)
     {
         final FitnesseRestRequestBuilder requestBuilder = new FitnesseRestRequestBuilder()
                 .withHostUrl(this.hostUrl)
                 .withTargetPage(targetPage)
-                .withSuiteTarget();
+                .withSuiteTarget()
+                .withSuiteFilter(suiteFilter);
 
-        if (this.includeHtmlOutput)
-        {
-            requestBuilder.withHtmlOutput();
-        }
+        this.configureExecution(requestBuilder);
 
-        return this.scheduleRequest(targetPage, requestBuilder.build());
+        return this.scheduleRequest(suiteFilter == null ? targetPage : suiteFilter.getResultName(targetPage), requestBuilder.build());
+    }
+
+    /**
+     * Retrieves the raw wiki content of a given FitNesse page asynchronously
+     * 
+     * @param targetPage name of the targeted page
+     * @return the result of the asychronous retrieval, whose content is the page's wiki text
+     */
+    public CompletableFuture<FitnesseResponse> fetchPageContent(final String targetPage)
+    {
+        final Request request = new FitnesseRestRequestBuilder()
+                .withHostUrl(this.hostUrl)
+                .withTargetPage(targetPage)
+                .withPageContentTarget()
+                .build();
+
+        return this.scheduleRequest(targetPage, request);
+    }
+
+    /**
+     * Retrieves the latest test history record of a given FitNesse page or suite asynchronously, without executing it
+     * 
+     * @param targetPage name of the targeted page
+     * @return the result of the asychronous retrieval, in the same format as an execution result
+     */
+    public CompletableFuture<FitnesseResponse> fetchLatestResult(final String targetPage)
+    {
+        final Request request = new FitnesseRestRequestBuilder()
+                .withHostUrl(this.hostUrl)
+                .withTargetPage(targetPage)
+                .withLatestResultTarget()
+                .build();
+
+        return this.scheduleRequest(targetPage, request);
+    }
+
+    /**
+     * Retrieves a given test history record of a FitNesse page asynchronously, without executing it
+     * 
+     * @param targetPage name of the targeted page
+     * @param resultDate date of the record, as written in the FitNesse history links
+     * @return the result of the asychronous retrieval, in the same format as an execution result
+     */
+    public CompletableFuture<FitnesseResponse> fetchResult(final String targetPage, final String resultDate)
+    {
+        final Request request = new FitnesseRestRequestBuilder()
+                .withHostUrl(this.hostUrl)
+                .withTargetPage(targetPage)
+                .withResultTarget(resultDate)
+                .build();
+
+        return this.scheduleRequest(targetPage, request);
+    }
+
+    /**
+     * Retrieves the names of all the pages of the remote FitNesse wiki asynchronously
+     * 
+     * @param etag entity tag of a previous retrieval, to only retrieve the names if they changed (may be {@code null})
+     * @return the result of the asychronous retrieval, whose content lists one page name per line,
+     *         or which is marked as cached if the names did not change
+     */
+    public CompletableFuture<FitnesseResponse> fetchPageNames(final String etag)
+    {
+        final Request request = new FitnesseRestRequestBuilder()
+                .withHostUrl(this.hostUrl)
+                .withTargetPage(FitnessePageRunner.ROOT_PAGE)
+                .withPageNamesTarget()
+                .withIfNoneMatch(etag)
+                .build();
+
+        return this.scheduleRequest(FitnessePageRunner.ROOT_PAGE, request);
     }
 
     /**
@@ -124,14 +244,36 @@ public class FitnessePageRunner implements Serializable
 
         this.httpClient.newCall(request).enqueue(future);
 
+        if (this.rampUp)
+        {
+            future.getFuture().whenComplete((response, error) -> this.increaseConcurrency());
+        }
+
         // log the failed responses and null them out
         return future.getFuture();
     }
 
+    private void configureExecution(final FitnesseRestRequestBuilder requestBuilder)
+    {
+        if (this.includeHtmlOutput)
+        {
+            requestBuilder.withHtmlOutput();
+        } else if (this.junitFormat)
+        {
+            // the JUnit format does not include the HTML output
+            requestBuilder.withJunitFormat();
+        }
+
+        if (this.noHistory)
+        {
+            requestBuilder.withoutHistory();
+        }
+    }
+
     private OkHttpClient createHttpClient()
     {
         final Dispatcher dispatcher = new Dispatcher();
-        dispatcher.setMaxRequests(this.concurrencyLevel);
+        dispatcher.setMaxRequests(this.getInitialMaxRequests());
         dispatcher.setMaxRequestsPerHost(this.concurrencyLevel);
 
         return new OkHttpClient().newBuilder()
@@ -141,6 +283,24 @@ public class FitnessePageRunner implements Serializable
                 .build();
     }
 
+    private int getInitialMaxRequests()
+    {
+        return this.rampUp ? 1 : this.concurrencyLevel;
+    }
+
+    private void increaseConcurrency()
+    {
+        final Dispatcher dispatcher = this.httpClient.dispatcher();
+
+        synchronized (dispatcher)
+        {
+            if (dispatcher.getMaxRequests() < this.concurrencyLevel)
+            {
+                dispatcher.setMaxRequests(dispatcher.getMaxRequests() + 1);
+            }
+        }
+    }
+
     private void readObject(final ObjectInputStream in) throws ClassNotFoundException, IOException
     {
         in.defaultReadObject();
@@ -30,6 +30,14 @@ public class FitnesseResponse implements Serializable
 
     private final String content;
 
+    private final boolean cached;
+
+    private final boolean resumed;
+
+    private String contentHash;
+
+    private String etag;
+
     /**
      * Create a new Fitnesse response
      * 
@@ -37,9 +45,43 @@ public class FitnesseResponse implements Serializable
      * @param content body of the FitNesse response
      */
     public FitnesseResponse(final String page, final String content)
+    {
+        this(page, content, false, false);
+    }
+
+    private FitnesseResponse(final String page, final String content, final boolean cached, final boolean resumed)
     {
         this.page = page;
         this.content = content;
+        this.cached = cached;
+        this.resumed = resumed;
+    }
+
+    /**
+     * Create a placeholder response for a page which was not run, because a previous result can be reused
+     * 
+     * @param page name of the FitNesse page
+     * @param contentHash hash of the page's wiki content
+     * @return a response without content
+     */
+    public static FitnesseResponse cached(final String page, final String contentHash)
+    {
+        final FitnesseResponse response = new FitnesseResponse(page, null, true, false);
+        response.setContentHash(contentHash);
+
+        return response;
+    }
+
+    /**
+     * Create a placeholder response for a page which was not run, because it was completed by a previous,
+     * interrupted run whose results file is still in the workspace
+     * 
+     * @param page name of the FitNesse page
+     * @return a response without content
+     */
+    public static FitnesseResponse resumed(final String page)
+    {
+        return new FitnesseResponse(page, null, false, true);
     }
 
     /**
@@ -57,4 +99,52 @@ public class FitnesseResponse implements Serializable
     {
         return this.content;
     }
+
+    /**
+     * @return {@code true} if the page was not run or fetched and its previous result should be reused, {@code false} otherwise
+     */
+    public boolean isCached()
+    {
+        return this.cached;
+    }
+
+    /**
+     * @return {@code true} if the page was completed by a previous run, and its results file is already in the workspace
+     */
+    public boolean isResumed()
+    {
+        return this.resumed;
+    }
+
+    /**
+     * @return hash of the page's wiki content at the time it was run (may be {@code null})
+     */
+    public String getContentHash()
+    {
+        return this.contentHash;
+    }
+
+    /**
+     * @param contentHash hash of the page's wiki content at the time it was run
+     */
+    public void setContentHash(final String contentHash)
+    {
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * @return entity tag of the FitNesse response, if any
+     */
+    public String getEtag()
+    {
+        return this.etag;
+    }
+
+    /**
+     * @param etag entity tag of the FitNesse response
+     */
+    public void setEtag(final String etag)
+    {
+        this.etag = etag;
+    }
 }
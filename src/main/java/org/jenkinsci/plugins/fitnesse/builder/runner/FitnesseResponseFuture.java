@@ -35,6 +35,8 @@ import okhttp3.Response;
 public class FitnesseResponseFuture implements Callback
 {
 
+    private static final int HTTP_NOT_MODIFIED = 304;
+
     private final String targetPage;
 
     private final CompletableFuture<FitnesseResponse> future;
@@ -67,7 +69,11 @@ public class FitnesseResponseFuture implements Callback
     {
         try (Response res = response)
         {
-            if (!res.isSuccessful())
+            if (res.code() == FitnesseResponseFuture.HTTP_NOT_MODIFIED)
+            {
+                // conditional request, the previously retrieved content is still valid
+                this.future.complete(FitnesseResponse.cached(this.targetPage, null));
+            } else if (!res.isSuccessful())
             {
                 this.future.completeExceptionally(
                         new TestExecutionException(
@@ -77,7 +83,10 @@ public class FitnesseResponseFuture implements Callback
             {
                 try
                 {
-                    this.future.complete(new FitnesseResponse(this.targetPage, response.body().string()));
+                    final FitnesseResponse fitnesseResponse = new FitnesseResponse(this.targetPage, response.body().string());
+                    fitnesseResponse.setEtag(response.header("ETag"));
+
+                    this.future.complete(fitnesseResponse);
                 } catch (final IOException e)
                 {
                     this.future.completeExceptionally(new TestExecutionException(
@@ -15,8 +15,12 @@
  */
 package org.jenkinsci.plugins.fitnesse.builder.runner;
 
+import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import okhttp3.Request;
 
@@ -35,6 +39,20 @@ public final class FitnesseRestRequestBuilder
 
     private boolean includeHtmlOutput;
 
+    private boolean targetsPageContent;
+
+    private SuiteFilter suiteFilter;
+
+    private boolean targetsPageNames;
+
+    private String ifNoneMatch;
+
+    private String resultDate;
+
+    private boolean withoutHistory;
+
+    private boolean junitFormat;
+
     /**
      * Sets the remote FitNesse host URL
      * 
@@ -73,6 +91,19 @@ public final class FitnesseRestRequestBuilder
         return this;
     }
 
+    /**
+     * Set the tags of the suite pages to run or not to run
+     * 
+     * @param suiteFilter the suite filter (may be {@code null})
+     * @return this builder
+     */
+    public FitnesseRestRequestBuilder withSuiteFilter(final SuiteFilter suiteFilter)
+    {
+        this.suiteFilter = suiteFilter;
+
+        return this;
+    }
+
     /**
      * Whether to include the test HTML output in the response
      * 
@@ -85,6 +116,90 @@ public final class FitnesseRestRequestBuilder
         return this;
     }
 
+    /**
+     * Whether to retrieve the raw wiki content of the target page, instead of executing it
+     * 
+     * @return this builder
+     */
+    public FitnesseRestRequestBuilder withPageContentTarget()
+    {
+        this.targetsPageContent = true;
+
+        return this;
+    }
+
+    /**
+     * Whether to retrieve the names of all the pages below the target page, instead of executing it
+     * 
+     * @return this builder
+     */
+    public FitnesseRestRequestBuilder withPageNamesTarget()
+    {
+        this.targetsPageNames = true;
+
+        return this;
+    }
+
+    /**
+     * Whether to retrieve the latest test history record of the target page stored by FitNesse, instead of executing it
+     * 
+     * @return this builder
+     */
+    public FitnesseRestRequestBuilder withLatestResultTarget()
+    {
+        return this.withResultTarget("latest");
+    }
+
+    /**
+     * Whether to retrieve a given test history record of the target page stored by FitNesse, instead of executing it
+     * 
+     * @param resultDate date of the record, as written in the FitNesse history links, e.g. {@code 20190101120000}
+     * @return this builder
+     */
+    public FitnesseRestRequestBuilder withResultTarget(final String resultDate)
+    {
+        this.resultDate = resultDate;
+
+        return this;
+    }
+
+    /**
+     * Whether to prevent FitNesse from recording the execution in its test history
+     * 
+     * @return this builder
+     */
+    public FitnesseRestRequestBuilder withoutHistory()
+    {
+        this.withoutHistory = true;
+
+        return this;
+    }
+
+    /**
+     * Whether to request the JUnit format, which only reports the counts of each page, instead of the XML format
+     * 
+     * @return this builder
+     */
+    public FitnesseRestRequestBuilder withJunitFormat()
+    {
+        this.junitFormat = true;
+
+        return this;
+    }
+
+    /**
+     * Makes the request conditional, for FitNesse to answer "not modified" if the response did not change
+     * 
+     * @param etag entity tag of the previous response (may be {@code null})
+     * @return this builder
+     */
+    public FitnesseRestRequestBuilder withIfNoneMatch(final String etag)
+    {
+        this.ifNoneMatch = etag;
+
+        return this;
+    }
+
     /**
      * Builds the OkHttp request corresponding to the configured parameters
      * 
@@ -94,10 +209,32 @@ public final class FitnesseRestRequestBuilder
     {
         final StringBuilder queryStringBuilder = new StringBuilder();
         queryStringBuilder.append('?');
-        queryStringBuilder.append(this.targetsSuite ? "suite" : "test");
-        queryStringBuilder.append(this.includeHtmlOutput ? "&includehtml" : "");
-        queryStringBuilder.append("&format=xml");
-        queryStringBuilder.append("&nochunk");
+
+        if (this.targetsPageContent)
+        {
+            queryStringBuilder.append("pageData");
+        } else if (this.targetsPageNames)
+        {
+            queryStringBuilder.append("names&Recursive");
+        } else if (this.resultDate != null)
+        {
+            queryStringBuilder.append("pageHistory&resultDate=").append(this.resultDate).append("&format=xml");
+        } else
+        {
+            queryStringBuilder.append(this.targetsSuite ? "suite" : "test");
+
+            if (this.targetsSuite && (this.suiteFilter != null))
+            {
+                final String includedTagsParameter = this.suiteFilter.getMatchAllTags() ? "runTestsMatchingAllTags" : "suiteFilter";
+                queryStringBuilder.append(FitnesseRestRequestBuilder.tagsParameter(includedTagsParameter, this.suiteFilter.getIncludedTags()));
+                queryStringBuilder.append(FitnesseRestRequestBuilder.tagsParameter("excludeSuiteFilter", this.suiteFilter.getExcludedTags()));
+            }
+
+            queryStringBuilder.append(this.includeHtmlOutput ? "&includehtml" : "");
+            queryStringBuilder.append(this.junitFormat ? "&format=junit" : "&format=xml");
+            queryStringBuilder.append("&nochunk");
+            queryStringBuilder.append(this.withoutHistory ? "&nohistory=true" : "");
+        }
 
         URL remoteFitnesseUrl;
 
@@ -110,10 +247,34 @@ public final class FitnesseRestRequestBuilder
             throw new IllegalArgumentException("Could not build FitNesse REST URI", e);
         }
 
-        return new Request.Builder()
+        final Request.Builder requestBuilder = new Request.Builder()
                 .url(remoteFitnesseUrl)
-                .addHeader("Accept", "text/xml")
+                .addHeader("Accept", (this.targetsPageContent || this.targetsPageNames) ? "text/plain" : "text/xml");
+
+        if (this.ifNoneMatch != null)
+        {
+            requestBuilder.addHeader("If-None-Match", this.ifNoneMatch);
+        }
+
+        return requestBuilder
                 .get()
                 .build();
     }
+
+    private static String tagsParameter(final String name, final List<String> tags)
+    {
+        if (tags.isEmpty())
+        {
+            return "";
+        }
+
+        try
+        {
+            return String.format("&%s=%s", name, URLEncoder.encode(String.join(",", tags), StandardCharsets.UTF_8.name()));
+        } catch (final UnsupportedEncodingException e)
+        {
+            // every Java platform is required to support UTF-8
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Dispatches FitNesse page executions by priority, within the concurrency level and the permits of their resource group
+ * 
+ * <p>
+ * Each time a page completes, the highest-priority pending pages which can run are started: a page waiting for
+ * a permit of its group does not prevent the pages of other groups, or of no group, from running.
+ * 
+ */
+public class PageScheduler
+{
+
+    private static final Comparator<Task> BY_PRIORITY = Comparator
+            .comparingDouble((final Task task) -> -task.priority)
+            .thenComparingLong(task -> task.sequence);
+
+    private final int concurrencyLevel;
+
+    private final List<ResourceGroup> groups;
+
+    private final Map<String, Set<String>> pageTags;
+
+    private final NavigableSet<Task> pending = new TreeSet<>(PageScheduler.BY_PRIORITY);
+
+    private final Map<String, Integer> usedPermits = new HashMap<>();
+
+    private int running;
+
+    private long sequence;
+
+    private boolean dispatching;
+
+    /**
+     * Constructor
+     * 
+     * @param concurrencyLevel maximum number of concurrently running pages
+     * @param groups resource groups, a page belonging to the first group it matches
+     * @param pageTags tags of the pages, by page name
+     */
+    public PageScheduler(final int concurrencyLevel, final List<ResourceGroup> groups, final Map<String, Set<String>> pageTags)
+    {
+        this.concurrencyLevel = concurrencyLevel;
+        this.groups = groups;
+        this.pageTags = pageTags;
+    }
+
+    /**
+     * Schedules the execution of a page
+     * 
+     * @param page name of the page
+     * @param priority priority of the page, the highest priority pages being started first
+     * @param execution starts the execution of the page
+     * @return the result of the page execution, once started and completed
+     */
+    public CompletableFuture<FitnesseResponse> schedule(final String page, final double priority, final Supplier<CompletableFuture<FitnesseResponse>> execution)
+    {
+        final Task task;
+
+        synchronized (this)
+        {
+            task = new Task(this.getGroup(page), priority, this.sequence++, execution);
+            this.pending.add(task);
+        }
+
+        this.dispatch();
+
+        return task.future;
+    }
+
+    /**
+     * @param page name of the page
+     * @return the resource group of the page, or {@code null} if it does not belong to any
+     */
+    public ResourceGroup getGroup(final String page)
+    {
+        final Set<String> tags = this.pageTags.getOrDefault(page, Collections.emptySet());
+
+        return this.groups.stream()
+                .filter(group -> group.matches(page, tags))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private void dispatch()
+    {
+        synchronized (this)
+        {
+            // executions which complete immediately dispatch again, loop instead of recursing
+            if (this.dispatching)
+            {
+                return;
+            }
+
+            this.dispatching = true;
+        }
+
+        while (true)
+        {
+            final List<Task> runnableTasks;
+
+            synchronized (this)
+            {
+                runnableTasks = this.acquireRunnableTasks();
+
+                if (runnableTasks.isEmpty())
+                {
+                    this.dispatching = false;
+                    return;
+                }
+            }
+
+            runnableTasks.forEach(this::start);
+        }
+    }
+
+    private List<Task> acquireRunnableTasks()
+    {
+        final List<Task> runnableTasks = new ArrayList<>();
+        final Iterator<Task> iterator = this.pending.iterator();
+
+        while ((this.running < this.concurrencyLevel) && iterator.hasNext())
+        {
+            final Task task = iterator.next();
+
+            if ((task.group == null) || (this.usedPermits.getOrDefault(task.group.getName(), 0) < task.group.getPermits()))
+            {
+                iterator.remove();
+                this.running++;
+
+                if (task.group != null)
+                {
+                    this.usedPermits.merge(task.group.getName(), 1, Integer::sum);
+                }
+
+                runnableTasks.add(task);
+            }
+        }
+
+        return runnableTasks;
+    }
+
+    private void start(final Task task)
+    {
+        CompletableFuture<FitnesseResponse> execution;
+
+        try
+        {
+            execution = task.execution.get();
+        } catch (final RuntimeException e)
+        {
+            execution = new CompletableFuture<>();
+            execution.completeExceptionally(e);
+        }
+
+        execution.whenComplete((response, error) -> {
+            this.release(task);
+
+            if (error != null)
+            {
+                task.future.completeExceptionally(error);
+            } else
+            {
+                task.future.complete(response);
+            }
+
+            this.dispatch();
+        });
+    }
+
+    private synchronized void release(final Task task)
+    {
+        this.running--;
+
+        if (task.group != null)
+        {
+            this.usedPermits.merge(task.group.getName(), -1, Integer::sum);
+        }
+    }
+
+    /**
+     * Pending page execution
+     */
+    private static final class Task
+    {
+
+        private final ResourceGroup group;
+
+        private final double priority;
+
+        private final long sequence;
+
+        private final Supplier<CompletableFuture<FitnesseResponse>> execution;
+
+        private final CompletableFuture<FitnesseResponse> future = new CompletableFuture<>();
+
+        Task(final ResourceGroup group, final double priority, final long sequence, final Supplier<CompletableFuture<FitnesseResponse>> execution)
+        {
+            this.group = group;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.execution = execution;
+        }
+    }
+}
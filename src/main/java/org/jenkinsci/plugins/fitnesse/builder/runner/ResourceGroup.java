@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.runner;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.jenkinsci.plugins.fitnesse.builder.tree.PagePattern;
+
+/**
+ * Named group of FitNesse pages sharing a resource, e.g. a database schema or a mock server,
+ * of which at most a given number may run concurrently
+ * 
+ * <p>
+ * Groups are defined one per line, as {@code name:permits:selectors}, where the selectors are separated by spaces
+ * and are either page patterns, or FitNesse tags prefixed with {@code tag:}, e.g.
+ * {@code database:1:FrontPage.Billing.** tag:db}.
+ * 
+ */
+public class ResourceGroup implements Serializable
+{
+
+    private static final long serialVersionUID = -6521987446417016734L;
+
+    /** Prefix of the selectors which are FitNesse tags */
+    public static final String TAG_PREFIX = "tag:";
+
+    private final String name;
+
+    private final int permits;
+
+    private final List<String> patterns;
+
+    private final List<String> tags;
+
+    private transient List<PagePattern> compiledPatterns;
+
+    /**
+     * Constructor
+     * 
+     * @param name name of the group
+     * @param permits maximum number of concurrently running pages of the group
+     * @param patterns patterns of the names of the pages of the group
+     * @param tags tags of the pages of the group
+     */
+    public ResourceGroup(final String name, final int permits, final List<String> patterns, final List<String> tags)
+    {
+        this.name = name;
+        this.permits = permits;
+        this.patterns = patterns;
+        this.tags = tags;
+    }
+
+    /**
+     * Parses resource group definitions
+     * 
+     * @param definitions group definitions, one per line (may be {@code null})
+     * @return the resource groups
+     * @throws IllegalArgumentException if a definition is not valid
+     */
+    public static List<ResourceGroup> parse(final String definitions)
+    {
+        if (definitions == null)
+        {
+            return Collections.emptyList();
+        }
+
+        final List<ResourceGroup> groups = new ArrayList<>();
+
+        for (final String definition : definitions.split("\\r?\\n"))
+        {
+            if (!definition.trim().isEmpty())
+            {
+                groups.add(ResourceGroup.parseGroup(definition.trim()));
+            }
+        }
+
+        return groups;
+    }
+
+    private static ResourceGroup parseGroup(final String definition)
+    {
+        // the selectors may contain colons, e.g. the tag and regular expression prefixes
+        final String[] fields = definition.split(":", 3);
+
+        if ((fields.length != 3) || fields[0].trim().isEmpty())
+        {
+            throw new IllegalArgumentException(String.format("\"%s\" is not a valid resource group, expected name:permits:selectors", definition));
+        }
+
+        final int permits;
+
+        try
+        {
+            permits = Integer.parseInt(fields[1].trim());
+        } catch (final NumberFormatException e)
+        {
+            throw new IllegalArgumentException(String.format("\"%s\" is not a valid number of permits", fields[1].trim()), e);
+        }
+
+        if (permits < 1)
+        {
+            throw new IllegalArgumentException(String.format("\"%s\" is not a valid number of permits", fields[1].trim()));
+        }
+
+        final List<String> patterns = new ArrayList<>();
+        final List<String> tags = new ArrayList<>();
+
+        for (final String selector : fields[2].trim().split("\\s+"))
+        {
+            if (selector.startsWith(ResourceGroup.TAG_PREFIX))
+            {
+                tags.add(selector.substring(ResourceGroup.TAG_PREFIX.length()));
+            } else if (!selector.isEmpty())
+            {
+                // fail early on invalid patterns
+                PagePattern.compile(selector);
+                patterns.add(selector);
+            }
+        }
+
+        return new ResourceGroup(fields[0].trim(), permits, patterns, tags);
+    }
+
+    /**
+     * Whether a page belongs to this group
+     * 
+     * @param page name of the page
+     * @param pageTags tags of the page
+     * @return {@code true} if the page matches one of the patterns or bears one of the tags of this group
+     */
+    public boolean matches(final String page, final Set<String> pageTags)
+    {
+        if (this.compiledPatterns == null)
+        {
+            this.compiledPatterns = this.patterns.stream().map(PagePattern::compile).collect(Collectors.toList());
+        }
+
+        return this.compiledPatterns.stream().anyMatch(pattern -> pattern.matches(page))
+                || this.tags.stream().anyMatch(pageTags::contains);
+    }
+
+    /**
+     * @return name of the group
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * @return maximum number of concurrently running pages of the group
+     */
+    public int getPermits()
+    {
+        return this.permits;
+    }
+
+    /**
+     * @return patterns of the names of the pages of the group
+     */
+    public List<String> getPatterns()
+    {
+        return this.patterns;
+    }
+
+    /**
+     * @return tags of the pages of the group
+     */
+    public List<String> getTags()
+    {
+        return this.tags;
+    }
+}
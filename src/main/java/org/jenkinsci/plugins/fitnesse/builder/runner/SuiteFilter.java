@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.runner;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Selection of the pages of a FitNesse suite according to their tags, i.e. their {@code Suites} property
+ * 
+ * <p>
+ * Translates to the {@code suiteFilter}, {@code runTestsMatchingAllTags} and {@code excludeSuiteFilter}
+ * parameters of the FitNesse suite responder.
+ * 
+ */
+public class SuiteFilter implements Serializable
+{
+
+    private static final long serialVersionUID = 2405818342712596497L;
+
+    /** Name of the partition which gathers the pages bearing none of the partitioning tags */
+    public static final String UNTAGGED_PARTITION = "untagged";
+
+    private final List<String> includedTags;
+
+    private final List<String> excludedTags;
+
+    private final boolean matchAllTags;
+
+    private final String partitionName;
+
+    /**
+     * Constructor
+     * 
+     * @param includedTags tags of the pages to run (empty to run all pages)
+     * @param excludedTags tags of the pages not to run
+     * @param matchAllTags whether to run the pages bearing all the included tags, instead of any of them
+     */
+    public SuiteFilter(final List<String> includedTags, final List<String> excludedTags, final boolean matchAllTags)
+    {
+        this(includedTags, excludedTags, matchAllTags, null);
+    }
+
+    private SuiteFilter(final List<String> includedTags, final List<String> excludedTags, final boolean matchAllTags, final String partitionName)
+    {
+        this.includedTags = includedTags;
+        this.excludedTags = excludedTags;
+        this.matchAllTags = matchAllTags;
+        this.partitionName = partitionName;
+    }
+
+    /**
+     * Splits a suite into disjoint partitions, one per tag plus one for the pages bearing none of the tags
+     * 
+     * <p>
+     * A page bearing several of the tags belongs to the partition of the first one.
+     * 
+     * @param tags partitioning tags
+     * @param excludedTags tags of the pages not to run in any partition
+     * @return the filters of the partitions
+     */
+    public static List<SuiteFilter> partition(final List<String> tags, final List<String> excludedTags)
+    {
+        final List<SuiteFilter> partitions = new ArrayList<>();
+
+        for (int i = 0; i < tags.size(); i++)
+        {
+            final List<String> partitionExcludedTags = Stream
+                    .concat(excludedTags.stream(), tags.subList(0, i).stream())
+                    .collect(Collectors.toList());
+
+            partitions.add(new SuiteFilter(Collections.singletonList(tags.get(i)), partitionExcludedTags, false, tags.get(i)));
+        }
+
+        final List<String> untaggedExcludedTags = Stream
+                .concat(excludedTags.stream(), tags.stream())
+                .collect(Collectors.toList());
+
+        partitions.add(new SuiteFilter(Collections.emptyList(), untaggedExcludedTags, false, SuiteFilter.UNTAGGED_PARTITION));
+
+        return partitions;
+    }
+
+    /**
+     * @param tags comma or space delimited list of tags (may be {@code null})
+     * @return the parsed tags
+     */
+    public static List<String> parseTags(final String tags)
+    {
+        if (tags == null)
+        {
+            return Collections.emptyList();
+        }
+
+        return Arrays.stream(tags.split("[,\\s]+"))
+                .filter(tag -> !tag.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return tags of the pages to run (empty to run all pages)
+     */
+    public List<String> getIncludedTags()
+    {
+        return this.includedTags;
+    }
+
+    /**
+     * @return tags of the pages not to run
+     */
+    public List<String> getExcludedTags()
+    {
+        return this.excludedTags;
+    }
+
+    /**
+     * @return whether to run the pages bearing all the included tags, instead of any of them
+     */
+    public boolean getMatchAllTags()
+    {
+        return this.matchAllTags;
+    }
+
+    /**
+     * @return name of the partition this filter selects, or {@code null} if it is not a partition
+     */
+    public String getPartitionName()
+    {
+        return this.partitionName;
+    }
+
+    /**
+     * @param suite name of the FitNesse suite
+     * @return name of the results of the suite run with this filter
+     */
+    public String getResultName(final String suite)
+    {
+        return this.partitionName == null ? suite : String.format("%s-%s", suite, this.partitionName);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.tree;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Pattern matching the full names of FitNesse pages
+ * 
+ * <p>
+ * Two syntaxes are supported:
+ * <ul>
+ * <li>globs, where {@code *} matches any part of a page name segment, {@code ?} matches a single character of
+ * a segment and {@code **} matches any number of segments, e.g. {@code FrontPage.Billing.**.*Invoice*}
+ * <li>regular expressions, prefixed with {@code regex:}, e.g. {@code regex:FrontPage\.Billing\..*Invoice.*}
+ * </ul>
+ * 
+ */
+public final class PagePattern
+{
+
+    /** Prefix of the patterns which are regular expressions */
+    public static final String REGEX_PREFIX = "regex:";
+
+    private final String expression;
+
+    private final Pattern pattern;
+
+    private final String prefix;
+
+    private PagePattern(final String expression, final Pattern pattern, final String prefix)
+    {
+        this.expression = expression;
+        this.pattern = pattern;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Compiles a glob or regular expression page pattern
+     * 
+     * @param expression the pattern
+     * @return the compiled pattern
+     * @throws IllegalArgumentException if the pattern is not valid
+     */
+    public static PagePattern compile(final String expression)
+    {
+        final String trimmedExpression = expression.trim();
+
+        if (trimmedExpression.startsWith(PagePattern.REGEX_PREFIX))
+        {
+            try
+            {
+                return new PagePattern(trimmedExpression, Pattern.compile(trimmedExpression.substring(PagePattern.REGEX_PREFIX.length())), "");
+            } catch (final PatternSyntaxException e)
+            {
+                throw new IllegalArgumentException(String.format("\"%s\" is not a valid regular expression", trimmedExpression), e);
+            }
+        }
+
+        final String[] segments = trimmedExpression.split("\\.", -1);
+        final StringBuilder regex = new StringBuilder();
+        final StringBuilder prefix = new StringBuilder();
+        boolean literal = true;
+        boolean separated = true;
+
+        for (int i = 0; i < segments.length; i++)
+        {
+            final String segment = segments[i];
+
+            if (segment.isEmpty())
+            {
+                throw new IllegalArgumentException(String.format("\"%s\" is not a valid page pattern", trimmedExpression));
+            }
+
+            if ("**".equals(segment))
+            {
+                // any number of segments, including none
+                if (i == (segments.length - 1))
+                {
+                    regex.append(i == 0 ? ".*" : "(?:\\.[^.]+)*");
+                } else
+                {
+                    regex.append(i == 0 ? "(?:[^.]+\\.)*" : "\\.(?:[^.]+\\.)*");
+                }
+
+                literal = false;
+                separated = true;
+                continue;
+            }
+
+            literal &= !segment.contains("*") && !segment.contains("?");
+
+            if (literal)
+            {
+                prefix.append(prefix.length() == 0 ? "" : ".").append(segment);
+            }
+
+            regex.append(separated ? "" : "\\.");
+            regex.append(segment
+                    .replaceAll("[^*?]+", "\\\\Q$0\\\\E")
+                    .replace("*", "[^.]*")
+                    .replace("?", "[^.]"));
+
+            separated = false;
+        }
+
+        return new PagePattern(trimmedExpression, Pattern.compile(regex.toString()), prefix.toString());
+    }
+
+    /**
+     * @param page full name of a page
+     * @return {@code true} if the name matches this pattern, {@code false} otherwise
+     */
+    public boolean matches(final String page)
+    {
+        return this.pattern.matcher(page).matches();
+    }
+
+    /**
+     * @return literal prefix of the names matching this pattern (may be empty)
+     */
+    public String getPrefix()
+    {
+        return this.prefix;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString()
+    {
+        return this.expression;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.tree;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Names of all the pages of a remote FitNesse wiki, which allows to expand page patterns in memory
+ * 
+ */
+public class PageTree implements Serializable
+{
+
+    private static final long serialVersionUID = -6016406512766347434L;
+
+    private final NavigableSet<String> pages;
+
+    private final String etag;
+
+    private long retrievalTime;
+
+    /**
+     * Constructor
+     * 
+     * @param pages full names of the pages
+     * @param etag entity tag of the FitNesse response the names were read from (may be {@code null})
+     * @param retrievalTime time at which the names were retrieved from FitNesse
+     */
+    public PageTree(final Collection<String> pages, final String etag, final long retrievalTime)
+    {
+        this.pages = new TreeSet<>(pages);
+        this.etag = etag;
+        this.retrievalTime = retrievalTime;
+    }
+
+    /**
+     * Parses the response of the FitNesse {@code names} responder
+     * 
+     * @param content names of the pages, one per line
+     * @param etag entity tag of the FitNesse response (may be {@code null})
+     * @param retrievalTime time at which the names were retrieved from FitNesse
+     * @return the corresponding page tree
+     */
+    public static PageTree parse(final String content, final String etag, final long retrievalTime)
+    {
+        final Set<String> pages = new TreeSet<>();
+
+        for (final String line : content.split("\r?\n"))
+        {
+            final String page = line.trim();
+
+            if (!page.isEmpty())
+            {
+                pages.add(page.startsWith(".") ? page.substring(1) : page);
+            }
+        }
+
+        return new PageTree(pages, etag, retrievalTime);
+    }
+
+    /**
+     * Lists the pages matching a given pattern
+     * 
+     * @param pattern a page pattern
+     * @return full names of the matching pages, sorted
+     */
+    public NavigableSet<String> expand(final PagePattern pattern)
+    {
+        final String prefix = pattern.getPrefix();
+
+        // only look at the pages sharing the literal prefix of the pattern
+        final NavigableSet<String> candidates = prefix.isEmpty()
+                ? this.pages
+                : this.pages.subSet(prefix, true, prefix + Character.MAX_VALUE, true);
+
+        final NavigableSet<String> matchingPages = new TreeSet<>();
+
+        for (final String page : candidates)
+        {
+            if (pattern.matches(page))
+            {
+                matchingPages.add(page);
+            }
+        }
+
+        return matchingPages;
+    }
+
+    /**
+     * @return full names of the pages, sorted
+     */
+    public NavigableSet<String> getPages()
+    {
+        return Collections.unmodifiableNavigableSet(this.pages);
+    }
+
+    /**
+     * @return entity tag of the FitNesse response the names were read from (may be {@code null})
+     */
+    public String getEtag()
+    {
+        return this.etag;
+    }
+
+    /**
+     * @return time at which the names were retrieved from, or last validated against, FitNesse
+     */
+    public long getRetrievalTime()
+    {
+        return this.retrievalTime;
+    }
+
+    /**
+     * @param retrievalTime time at which the names were validated against FitNesse
+     */
+    public void setRetrievalTime(final long retrievalTime)
+    {
+        this.retrievalTime = retrievalTime;
+    }
+}
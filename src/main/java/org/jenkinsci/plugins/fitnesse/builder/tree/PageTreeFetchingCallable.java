@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.tree;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+
+import org.jenkinsci.plugins.fitnesse.builder.runner.FitnessePageRunner;
+import org.jenkinsci.plugins.fitnesse.builder.runner.FitnesseResponse;
+
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+
+/**
+ * Retrieves the page tree of the remote FitNesse wiki, <strong>on the node where the build occurs</strong>
+ * 
+ */
+public class PageTreeFetchingCallable extends MasterToSlaveFileCallable<PageTree>
+{
+
+    private static final long serialVersionUID = 1932786007408113284L;
+
+    private final FitnessePageRunner runner;
+
+    private final PageTree previousTree;
+
+    /**
+     * Constructor
+     * 
+     * @param runner runner used to retrieve the page names
+     * @param previousTree previously retrieved tree, which is returned as is if it is still valid (may be {@code null})
+     */
+    public PageTreeFetchingCallable(final FitnessePageRunner runner, final PageTree previousTree)
+    {
+        this.runner = runner;
+        this.previousTree = previousTree;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PageTree invoke(final File workspace, final VirtualChannel channel) throws IOException, InterruptedException
+    {
+        final FitnesseResponse response;
+
+        try
+        {
+            response = this.runner.fetchPageNames(this.previousTree == null ? null : this.previousTree.getEtag()).get();
+        } catch (final ExecutionException e)
+        {
+            throw new IOException("Could not retrieve the FitNesse page tree", e.getCause());
+        }
+
+        final long retrievalTime = System.currentTimeMillis();
+
+        // the names did not change since the previous retrieval
+        if (response.isCached() && (this.previousTree != null))
+        {
+            this.previousTree.setRetrievalTime(retrievalTime);
+            return this.previousTree;
+        }
+
+        return PageTree.parse(response.getContent(), response.getEtag(), retrievalTime);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.tree;
+
+import java.io.File;
+import java.io.IOException;
+
+import hudson.XmlFile;
+import hudson.model.Job;
+
+/**
+ * Per-job store of the FitNesse page tree, which lives on the Jenkins master, in the job directory
+ * 
+ * <p>
+ * The stored tree is reused as is while it is younger than the configured time to live, and validated
+ * against FitNesse through a conditional request otherwise.
+ * 
+ */
+public class PageTreeStore
+{
+
+    private static final String STORE_FILE = "fitnesse-page-tree.xml";
+
+    private final XmlFile file;
+
+    /**
+     * Constructor
+     * 
+     * @param job Jenkins job
+     */
+    public PageTreeStore(final Job<?, ?> job)
+    {
+        this.file = new XmlFile(new File(job.getRootDir(), PageTreeStore.STORE_FILE));
+    }
+
+    /**
+     * @return the stored page tree, or {@code null} if there is none
+     * @throws IOException if the tree could not be read
+     */
+    public synchronized PageTree get() throws IOException
+    {
+        return this.file.exists() ? (PageTree) this.file.read() : null;
+    }
+
+    /**
+     * @param tree page tree to store
+     * @throws IOException if the tree could not be written
+     */
+    public synchronized void save(final PageTree tree) throws IOException
+    {
+        this.file.write(tree);
+    }
+
+    /**
+     * @param tree a stored page tree (may be {@code null})
+     * @param timeToLive time to live of the stored tree, in minutes
+     * @return {@code true} if the tree can be used without being validated against FitNesse, {@code false} otherwise
+     */
+    public static boolean isFresh(final PageTree tree, final int timeToLive)
+    {
+        return (tree != null) && ((System.currentTimeMillis() - tree.getRetrievalTime()) < (timeToLive * 60_000L));
+    }
+}
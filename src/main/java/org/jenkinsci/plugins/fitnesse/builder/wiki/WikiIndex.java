@@ -0,0 +1,348 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.wiki;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import org.jenkinsci.plugins.fitnesse.util.Digests;
+
+/**
+ * Index of the pages of a {@code FitNesseRoot} directory, which allows to determine the test pages
+ * affected by the changes made to the wiki since a previous index
+ * 
+ */
+public class WikiIndex implements Serializable
+{
+
+    private static final long serialVersionUID = -2206548162812208163L;
+
+    /** Pages which FitNesse implicitly runs along with the test pages below them */
+    private static final String[] INHERITED_PAGES = { "SetUp", "TearDown", "SuiteSetUp", "SuiteTearDown" };
+
+    /** Pages holding the scenarios of the test pages below them, all of them being included up to the root */
+    private static final String SCENARIO_LIBRARY = "ScenarioLibrary";
+
+    private final Map<String, WikiPage> pages;
+
+    /**
+     * Constructor
+     * 
+     * @param pages the indexed pages
+     */
+    public WikiIndex(final Collection<WikiPage> pages)
+    {
+        this.pages = new TreeMap<>();
+
+        for (final WikiPage page : pages)
+        {
+            this.pages.put(page.getName(), page);
+        }
+    }
+
+    /**
+     * @param name full name of a page
+     * @return the indexed page, or {@code null} if there is none
+     */
+    public WikiPage getPage(final String name)
+    {
+        return this.pages.get(name);
+    }
+
+    /**
+     * @return the indexed pages, sorted by name
+     */
+    public Collection<WikiPage> getPages()
+    {
+        return Collections.unmodifiableCollection(this.pages.values());
+    }
+
+    /**
+     * Lists the test pages whose own content, or the content of one of the pages they depend upon
+     * (included pages, inherited set up and tear down pages, scenario libraries) changed since a previous index
+     * 
+     * @param baseline previous index, or {@code null} to select all test pages
+     * @return names of the affected test pages, sorted
+     */
+    public Set<String> getAffectedTestPages(final WikiIndex baseline)
+    {
+        final Set<String> affectedPages = new TreeSet<>();
+
+        // new or modified pages
+        for (final WikiPage page : this.pages.values())
+        {
+            final WikiPage previousPage = baseline == null ? null : baseline.getPage(page.getName());
+
+            if ((previousPage == null) || !previousPage.getContentHash().equals(page.getContentHash()))
+            {
+                affectedPages.add(page.getName());
+            }
+        }
+
+        // removed pages, which may still be referenced by remaining pages
+        if (baseline != null)
+        {
+            for (final String name : baseline.pages.keySet())
+            {
+                if (!this.pages.containsKey(name))
+                {
+                    affectedPages.add(name);
+                }
+            }
+        }
+
+        // propagate the changes to the dependent pages, including the former dependents of the removed pages
+        final Map<String, List<String>> dependents = this.getDependents();
+
+        if (baseline != null)
+        {
+            baseline.getDependents().forEach((dependency, formerDependents) -> dependents
+                    .computeIfAbsent(dependency, key -> new ArrayList<>())
+                    .addAll(formerDependents));
+        }
+        final Deque<String> queue = new ArrayDeque<>(affectedPages);
+
+        while (!queue.isEmpty())
+        {
+            for (final String dependent : dependents.getOrDefault(queue.poll(), Collections.emptyList()))
+            {
+                if (affectedPages.add(dependent))
+                {
+                    queue.add(dependent);
+                }
+            }
+        }
+
+        affectedPages.removeIf(name -> !this.pages.containsKey(name) || !this.pages.get(name).isTest());
+
+        return affectedPages;
+    }
+
+    /**
+     * Computes a hash of the content of a page and of all the pages it transitively depends upon (included pages,
+     * inherited set up and tear down pages, scenario libraries), which changes whenever any of them changes
+     * 
+     * @param name full name of a page
+     * @return the hash, or {@code null} if the page is not indexed
+     */
+    public String getDependencyHash(final String name)
+    {
+        if (!this.pages.containsKey(name))
+        {
+            return null;
+        }
+
+        final Set<String> dependencies = new TreeSet<>();
+        final Deque<String> queue = new ArrayDeque<>(Collections.singleton(name));
+
+        while (!queue.isEmpty())
+        {
+            final String dependency = queue.poll();
+
+            if (dependencies.add(dependency) && this.pages.containsKey(dependency))
+            {
+                queue.addAll(this.getDependencies(this.pages.get(dependency)));
+            }
+        }
+
+        // a missing dependency is part of the hash, for the page to be run again once it is created
+        final MessageDigest digest = Digests.newSha256();
+
+        for (final String dependency : dependencies)
+        {
+            final WikiPage page = this.pages.get(dependency);
+            digest.update(String.format("%s=%s%n", dependency, page == null ? "" : page.getContentHash()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        return Digests.toHex(digest.digest());
+    }
+
+    /**
+     * @return for each page, the pages which directly depend upon it
+     */
+    private Map<String, List<String>> getDependents()
+    {
+        final Map<String, List<String>> dependents = new HashMap<>();
+
+        for (final WikiPage page : this.pages.values())
+        {
+            for (final String dependency : this.getDependencies(page))
+            {
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(page.getName());
+            }
+        }
+
+        return dependents;
+    }
+
+    /**
+     * Resolves the pages a given page directly depends upon
+     * 
+     * <p>
+     * Unresolved references are kept as is, so that a page referencing a removed page is considered as affected.
+     * 
+     * @param page an indexed page
+     * @return full names of the pages it depends upon
+     */
+    private Set<String> getDependencies(final WikiPage page)
+    {
+        final Set<String> dependencies = new HashSet<>();
+
+        for (final String include : page.getIncludes())
+        {
+            dependencies.add(this.resolve(page.getName(), include));
+        }
+
+        dependencies.addAll(WikiIndex.getInheritedPages(page.getName(), this.pages::containsKey));
+
+        return dependencies;
+    }
+
+    /**
+     * Lists the pages FitNesse implicitly runs along with a given page: the nearest set up and tear down pages,
+     * and all the scenario libraries, found among the siblings of the page and of its ancestors
+     * 
+     * @param pageName full name of a page
+     * @param existingPages tells whether a page exists
+     * @return full names of the inherited pages
+     */
+    public static Set<String> getInheritedPages(final String pageName, final Predicate<String> existingPages)
+    {
+        final Set<String> inheritedPages = new TreeSet<>();
+
+        for (final String inheritedPage : WikiIndex.INHERITED_PAGES)
+        {
+            String parent = WikiIndex.parentOf(pageName);
+
+            while (parent != null)
+            {
+                final String candidate = WikiIndex.childOf(parent, inheritedPage);
+
+                if (existingPages.test(candidate) && !candidate.equals(pageName))
+                {
+                    inheritedPages.add(candidate);
+                    break;
+                }
+
+                parent = WikiIndex.parentOf(parent);
+            }
+        }
+
+        for (String parent = WikiIndex.parentOf(pageName); parent != null; parent = WikiIndex.parentOf(parent))
+        {
+            final String candidate = WikiIndex.childOf(parent, WikiIndex.SCENARIO_LIBRARY);
+
+            if (existingPages.test(candidate) && !candidate.equals(pageName))
+            {
+                inheritedPages.add(candidate);
+            }
+        }
+
+        return inheritedPages;
+    }
+
+    /**
+     * Resolves a page reference the way FitNesse does
+     * 
+     * <ul>
+     * <li>{@code .A.B}: absolute reference
+     * <li>{@code >A.B}: child reference
+     * <li>{@code <A.B}: backward search reference, i.e. {@code A} is the nearest ancestor bearing this name
+     * <li>{@code A.B}: sibling reference
+     * </ul>
+     * 
+     * @param pageName full name of the referencing page
+     * @param reference the page reference
+     * @return full name of the referenced page
+     */
+    String resolve(final String pageName, final String reference)
+    {
+        if (reference.startsWith("."))
+        {
+            return reference.substring(1);
+        }
+
+        if (reference.startsWith(">"))
+        {
+            return pageName + "." + reference.substring(1);
+        }
+
+        if (reference.startsWith("<"))
+        {
+            final String target = reference.substring(1);
+            final int separatorIndex = target.indexOf('.');
+            final String ancestorName = separatorIndex < 0 ? target : target.substring(0, separatorIndex);
+
+            String ancestor = WikiIndex.parentOf(pageName);
+
+            while ((ancestor != null) && !ancestor.isEmpty())
+            {
+                if (ancestor.equals(ancestorName) || ancestor.endsWith("." + ancestorName))
+                {
+                    return ancestor + (separatorIndex < 0 ? "" : target.substring(separatorIndex));
+                }
+
+                ancestor = WikiIndex.parentOf(ancestor);
+            }
+
+            return target;
+        }
+
+        final String parent = WikiIndex.parentOf(pageName);
+
+        return (parent == null) || parent.isEmpty() ? reference : parent + "." + reference;
+    }
+
+    /**
+     * @param parent full name of a page, the empty string for the root
+     * @param name name of a child page
+     * @return full name of the child page
+     */
+    private static String childOf(final String parent, final String name)
+    {
+        return parent.isEmpty() ? name : parent + "." + name;
+    }
+
+    /**
+     * @param pageName full name of a page
+     * @return full name of its parent page, the empty string for a top-level page, {@code null} for the root
+     */
+    private static String parentOf(final String pageName)
+    {
+        if (pageName.isEmpty())
+        {
+            return null;
+        }
+
+        final int separatorIndex = pageName.lastIndexOf('.');
+
+        return separatorIndex < 0 ? "" : pageName.substring(0, separatorIndex);
+    }
+}
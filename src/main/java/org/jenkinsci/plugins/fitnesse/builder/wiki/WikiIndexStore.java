@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.wiki;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import hudson.XmlFile;
+import hudson.model.Job;
+import hudson.model.Result;
+import hudson.model.Run;
+
+/**
+ * Per-job store of the {@code FitNesseRoot} indexes, which lives on the Jenkins master, in the job directory
+ * 
+ * <p>
+ * The store keeps the index of the last successful build, against which the changes are computed, and the
+ * index of the latest build. The latter becomes the new baseline once its build is known to be successful.
+ * 
+ */
+public class WikiIndexStore
+{
+
+    /** Name of the store directory, relative to the job directory */
+    private static final String STORE_DIRECTORY = "fitnesse-wiki-index";
+
+    private final Job<?, ?> job;
+
+    private final XmlFile baselineFile;
+
+    private final XmlFile latestFile;
+
+    /**
+     * Constructor
+     * 
+     * @param job Jenkins job
+     */
+    public WikiIndexStore(final Job<?, ?> job)
+    {
+        final File directory = new File(job.getRootDir(), WikiIndexStore.STORE_DIRECTORY);
+
+        this.job = job;
+        this.baselineFile = new XmlFile(new File(directory, "baseline.xml"));
+        this.latestFile = new XmlFile(new File(directory, "latest.xml"));
+    }
+
+    /**
+     * Retrieves the index of the last successful build, promoting the index of the latest build if it succeeded
+     * 
+     * @return the index of the last successful build, or {@code null} if there is none
+     * @throws IOException if the store could not be read or updated
+     */
+    public synchronized WikiIndex getBaseline() throws IOException
+    {
+        final StoredIndex latest = this.read(this.latestFile);
+
+        if ((latest != null) && (latest.getBuildNumber() > 0))
+        {
+            final Run<?, ?> latestBuild = this.job.getBuildByNumber(latest.getBuildNumber());
+
+            if ((latestBuild != null) && !latestBuild.isBuilding() && (latestBuild.getResult() == Result.SUCCESS))
+            {
+                this.baselineFile.write(latest);
+                this.latestFile.write(new StoredIndex(0, latest.getIndex()));
+            }
+        }
+
+        final StoredIndex baseline = this.read(this.baselineFile);
+
+        return baseline == null ? null : baseline.getIndex();
+    }
+
+    /**
+     * @return the most recently built index, used to index the workspace incrementally, or {@code null} if there is none
+     * @throws IOException if the store could not be read
+     */
+    public synchronized WikiIndex getLatest() throws IOException
+    {
+        final StoredIndex latest = this.read(this.latestFile);
+
+        return latest == null ? null : latest.getIndex();
+    }
+
+    /**
+     * @param index index built for a given build
+     * @param buildNumber number of the build
+     * @throws IOException if the index could not be stored
+     */
+    public synchronized void setLatest(final WikiIndex index, final int buildNumber) throws IOException
+    {
+        Files.createDirectories(this.latestFile.getFile().getParentFile().toPath());
+        this.latestFile.write(new StoredIndex(buildNumber, index));
+    }
+
+    private StoredIndex read(final XmlFile file) throws IOException
+    {
+        return file.exists() ? (StoredIndex) file.read() : null;
+    }
+
+    /**
+     * Index stored along with the number of the build it was built for ({@code 0} once it was promoted)
+     */
+    private static final class StoredIndex
+    {
+
+        private final int buildNumber;
+
+        private final WikiIndex index;
+
+        StoredIndex(final int buildNumber, final WikiIndex index)
+        {
+            this.buildNumber = buildNumber;
+            this.index = index;
+        }
+
+        int getBuildNumber()
+        {
+            return this.buildNumber;
+        }
+
+        WikiIndex getIndex()
+        {
+            return this.index;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.wiki;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jenkinsci.plugins.fitnesse.util.Digests;
+
+/**
+ * Indexes the pages of a {@code FitNesseRoot} directory, in both the file-per-page ({@code PageName.wiki})
+ * and the directory-per-page ({@code PageName/content.txt} and {@code properties.xml}) formats
+ * 
+ * <p>
+ * Indexing is incremental: pages whose files did not change, according to their size and last modification time,
+ * are reused from the previous index without being read. The remaining pages are read in parallel.
+ * 
+ */
+public final class WikiIndexer
+{
+
+    private static final String WIKI_EXTENSION = ".wiki";
+
+    private static final String CONTENT_FILE = "content.txt";
+
+    private static final String PROPERTIES_FILE = "properties.xml";
+
+    /** Root directories which do not contain wiki pages */
+    private static final Set<String> IGNORED_DIRECTORIES = new LinkedHashSet<>(Arrays.asList("files", "ErrorLogs", "RecentChanges"));
+
+    private static final Pattern INCLUDE_PATTERN = Pattern.compile("^!include(?:\\s+-\\w+)*\\s+([.<>]?[A-Za-z0-9.]+)", Pattern.MULTILINE);
+
+    private static final Pattern FRONT_MATTER_PATTERN = Pattern.compile("\\A---\\r?\\n(.*?)\\r?\\n---", Pattern.DOTALL);
+
+    private static final Pattern SUITES_PROPERTY_PATTERN = Pattern.compile("^Suites:(.*)$", Pattern.MULTILINE);
+
+    private static final Pattern TEST_PROPERTY_PATTERN = Pattern.compile("^Test\\s*$", Pattern.MULTILINE);
+
+    private static final Pattern XML_SUITES_PROPERTY_PATTERN = Pattern.compile("<Suites>(.*?)</Suites>", Pattern.DOTALL);
+
+    private static final Pattern XML_TEST_PROPERTY_PATTERN = Pattern.compile("<Test\\s*/>|<Test>true</Test>");
+
+    private static final Pattern TEST_NAME_PATTERN = Pattern.compile("^Test.*|.*(Test|Examples?)$");
+
+    /**
+     * Indexes the pages of a {@code FitNesseRoot} directory
+     * 
+     * @param root the {@code FitNesseRoot} directory
+     * @param previousIndex index previously built for the same directory, or {@code null}
+     * @return the index of the pages
+     * @throws IOException if the directory could not be walked, or a page could not be read
+     */
+    public static WikiIndex index(final Path root, final WikiIndex previousIndex) throws IOException
+    {
+        final List<Path> pageFiles;
+
+        try (Stream<Path> files = Files.walk(root))
+        {
+            pageFiles = files
+                    .filter(file -> WikiIndexer.isPageFile(root, file))
+                    .collect(Collectors.toList());
+        }
+
+        try
+        {
+            return new WikiIndex(pageFiles
+                    .parallelStream()
+                    .map(file -> WikiIndexer.indexPage(root, file, previousIndex))
+                    .collect(Collectors.toList()));
+        } catch (final UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    private static boolean isPageFile(final Path root, final Path file)
+    {
+        final Path relativePath = root.relativize(file);
+
+        if ((relativePath.getNameCount() < 2) && WikiIndexer.CONTENT_FILE.equals(relativePath.toString()))
+        {
+            // the root page itself
+            return false;
+        }
+
+        if (WikiIndexer.IGNORED_DIRECTORIES.contains(relativePath.getName(0).toString()))
+        {
+            return false;
+        }
+
+        final String fileName = file.getFileName().toString();
+
+        return (fileName.endsWith(WikiIndexer.WIKI_EXTENSION) || fileName.equals(WikiIndexer.CONTENT_FILE)) && Files.isRegularFile(file);
+    }
+
+    private static WikiPage indexPage(final Path root, final Path file, final WikiIndex previousIndex)
+    {
+        try
+        {
+            final boolean isWikiFile = file.getFileName().toString().endsWith(WikiIndexer.WIKI_EXTENSION);
+            final Path pagePath = isWikiFile ? root.relativize(file) : root.relativize(file.getParent());
+            final String name = WikiIndexer.toPageName(pagePath, isWikiFile);
+
+            // the properties of directory-per-page pages are stored aside
+            final Path propertiesFile = isWikiFile ? null : file.resolveSibling(WikiIndexer.PROPERTIES_FILE);
+            final boolean hasProperties = (propertiesFile != null) && Files.isRegularFile(propertiesFile);
+
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            long size = attributes.size();
+
+            if (hasProperties)
+            {
+                final BasicFileAttributes propertiesAttributes = Files.readAttributes(propertiesFile, BasicFileAttributes.class);
+                lastModified = Math.max(lastModified, propertiesAttributes.lastModifiedTime().toMillis());
+                size += propertiesAttributes.size();
+            }
+
+            final WikiPage previousPage = previousIndex == null ? null : previousIndex.getPage(name);
+
+            if ((previousPage != null) && (previousPage.getLastModified() == lastModified) && (previousPage.getSize() == size))
+            {
+                return previousPage;
+            }
+
+            final byte[] content = Files.readAllBytes(file);
+            final byte[] properties = hasProperties ? Files.readAllBytes(propertiesFile) : new byte[0];
+
+            final MessageDigest digest = Digests.newSha256();
+            digest.update(content);
+            digest.update(properties);
+
+            return WikiIndexer.parsePage(
+                    name,
+                    lastModified,
+                    size,
+                    Digests.toHex(digest.digest()),
+                    new String(content, StandardCharsets.UTF_8),
+                    hasProperties ? new String(properties, StandardCharsets.UTF_8) : null);
+        } catch (final IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static WikiPage parsePage(final String name, final long lastModified, final long size, final String contentHash, final String content, final String xmlProperties)
+    {
+        String properties = null;
+
+        if (xmlProperties == null)
+        {
+            final Matcher frontMatter = WikiIndexer.FRONT_MATTER_PATTERN.matcher(content);
+            properties = frontMatter.find() ? frontMatter.group(1) : null;
+        }
+
+        // test page type, from the page properties or from its name when it has no properties
+        final String shortName = name.substring(name.lastIndexOf('.') + 1);
+        boolean test = WikiIndexer.TEST_NAME_PATTERN.matcher(shortName).matches();
+        String suites = null;
+
+        if (properties != null)
+        {
+            test = WikiIndexer.TEST_PROPERTY_PATTERN.matcher(properties).find();
+            final Matcher suitesMatcher = WikiIndexer.SUITES_PROPERTY_PATTERN.matcher(properties);
+            suites = suitesMatcher.find() ? suitesMatcher.group(1) : null;
+        }
+
+        if (xmlProperties != null)
+        {
+            test = WikiIndexer.XML_TEST_PROPERTY_PATTERN.matcher(xmlProperties).find();
+            final Matcher suitesMatcher = WikiIndexer.XML_SUITES_PROPERTY_PATTERN.matcher(xmlProperties);
+            suites = suitesMatcher.find() ? suitesMatcher.group(1) : null;
+        }
+
+        final Set<String> tags = suites == null ? Collections.emptySet() : Arrays.stream(suites.split(","))
+                .map(String::trim)
+                .filter(tag -> !tag.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        final List<String> includes = new ArrayList<>();
+        final Matcher includeMatcher = WikiIndexer.INCLUDE_PATTERN.matcher(content);
+
+        while (includeMatcher.find())
+        {
+            includes.add(includeMatcher.group(1));
+        }
+
+        return new WikiPage(name, lastModified, size, contentHash, test, tags, includes);
+    }
+
+    private static String toPageName(final Path pagePath, final boolean isWikiFile)
+    {
+        final List<String> segments = new ArrayList<>();
+
+        for (final Path segment : pagePath)
+        {
+            segments.add(segment.toString());
+        }
+
+        if (isWikiFile)
+        {
+            final String fileName = segments.remove(segments.size() - 1);
+            segments.add(fileName.substring(0, fileName.length() - WikiIndexer.WIKI_EXTENSION.length()));
+        }
+
+        return String.join(".", segments);
+    }
+
+    /** no-op */
+    private WikiIndexer()
+    {
+        // no-op
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.wiki;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import hudson.AbortException;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+
+/**
+ * Indexes the {@code FitNesseRoot} directory checked out in the workspace, <strong>on the node where the build occurs</strong>
+ * 
+ */
+public class WikiIndexingCallable extends MasterToSlaveFileCallable<WikiIndex>
+{
+
+    private static final long serialVersionUID = 8419207004580166328L;
+
+    private final String wikiRootPath;
+
+    private final WikiIndex previousIndex;
+
+    /**
+     * Constructor
+     * 
+     * @param wikiRootPath path of the {@code FitNesseRoot} directory, relative to the workspace
+     * @param previousIndex index previously built for the same directory, or {@code null}
+     */
+    public WikiIndexingCallable(final String wikiRootPath, final WikiIndex previousIndex)
+    {
+        this.wikiRootPath = wikiRootPath;
+        this.previousIndex = previousIndex;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public WikiIndex invoke(final File workspace, final VirtualChannel channel) throws IOException, InterruptedException
+    {
+        final Path root = workspace.toPath().resolve(this.wikiRootPath);
+
+        if (!Files.isDirectory(root))
+        {
+            throw new AbortException(String.format("FitNesseRoot directory \"%s\" was not found in the workspace", this.wikiRootPath));
+        }
+
+        return WikiIndexer.index(root, this.previousIndex);
+    }
+}
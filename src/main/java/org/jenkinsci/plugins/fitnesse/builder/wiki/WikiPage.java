@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.wiki;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Indexed state of a FitNesse page file, read from a {@code FitNesseRoot} directory
+ * 
+ */
+public class WikiPage implements Serializable
+{
+
+    private static final long serialVersionUID = 3309117215262947121L;
+
+    private final String name;
+
+    private final long lastModified;
+
+    private final long size;
+
+    private final String contentHash;
+
+    private final boolean test;
+
+    private final Set<String> tags;
+
+    private final List<String> includes;
+
+    /**
+     * Constructor
+     * 
+     * @param name full name of the page, e.g. {@code FrontPage.SuiteName.TestPage}
+     * @param lastModified last modification time of the page files
+     * @param size size of the page files
+     * @param contentHash hash of the page files content
+     * @param test whether the page is a test page
+     * @param tags tags of the page, i.e. its {@code Suites} property
+     * @param includes page references of the {@code !include} directives of the page, as written
+     */
+    public WikiPage(final String name, final long lastModified, final long size, final String contentHash, final boolean test, final Set<String> tags, final List<String> includes)
+    {
+        this.name = name;
+        this.lastModified = lastModified;
+        this.size = size;
+        this.contentHash = contentHash;
+        this.test = test;
+        this.tags = tags;
+        this.includes = includes;
+    }
+
+    /**
+     * @return full name of the page
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * @return last modification time of the page files
+     */
+    public long getLastModified()
+    {
+        return this.lastModified;
+    }
+
+    /**
+     * @return size of the page files
+     */
+    public long getSize()
+    {
+        return this.size;
+    }
+
+    /**
+     * @return hash of the page files content
+     */
+    public String getContentHash()
+    {
+        return this.contentHash;
+    }
+
+    /**
+     * @return whether the page is a test page
+     */
+    public boolean isTest()
+    {
+        return this.test;
+    }
+
+    /**
+     * @return tags of the page
+     */
+    public Set<String> getTags()
+    {
+        return this.tags;
+    }
+
+    /**
+     * @return page references of the {@code !include} directives of the page, as written
+     */
+    public List<String> getIncludes()
+    {
+        return this.includes;
+    }
+}
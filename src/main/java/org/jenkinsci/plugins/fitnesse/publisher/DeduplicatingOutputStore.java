@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+import hudson.FilePath;
+
+/**
+ * Skips the HTML content files which already exist in a content-addressed store, adding the other ones
+ * to the underlying store
+ * 
+ */
+public class DeduplicatingOutputStore implements HtmlOutputStore
+{
+
+    private final HtmlOutputStore store;
+
+    private final FilePath storeDirectory;
+
+    private final Set<String> storedFiles;
+
+    /**
+     * Constructor
+     * 
+     * @param store underlying store, adding the files to the store directory
+     * @param storeDirectory directory of the content-addressed store
+     * @param storedFiles names of the files already in the store directory, to which the added files are added
+     *            (must support concurrent updates)
+     */
+    public DeduplicatingOutputStore(final HtmlOutputStore store, final FilePath storeDirectory, final Set<String> storedFiles)
+    {
+        this.store = store;
+        this.storeDirectory = storeDirectory;
+        this.storedFiles = storedFiles;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @return path of the file in the store directory
+     */
+    @Override
+    public String add(final String fileName, final Path content) throws IOException
+    {
+        // the same name means the same content, which is stored or being stored
+        if (!this.storedFiles.add(fileName))
+        {
+            return this.storeDirectory.child(fileName).getRemote();
+        }
+
+        return this.store.add(fileName, content);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void commit() throws IOException, InterruptedException
+    {
+        this.store.commit();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() throws IOException
+    {
+        this.store.close();
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.jenkinsci.plugins.fitnesse.publisher;
 
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.nio.file.FileSystems;
 import java.util.regex.PatternSyntaxException;
 
@@ -38,6 +40,12 @@ import hudson.util.FormValidation;
 public class DescriptorImpl extends BuildStepDescriptor<Publisher>
 {
 
+    /** Default number of results files parsed concurrently, one per core of the node */
+    public static final int DEFAULT_PARSING_WORKERS = 0;
+
+    /** Default number of parsed page results waiting for their aggregation */
+    public static final int DEFAULT_PIPELINE_CAPACITY = ReportParsingPipeline.DEFAULT_CAPACITY;
+
     /**
      * Default constructor
      */
@@ -86,4 +94,67 @@ public class DescriptorImpl extends BuildStepDescriptor<Publisher>
 
         return FormValidation.ok();
     }
+
+    /**
+     * FitNesse URL validation, used to retrieve the HTML output from the page history
+     * 
+     * @param value user-submitted value
+     * @return validation result
+     */
+    public FormValidation doCheckRemoteFitnesseUrl(@QueryParameter final String value)
+    {
+        // the URL is optional, as long as HTML output is not retrieved on demand
+        if ((value == null) || value.isEmpty())
+        {
+            return FormValidation.ok();
+        }
+
+        try
+        {
+            new URL(value);
+        } catch (final MalformedURLException e)
+        {
+            return FormValidation.error(Messages.FitnessePageResultsPublisher_errors_invalidRemoteURL(value));
+        }
+
+        return FormValidation.ok();
+    }
+
+    /**
+     * Parsing workers validation
+     * 
+     * @param value user-submitted value
+     * @return validation result
+     */
+    public FormValidation doCheckParsingWorkers(@QueryParameter final String value)
+    {
+        return DescriptorImpl.checkInteger(value, 0, Messages.FitnessePageResultsPublisher_errors_invalidParsingWorkers(value));
+    }
+
+    /**
+     * Pipeline capacity validation
+     * 
+     * @param value user-submitted value
+     * @return validation result
+     */
+    public FormValidation doCheckPipelineCapacity(@QueryParameter final String value)
+    {
+        return DescriptorImpl.checkInteger(value, 1, Messages.FitnessePageResultsPublisher_errors_invalidPipelineCapacity(value));
+    }
+
+    private static FormValidation checkInteger(final String value, final int minimum, final String errorMessage)
+    {
+        try
+        {
+            if (Integer.parseInt(value) >= minimum)
+            {
+                return FormValidation.ok();
+            }
+        } catch (final NumberFormatException nfe)
+        {
+            // reported below
+        }
+
+        return FormValidation.error(errorMessage);
+    }
 }
@@ -17,9 +17,19 @@ package org.jenkinsci.plugins.fitnesse.publisher;
 
 import java.io.IOException;
 import java.io.PrintStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.jenkinsci.plugins.fitnesse.publisher.actions.FitnesseResultsAction;
 import org.jenkinsci.plugins.fitnesse.publisher.model.AggregatedFitnesseResult;
+import org.jenkinsci.plugins.fitnesse.publisher.model.FitnessePageResult;
+import org.jenkinsci.plugins.fitnesse.publisher.store.HtmlContentStore;
+import org.jenkinsci.plugins.fitnesse.publisher.store.HtmlOutputDictionary;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
 
@@ -49,6 +59,22 @@ public final class FitnesseResultsPublisher extends Recorder implements SimpleBu
 
     private boolean compressHtmlOutput;
 
+    private boolean lazyHtmlOutput;
+
+    private URL remoteFitnesseUrl;
+
+    private boolean packHtmlOutput;
+
+    private boolean deduplicateHtmlOutput;
+
+    private boolean dictionaryCompression;
+
+    private boolean parallelCompression;
+
+    private int parsingWorkers = DescriptorImpl.DEFAULT_PARSING_WORKERS;
+
+    private int pipelineCapacity = DescriptorImpl.DEFAULT_PIPELINE_CAPACITY;
+
     /**
      * Constructor
      * 
@@ -73,6 +99,21 @@ public final class FitnesseResultsPublisher extends Recorder implements SimpleBu
     /** {@inheritDoc} */
     @Override
     public void perform(final Run<?, ?> build, final FilePath workspace, final Launcher launcher, final TaskListener listener) throws InterruptedException, IOException
+    {
+        this.publish(build, workspace, listener);
+    }
+
+    /**
+     * Parses the FitNesse results files found in a given directory, and publishes them with the build
+     * 
+     * @param build current build
+     * @param resultsDirectory directory containing the results files, i.e. the workspace, or the build directory
+     *            when the tests were run from the controller
+     * @param listener build listener, for logging
+     * @throws IOException if the results files could not be found or parsed
+     * @throws InterruptedException if the build was aborted
+     */
+    public void publish(final Run<?, ?> build, final FilePath resultsDirectory, final TaskListener listener) throws InterruptedException, IOException
     {
         final PrintStream logger = listener.getLogger();
 
@@ -83,13 +124,65 @@ public final class FitnesseResultsPublisher extends Recorder implements SimpleBu
         final long timeOnMaster = System.currentTimeMillis();
         final FilePath masterBuildDirectory = new FilePath(build.getRootDir());
 
-        final AggregatedFitnesseResult results = workspace.act(new TestsParsingCallable(
+        // only keep a reference to the FitNesse page history if the HTML output is retrieved on demand
+        String remoteFitnesseUrl = null;
+
+        if (this.lazyHtmlOutput)
+        {
+            if (this.remoteFitnesseUrl == null)
+            {
+                logger.printf("No remote FitNesse URL was specified, the HTML output will be stored with the build%n");
+            } else
+            {
+                remoteFitnesseUrl = this.remoteFitnesseUrl.toString();
+            }
+        }
+
+        final TestsParsingCallable callable = new TestsParsingCallable(
                 this.xmlResultsGlob,
                 buildTime,
                 timeOnMaster, 
                 masterBuildDirectory,
                 this.compressHtmlOutput,
-                listener));
+                remoteFitnesseUrl,
+                listener);
+
+        callable.setPipeline(this.parsingWorkers, this.pipelineCapacity);
+        callable.setPackOutput(this.packHtmlOutput);
+        callable.setParallelCompression(this.parallelCompression);
+
+        // store the HTML output once for all the builds of the job, the builds referencing the stored content
+        final HtmlContentStore contentStore = this.deduplicateHtmlOutput ? HtmlContentStore.forJob(build.getParent()) : null;
+
+        // compress the HTML output with the dictionary trained from the output of the previous builds, if any
+        final HtmlOutputDictionary dictionaries = (this.compressHtmlOutput && this.dictionaryCompression) ? HtmlOutputDictionary.forJob(build.getParent()) : null;
+
+        if (dictionaries != null)
+        {
+            callable.setCompressionDictionary(dictionaries.getCurrent());
+        }
+
+        final AggregatedFitnesseResult results;
+
+        if (contentStore == null)
+        {
+            results = resultsDirectory.act(callable);
+        } else
+        {
+            // the store is not swept from the moment its content is listed until the references are recorded
+            final Lock publishLock = contentStore.getLock().readLock();
+
+            publishLock.lockInterruptibly();
+            try
+            {
+                callable.setContentStore(new FilePath(contentStore.getDirectory().toFile()), contentStore.list());
+                results = resultsDirectory.act(callable);
+                contentStore.recordReferences(build, FitnesseResultsPublisher.getHtmlContentReferences(results));
+            } finally
+            {
+                publishLock.unlock();
+            }
+        }
 
         // mark the build as unstable if there are any test failures and the user asked for it
         if (this.getMarkBuildAsUnstable() && (results.getFailCount() > 0))
@@ -105,6 +198,55 @@ public final class FitnesseResultsPublisher extends Recorder implements SimpleBu
         final FitnesseResultsAction action = new FitnesseResultsAction(build, results);
         results.setParentAction(action);
         build.addAction(action);
+
+        if ((dictionaries != null) && (remoteFitnesseUrl == null) && dictionaries.needsTraining(build))
+        {
+            final byte[] dictionary = dictionaries.train(build, FitnesseResultsPublisher.sampleHtmlContent(build, results));
+
+            if (dictionary != null)
+            {
+                logger.printf("Trained a %d bytes FitNesse HTML output compression dictionary%n", dictionary.length);
+            }
+        }
+    }
+
+    private static List<String> getHtmlContentReferences(final AggregatedFitnesseResult results)
+    {
+        return results.getChildren().stream()
+                .map(FitnessePageResult.class::cast)
+                .flatMap(page -> Stream.of(
+                        page.getHtmlContentReference(),
+                        (page.getFirstAttempt() == null) ? null : page.getFirstAttempt().getHtmlContent()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> sampleHtmlContent(final Run<?, ?> build, final AggregatedFitnesseResult results) throws IOException
+    {
+        final List<FitnessePageResult> pages = results.getChildren().stream()
+                .map(FitnessePageResult.class::cast)
+                .filter(page -> page.getHtmlContentReference() != null)
+                .collect(Collectors.toList());
+
+        // pages spread over the whole output
+        final int step = Math.max(1, pages.size() / HtmlOutputDictionary.SAMPLE_SIZE);
+        final List<String> samples = new ArrayList<>();
+
+        for (int i = 0; (i < pages.size()) && (samples.size() < HtmlOutputDictionary.SAMPLE_SIZE); i += step)
+        {
+            final FitnessePageResult page = pages.get(i);
+            page.setRun(build);
+
+            // the beginning of each output only, the outputs of a build sharing their header and markup
+            final String htmlContent = page.getHtmlContentPrefix(HtmlOutputDictionary.SAMPLE_LENGTH);
+
+            if (htmlContent != null)
+            {
+                samples.add(htmlContent);
+            }
+        }
+
+        return samples;
     }
 
     /** {@inheritDoc} */
@@ -145,6 +287,75 @@ public final class FitnesseResultsPublisher extends Recorder implements SimpleBu
         return this.compressHtmlOutput;
     }
 
+    /**
+     * @return {@code true} if the captured HTML output should be retrieved from the FitNesse page history
+     *         when first viewed, instead of being stored with the build, {@code false} otherwise
+     */
+    public boolean getLazyHtmlOutput()
+    {
+        return this.lazyHtmlOutput;
+    }
+
+    /**
+     * @return {@code true} if the captured HTML output of all the pages should be stored in a single pack file,
+     *         {@code false} to store it in one file per page
+     */
+    public boolean getPackHtmlOutput()
+    {
+        return this.packHtmlOutput;
+    }
+
+    /**
+     * @return {@code true} if the captured HTML output should be stored once for all the builds of the job,
+     *         {@code false} to store it with each build
+     */
+    public boolean getDeduplicateHtmlOutput()
+    {
+        return this.deduplicateHtmlOutput;
+    }
+
+    /**
+     * @return {@code true} if the captured HTML output should be compressed with a dictionary trained
+     *         from the output of the job, {@code false} to compress it with GZIP
+     */
+    public boolean getDictionaryCompression()
+    {
+        return this.dictionaryCompression;
+    }
+
+    /**
+     * @return {@code true} if the blocks of the captured HTML output should be compressed concurrently,
+     *         {@code false} otherwise
+     */
+    public boolean getParallelCompression()
+    {
+        return this.parallelCompression;
+    }
+
+    /**
+     * @return URL of the remote FitNesse host, from which the page history is retrieved
+     */
+    public URL getRemoteFitnesseUrl()
+    {
+        return this.remoteFitnesseUrl;
+    }
+
+    /**
+     * @return number of results files parsed concurrently, 0 meaning one per core of the node
+     */
+    public int getParsingWorkers()
+    {
+        return this.parsingWorkers;
+    }
+
+    /**
+     * @return number of parsed page results waiting for their aggregation before the parsing waits
+     */
+    public int getPipelineCapacity()
+    {
+        return this.pipelineCapacity;
+    }
+
     /**
      * @param xmlResultsPath
      */
@@ -171,4 +382,76 @@ public final class FitnesseResultsPublisher extends Recorder implements SimpleBu
     {
         this.compressHtmlOutput = compressHtmlOutput;
     }
+
+    /**
+     * @param lazyHtmlOutput
+     */
+    @DataBoundSetter
+    public void setLazyHtmlOutput(final boolean lazyHtmlOutput)
+    {
+        this.lazyHtmlOutput = lazyHtmlOutput;
+    }
+
+    /**
+     * @param packHtmlOutput
+     */
+    @DataBoundSetter
+    public void setPackHtmlOutput(final boolean packHtmlOutput)
+    {
+        this.packHtmlOutput = packHtmlOutput;
+    }
+
+    /**
+     * @param deduplicateHtmlOutput
+     */
+    @DataBoundSetter
+    public void setDeduplicateHtmlOutput(final boolean deduplicateHtmlOutput)
+    {
+        this.deduplicateHtmlOutput = deduplicateHtmlOutput;
+    }
+
+    /**
+     * @param dictionaryCompression
+     */
+    @DataBoundSetter
+    public void setDictionaryCompression(final boolean dictionaryCompression)
+    {
+        this.dictionaryCompression = dictionaryCompression;
+    }
+
+    /**
+     * @param parallelCompression
+     */
+    @DataBoundSetter
+    public void setParallelCompression(final boolean parallelCompression)
+    {
+        this.parallelCompression = parallelCompression;
+    }
+
+    /**
+     * @param remoteFitnesseUrl
+     */
+    @DataBoundSetter
+    public void setRemoteFitnesseUrl(final URL remoteFitnesseUrl)
+    {
+        this.remoteFitnesseUrl = remoteFitnesseUrl;
+    }
+
+    /**
+     * @param parsingWorkers
+     */
+    @DataBoundSetter
+    public void setParsingWorkers(final int parsingWorkers)
+    {
+        this.parsingWorkers = parsingWorkers;
+    }
+
+    /**
+     * @param pipelineCapacity
+     */
+    @DataBoundSetter
+    public void setPipelineCapacity(final int pipelineCapacity)
+    {
+        this.pipelineCapacity = pipelineCapacity;
+    }
 }
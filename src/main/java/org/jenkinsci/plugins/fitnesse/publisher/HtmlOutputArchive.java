@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+
+/**
+ * Transfers the HTML content files of the pages to the output directory as a single tar stream,
+ * extracted once all the pages are parsed
+ * 
+ * <p>
+ * Over a remoting channel, this replaces the creation of each file of a page, with its own round trips,
+ * by one pipelined stream.
+ * 
+ */
+public class HtmlOutputArchive implements HtmlOutputStore
+{
+
+    private static final String ARCHIVE_FILE = ".html-output.tar";
+
+    private final FilePath htmlOutputDirectory;
+
+    private final FilePath archiveFile;
+
+    private TarArchiveOutputStream archive;
+
+    private boolean created;
+
+    /**
+     * Constructor
+     * 
+     * @param htmlOutputDirectory the directory where the tests' HTML content will be written
+     * @param channel channel to the node of the output directory
+     */
+    public HtmlOutputArchive(final FilePath htmlOutputDirectory, final VirtualChannel channel)
+    {
+        this(htmlOutputDirectory, htmlOutputDirectory, channel);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param htmlOutputDirectory the directory where the tests' HTML content will be written
+     * @param archiveDirectory the directory where the archive is written, e.g. when the output directory is shared
+     * @param channel channel to the node of the output directory
+     */
+    public HtmlOutputArchive(final FilePath htmlOutputDirectory, final FilePath archiveDirectory, final VirtualChannel channel)
+    {
+        this.htmlOutputDirectory = new FilePath(channel, htmlOutputDirectory.getRemote());
+        this.archiveFile = new FilePath(channel, archiveDirectory.child(HtmlOutputArchive.ARCHIVE_FILE).getRemote());
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @return path of the file in the output directory, once extracted
+     */
+    @Override
+    public synchronized String add(final String fileName, final Path content) throws IOException
+    {
+        if (this.archive == null)
+        {
+            this.archive = this.open();
+            this.created = true;
+        }
+
+        final TarArchiveEntry entry = new TarArchiveEntry(fileName);
+        entry.setSize(Files.size(content));
+
+        this.archive.putArchiveEntry(entry);
+        Files.copy(content, this.archive);
+        this.archive.closeArchiveEntry();
+
+        return this.htmlOutputDirectory.child(fileName).getRemote();
+    }
+
+    /**
+     * Extracts the added files into the output directory, replacing the existing ones
+     */
+    @Override
+    public synchronized void commit() throws IOException, InterruptedException
+    {
+        if (this.archive == null)
+        {
+            return;
+        }
+
+        this.archive.close();
+        this.archive = null;
+
+        this.archiveFile.untar(this.htmlOutputDirectory, FilePath.TarCompression.NONE);
+    }
+
+    /**
+     * Deletes the archive, whether its files were extracted or not
+     */
+    @Override
+    public synchronized void close() throws IOException
+    {
+        try
+        {
+            if (this.archive != null)
+            {
+                this.archive.close();
+                this.archive = null;
+            }
+
+            if (this.created)
+            {
+                this.archiveFile.delete();
+            }
+        } catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while deleting the HTML output archive");
+        }
+    }
+
+    private TarArchiveOutputStream open() throws IOException
+    {
+        try
+        {
+            final TarArchiveOutputStream stream = new TarArchiveOutputStream(new BufferedOutputStream(this.archiveFile.write()));
+
+            // the names of the FitNesse pages often exceed the 100 characters of the tar format
+            stream.setLongFileMode(TarArchiveOutputStream.LONGFILE_GNU);
+
+            return stream;
+        } catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while creating the HTML output archive");
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher;
+
+import java.io.BufferedWriter;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.jenkinsci.plugins.fitnesse.publisher.parser.PageContentSink;
+import org.jenkinsci.plugins.fitnesse.util.Digests;
+
+/**
+ * Writes the HTML content of each page to its own (possibly compressed) file as it is parsed
+ * 
+ * <p>
+ * The content is written to a local temporary file, added to the output store under the name of its page
+ * once the page is parsed.
+ * 
+ * <p>
+ * When the content is addressed by its hash, the file is named after the SHA-256 hash of the content,
+ * its line terminators normalized to {@code \n}, instead of its page.
+ * 
+ * <p>
+ * When a compression dictionary is set, the content is compressed as a Deflate (zlib) stream with this preset
+ * dictionary, rather than as a GZIP stream. Otherwise, when a compression pool is set, the GZIP stream is
+ * compressed by blocks on the pool.
+ * 
+ */
+public class HtmlOutputFileSink implements PageContentSink
+{
+
+    private final HtmlOutputStore store;
+
+    private final boolean compressOutput;
+
+    private final boolean contentAddressed;
+
+    private byte[] compressionDictionary;
+
+    private ExecutorService compressionExecutor;
+
+    private int compressionParallelism;
+
+    private Path contentFile;
+
+    private MessageDigest contentDigest;
+
+    /**
+     * Constructor
+     * 
+     * @param store store of the HTML content files
+     * @param compressOutput whether to compress the captured tests' HTML content
+     */
+    public HtmlOutputFileSink(final HtmlOutputStore store, final boolean compressOutput)
+    {
+        this(store, compressOutput, false);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param store store of the HTML content files
+     * @param compressOutput whether to compress the captured tests' HTML content
+     * @param contentAddressed whether to name the files after the hash of their content
+     */
+    public HtmlOutputFileSink(final HtmlOutputStore store, final boolean compressOutput, final boolean contentAddressed)
+    {
+        this.store = store;
+        this.compressOutput = compressOutput;
+        this.contentAddressed = contentAddressed;
+    }
+
+    /**
+     * @param compressionDictionary preset dictionary to compress the captured tests' HTML content with,
+     *            or {@code null} to compress it with GZIP
+     */
+    public void setCompressionDictionary(final byte[] compressionDictionary)
+    {
+        this.compressionDictionary = compressionDictionary;
+    }
+
+    /**
+     * @param compressionExecutor worker pool compressing the blocks of the captured tests' HTML content,
+     *            or {@code null} to compress it on the parsing thread
+     * @param compressionParallelism number of workers of the pool
+     */
+    public void setParallelCompression(final ExecutorService compressionExecutor, final int compressionParallelism)
+    {
+        this.compressionExecutor = compressionExecutor;
+        this.compressionParallelism = compressionParallelism;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Writer begin() throws IOException
+    {
+        this.contentFile = Files.createTempFile("fitnesse-content", ".tmp");
+
+        // handle optional output compression
+        final OutputStream os = this.compressOutput ? this.compress(Files.newOutputStream(this.contentFile)) : Files.newOutputStream(this.contentFile);
+
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+
+        if (!this.contentAddressed)
+        {
+            return writer;
+        }
+
+        this.contentDigest = Digests.newSha256();
+
+        return new DigestWriter(writer, this.contentDigest);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String complete(final String page) throws IOException
+    {
+        final String contentExtension = this.compressOutput ? this.getCompressedExtension() : "html";
+        final String contentName = this.contentAddressed ? Digests.toHex(this.contentDigest.digest()) : page;
+
+        try
+        {
+            return this.store.add(String.join(".", contentName, contentExtension), this.contentFile);
+        } finally
+        {
+            Files.delete(this.contentFile);
+        }
+    }
+
+    private OutputStream compress(final OutputStream os) throws IOException
+    {
+        if ((this.compressionDictionary == null) && (this.compressionExecutor != null))
+        {
+            return new ParallelGzipOutputStream(os, this.compressionExecutor, this.compressionParallelism);
+        }
+
+        if (this.compressionDictionary == null)
+        {
+            return new GZIPOutputStream(os);
+        }
+
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        deflater.setDictionary(this.compressionDictionary);
+
+        return new DeflaterOutputStream(os, deflater)
+        {
+            @Override
+            public void close() throws IOException
+            {
+                try
+                {
+                    super.close();
+                } finally
+                {
+                    // the deflater was not created by the parent stream, which does not release it
+                    deflater.end();
+                }
+            }
+        };
+    }
+
+    private String getCompressedExtension()
+    {
+        return (this.compressionDictionary == null) ? "html.zip" : "html.dz";
+    }
+
+    /**
+     * Hashes the content written through it, its {@code \r\n} and {@code \r} line terminators hashed as {@code \n}
+     */
+    private static final class DigestWriter extends FilterWriter
+    {
+
+        private final MessageDigest digest;
+
+        private boolean carriageReturn;
+
+        DigestWriter(final Writer out, final MessageDigest digest)
+        {
+            super(out);
+            this.digest = digest;
+        }
+
+        @Override
+        public void write(final int c) throws IOException
+        {
+            this.out.write(c);
+            this.update((char) c);
+        }
+
+        @Override
+        public void write(final char[] cbuf, final int off, final int len) throws IOException
+        {
+            this.out.write(cbuf, off, len);
+
+            for (int i = off; i < (off + len); i++)
+            {
+                this.update(cbuf[i]);
+            }
+        }
+
+        @Override
+        public void write(final String str, final int off, final int len) throws IOException
+        {
+            this.out.write(str, off, len);
+
+            for (int i = off; i < (off + len); i++)
+            {
+                this.update(str.charAt(i));
+            }
+        }
+
+        private void update(final char c)
+        {
+            // the line feed of a \r\n terminator was hashed with its carriage return
+            final boolean lineFeedOfCarriageReturn = this.carriageReturn && (c == '\n');
+            this.carriageReturn = c == '\r';
+
+            if (!lineFeedOfCarriageReturn)
+            {
+                final char normalized = this.carriageReturn ? '\n' : c;
+
+                // both bytes of the UTF-16 code unit, which identifies the content as well as its UTF-8 encoding
+                this.digest.update((byte) (normalized >> 8));
+                this.digest.update((byte) normalized);
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+
+/**
+ * Stores the HTML content files of the pages in a single append-only pack file, rather than in one file per page
+ * 
+ * <p>
+ * The reference to each content file holds its offset and length in the pack, the content being read back
+ * through a memory-mapped region of the pack.
+ * 
+ */
+public class HtmlOutputPack implements HtmlOutputStore
+{
+
+    private static final String PACK_FILE = "fitnesse-html-output";
+
+    private static final String PACK_EXTENSION = ".pack";
+
+    /** Marks the references to the content files of a pack, e.g. {@code pack:path#offset:length:fileName} */
+    private static final String REFERENCE_PREFIX = "pack:";
+
+    /** Separates the path of the pack from the location of the content */
+    private static final char REFERENCE_SEPARATOR = '#';
+
+    private final FilePath htmlOutputDirectory;
+
+    private final VirtualChannel channel;
+
+    private FilePath packFile;
+
+    private OutputStream pack;
+
+    private long position;
+
+    private boolean committed;
+
+    /**
+     * Constructor
+     * 
+     * @param htmlOutputDirectory the directory where the tests' HTML content will be written
+     * @param channel channel to the node of the output directory
+     */
+    public HtmlOutputPack(final FilePath htmlOutputDirectory, final VirtualChannel channel)
+    {
+        this.htmlOutputDirectory = htmlOutputDirectory;
+        this.channel = channel;
+    }
+
+    /**
+     * @param htmlContent reference to an HTML content file
+     * @return {@code true} if the content is stored in a pack, {@code false} if it is stored in its own file
+     */
+    public static boolean isPacked(final String htmlContent)
+    {
+        return htmlContent.startsWith(HtmlOutputPack.REFERENCE_PREFIX);
+    }
+
+    /**
+     * @param reference reference to a content file of a pack
+     * @return name of the content file
+     */
+    public static String getFileName(final String reference)
+    {
+        return HtmlOutputPack.getLocation(reference)[2];
+    }
+
+    /**
+     * @param reference reference to a content file of a pack
+     * @return length of the content file
+     */
+    public static long getLength(final String reference)
+    {
+        return Long.parseLong(HtmlOutputPack.getLocation(reference)[1]);
+    }
+
+    /**
+     * Reads a content file of a pack
+     * 
+     * @param reference reference to the content file
+     * @return the content, read from a memory-mapped region of the pack
+     * @throws IOException if the pack could not be read
+     */
+    public static InputStream open(final String reference) throws IOException
+    {
+        final Path pack = Paths.get(reference.substring(HtmlOutputPack.REFERENCE_PREFIX.length(), reference.lastIndexOf(HtmlOutputPack.REFERENCE_SEPARATOR)));
+        final String[] location = HtmlOutputPack.getLocation(reference);
+
+        try (FileChannel channel = FileChannel.open(pack, StandardOpenOption.READ))
+        {
+            // the mapping remains valid once the channel is closed
+            return new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, Long.parseLong(location[0]), HtmlOutputPack.getLength(reference)));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @return reference to the content file in the pack
+     */
+    @Override
+    public synchronized String add(final String fileName, final Path content) throws IOException
+    {
+        if (this.pack == null)
+        {
+            this.pack = this.open();
+        }
+
+        final long offset = this.position;
+        this.position += Files.copy(content, this.pack);
+
+        return String.format("%s%s%c%d:%d:%s", HtmlOutputPack.REFERENCE_PREFIX, this.packFile.getRemote(), HtmlOutputPack.REFERENCE_SEPARATOR, offset, this.position - offset, fileName);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void commit() throws IOException
+    {
+        if (this.pack != null)
+        {
+            this.pack.close();
+            this.pack = null;
+        }
+
+        this.committed = true;
+    }
+
+    /**
+     * Deletes the pack if it was not committed
+     */
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if (this.pack == null)
+        {
+            return;
+        }
+
+        try
+        {
+            this.pack.close();
+            this.pack = null;
+
+            if (!this.committed)
+            {
+                this.packFile.delete();
+            }
+        } catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while deleting the HTML output pack");
+        }
+    }
+
+    private OutputStream open() throws IOException
+    {
+        try
+        {
+            // the packs are append-only, the results published by a previous step of the build referencing their own
+            this.packFile = this.resolve(HtmlOutputPack.PACK_FILE + HtmlOutputPack.PACK_EXTENSION);
+
+            for (int i = 2; this.packFile.exists(); i++)
+            {
+                this.packFile = this.resolve(String.format("%s-%d%s", HtmlOutputPack.PACK_FILE, i, HtmlOutputPack.PACK_EXTENSION));
+            }
+
+            return new BufferedOutputStream(this.packFile.write());
+        } catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while creating the HTML output pack");
+        }
+    }
+
+    private FilePath resolve(final String fileName)
+    {
+        return new FilePath(this.channel, this.htmlOutputDirectory.child(fileName).getRemote());
+    }
+
+    /**
+     * @return offset, length and file name of a content file of a pack
+     */
+    private static String[] getLocation(final String reference)
+    {
+        return reference.substring(reference.lastIndexOf(HtmlOutputPack.REFERENCE_SEPARATOR) + 1).split(":", 3);
+    }
+
+    /**
+     * Reads a memory-mapped region
+     */
+    private static final class ByteBufferInputStream extends InputStream
+    {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer)
+        {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read()
+        {
+            return this.buffer.hasRemaining() ? (this.buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len)
+        {
+            if (!this.buffer.hasRemaining())
+            {
+                return -1;
+            }
+
+            final int count = Math.min(len, this.buffer.remaining());
+            this.buffer.get(b, off, count);
+
+            return count;
+        }
+
+        @Override
+        public int available()
+        {
+            return this.buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Stores the HTML content files of the pages in the output directory
+ * 
+ */
+public interface HtmlOutputStore extends Closeable
+{
+
+    /**
+     * Adds a file to the store
+     * 
+     * @param fileName name of the file in the output directory
+     * @param content local file holding the content of the file
+     * @return reference to the stored content, once committed
+     * @throws IOException if the file could not be added
+     */
+    String add(String fileName, Path content) throws IOException;
+
+    /**
+     * Makes the added files available in the output directory
+     * 
+     * @throws IOException if the files could not be stored
+     * @throws InterruptedException if interrupted while storing the files
+     */
+    void commit() throws IOException, InterruptedException;
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a GZIP stream whose blocks are compressed concurrently, in the manner of pigz
+ * 
+ * <p>
+ * The content is split into blocks, each one compressed as raw Deflate data on a worker pool, primed with the end
+ * of the previous block as a dictionary, and flushed to a byte boundary so that the compressed blocks make up a
+ * single Deflate stream once concatenated in order. The result is a regular GZIP stream, read by
+ * {@link java.util.zip.GZIPInputStream}.
+ * 
+ */
+public class ParallelGzipOutputStream extends OutputStream
+{
+
+    /** Size of the blocks of content compressed concurrently */
+    public static final int BLOCK_SIZE = 128 * 1024;
+
+    /** Size of the Deflate window, i.e. the maximum size of a dictionary */
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 };
+
+    private final OutputStream out;
+
+    private final ExecutorService executor;
+
+    private final int maxPendingBlocks;
+
+    private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+
+    private final CRC32 crc = new CRC32();
+
+    private byte[] block = new byte[ParallelGzipOutputStream.BLOCK_SIZE];
+
+    private int blockLength;
+
+    private byte[] dictionary;
+
+    private long size;
+
+    private boolean closed;
+
+    /**
+     * Constructor
+     * 
+     * @param out underlying stream, closed with this stream
+     * @param executor worker pool compressing the blocks
+     * @param parallelism number of workers of the pool, twice as many blocks being compressed or waiting to be written
+     * @throws IOException if the GZIP header could not be written
+     */
+    public ParallelGzipOutputStream(final OutputStream out, final ExecutorService executor, final int parallelism) throws IOException
+    {
+        this.out = out;
+        this.executor = executor;
+        this.maxPendingBlocks = Math.max(1, 2 * parallelism);
+
+        this.out.write(ParallelGzipOutputStream.HEADER);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void write(final int b) throws IOException
+    {
+        this.write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException
+    {
+        int offset = off;
+        int remaining = len;
+
+        while (remaining > 0)
+        {
+            final int length = Math.min(remaining, this.block.length - this.blockLength);
+            System.arraycopy(b, offset, this.block, this.blockLength, length);
+
+            this.blockLength += length;
+            offset += length;
+            remaining -= length;
+
+            if (this.blockLength == this.block.length)
+            {
+                this.submitBlock(false);
+            }
+        }
+    }
+
+    /**
+     * Compresses the last block, and writes the remaining blocks and the GZIP trailer
+     * 
+     * @throws IOException if the stream could not be written
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (this.closed)
+        {
+            return;
+        }
+
+        this.closed = true;
+
+        try
+        {
+            this.submitBlock(true);
+
+            while (!this.pendingBlocks.isEmpty())
+            {
+                this.writeBlock(this.pendingBlocks.removeFirst());
+            }
+
+            this.writeInt((int) this.crc.getValue());
+            this.writeInt((int) this.size);
+        } finally
+        {
+            this.pendingBlocks.forEach(pendingBlock -> pendingBlock.cancel(true));
+            this.out.close();
+        }
+    }
+
+    private void submitBlock(final boolean last) throws IOException
+    {
+        final byte[] input = this.block;
+        final int length = this.blockLength;
+        final byte[] previousDictionary = this.dictionary;
+
+        this.crc.update(input, 0, length);
+        this.size += length;
+        this.dictionary = Arrays.copyOfRange(input, Math.max(0, length - ParallelGzipOutputStream.DICTIONARY_SIZE), length);
+        this.block = new byte[ParallelGzipOutputStream.BLOCK_SIZE];
+        this.blockLength = 0;
+
+        // a content which fits in a single block is not worth a hand-off to the pool
+        if (last && this.pendingBlocks.isEmpty() && (previousDictionary == null))
+        {
+            this.out.write(ParallelGzipOutputStream.deflate(input, length, null, true));
+            return;
+        }
+
+        this.pendingBlocks.addLast(this.executor.submit(() -> ParallelGzipOutputStream.deflate(input, length, previousDictionary, last)));
+
+        // bound the memory held by the blocks waiting to be written
+        while (this.pendingBlocks.size() > this.maxPendingBlocks)
+        {
+            this.writeBlock(this.pendingBlocks.removeFirst());
+        }
+    }
+
+    private void writeBlock(final Future<byte[]> pendingBlock) throws IOException
+    {
+        try
+        {
+            this.out.write(pendingBlock.get());
+        } catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing the HTML output");
+        } catch (final ExecutionException e)
+        {
+            throw new IOException("Could not compress the HTML output", e.getCause());
+        }
+    }
+
+    private void writeInt(final int value) throws IOException
+    {
+        // little-endian, as the whole GZIP format
+        this.out.write(value & 0xff);
+        this.out.write((value >> 8) & 0xff);
+        this.out.write((value >> 16) & 0xff);
+        this.out.write((value >> 24) & 0xff);
+    }
+
+    private static byte[] deflate(final byte[] input, final int length, final byte[] dictionary, final boolean last)
+    {
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+
+        try
+        {
+            if (dictionary != null)
+            {
+                deflater.setDictionary(dictionary);
+            }
+
+            deflater.setInput(input, 0, length);
+
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 4);
+            final byte[] buffer = new byte[16 * 1024];
+
+            if (last)
+            {
+                // the final block ends the Deflate stream
+                deflater.finish();
+
+                while (!deflater.finished())
+                {
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else
+            {
+                // the other blocks end on a byte boundary, for the next one to be appended
+                int compressedLength;
+
+                do
+                {
+                    compressedLength = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    compressed.write(buffer, 0, compressedLength);
+                } while (compressedLength == buffer.length);
+            }
+
+            return compressed.toByteArray();
+        } finally
+        {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.jenkinsci.plugins.fitnesse.publisher.model.AggregatedFitnesseResult;
+import org.jenkinsci.plugins.fitnesse.publisher.model.FitnessePageResult;
+import org.jenkinsci.plugins.fitnesse.publisher.model.FitnesseResult;
+import org.jenkinsci.plugins.fitnesse.publisher.parser.exceptions.TestParsingException;
+
+/**
+ * Parses report files on several workers, which hand each parsed page result to the aggregating thread
+ * through a bounded queue
+ * 
+ * <p>
+ * The workers wait for the aggregation when the queue is full, so that the page results in flight are capped
+ * by the queue capacity rather than by the number of reports. The page results are aggregated in the order
+ * of the reports, whatever order they are parsed in.
+ * 
+ * @param <T> type of the reports
+ */
+public class ReportParsingPipeline<T>
+{
+
+    /** Default number of page results waiting for their aggregation */
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private static final Comparator<Item> BY_REPORT_ORDER = Comparator
+            .comparingInt((final Item item) -> item.report)
+            .thenComparingInt(item -> item.page);
+
+    private final int workers;
+
+    private final int capacity;
+
+    /**
+     * Constructor
+     * 
+     * @param workers number of reports parsed concurrently
+     * @param capacity number of page results waiting for their aggregation before the workers wait
+     */
+    public ReportParsingPipeline(final int workers, final int capacity)
+    {
+        this.workers = workers;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Parses the reports and aggregates their results
+     * 
+     * @param reports reports to parse
+     * @param parser parses a report
+     * @return the aggregated results of all the reports
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public AggregatedFitnesseResult process(final List<T> reports, final ReportParser<T> parser) throws InterruptedException
+    {
+        final BlockingQueue<Item> queue = new ArrayBlockingQueue<>(this.capacity);
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(this.workers, reports.size())));
+
+        try
+        {
+            for (int i = 0; i < reports.size(); i++)
+            {
+                final int report = i;
+                executor.execute(() -> ReportParsingPipeline.parse(reports.get(report), report, parser, queue));
+            }
+
+            return ReportParsingPipeline.aggregate(reports.size(), queue);
+        } finally
+        {
+            // interrupts the workers waiting for a failed aggregation, and waits for them to stop
+            // before the caller releases what they write to
+            executor.shutdownNow();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static <T> void parse(final T report, final int reportIndex, final ReportParser<T> parser, final BlockingQueue<Item> queue)
+    {
+        final int[] pageIndex = { 0 };
+        Item completion;
+
+        try
+        {
+            final FitnesseResult summary = parser.parse(report, result -> ReportParsingPipeline.put(queue, new Item(reportIndex, pageIndex[0]++, result, null)));
+            completion = new Item(reportIndex, -1, summary, null);
+        } catch (final Throwable e)
+        {
+            // errors too, or the aggregation would wait for this report forever
+            completion = new Item(reportIndex, -1, null, e);
+        }
+
+        try
+        {
+            queue.put(completion);
+        } catch (final InterruptedException e)
+        {
+            // the aggregation failed, nothing waits for this report anymore
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void put(final BlockingQueue<Item> queue, final Item item)
+    {
+        try
+        {
+            queue.put(item);
+        } catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new TestParsingException("Interrupted while waiting for the aggregation of the results", e);
+        }
+    }
+
+    private static AggregatedFitnesseResult aggregate(final int reports, final BlockingQueue<Item> queue) throws InterruptedException
+    {
+        final List<Item> pages = new ArrayList<>();
+        long totalDuration = 0L;
+        int remainingReports = reports;
+
+        while (remainingReports > 0)
+        {
+            final Item item = queue.take();
+
+            if (item.error instanceof RuntimeException)
+            {
+                throw (RuntimeException) item.error;
+            } else if (item.error instanceof Error)
+            {
+                throw (Error) item.error;
+            } else if (item.error != null)
+            {
+                throw new TestParsingException("Could not parse results file", item.error);
+            }
+
+            if (item.page < 0)
+            {
+                // the report is completely parsed
+                totalDuration += item.result.getDuration();
+                remainingReports--;
+            } else
+            {
+                pages.add(item);
+            }
+        }
+
+        pages.sort(ReportParsingPipeline.BY_REPORT_ORDER);
+
+        final AggregatedFitnesseResult allResults = new AggregatedFitnesseResult();
+
+        pages.stream()
+        .map(item -> new FitnessePageResult(item.result))
+        .forEach(allResults::addChild);
+
+        allResults.tally();
+        allResults.setDuration(totalDuration);
+
+        return allResults;
+    }
+
+    /**
+     * Parses a report
+     * 
+     * @param <T> type of the reports
+     */
+    @FunctionalInterface
+    public interface ReportParser<T>
+    {
+
+        /**
+         * Parses a report
+         * 
+         * @param report report to parse
+         * @param pageListener called with the result of each page of the report, in order
+         * @return the summary of the report
+         */
+        FitnesseResult parse(T report, Consumer<FitnesseResult> pageListener);
+    }
+
+    /**
+     * Page result, or completion of a report, on its way to the aggregation
+     */
+    private static final class Item
+    {
+
+        private final int report;
+
+        private final int page;
+
+        private final FitnesseResult result;
+
+        private final Throwable error;
+
+        Item(final int report, final int page, final FitnesseResult result, final Throwable error)
+        {
+            this.report = report;
+            this.page = page;
+            this.result = result;
+            this.error = error;
+        }
+    }
+}
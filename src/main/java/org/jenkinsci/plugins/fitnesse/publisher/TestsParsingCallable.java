@@ -18,28 +18,26 @@ package org.jenkinsci.plugins.fitnesse.publisher;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPOutputStream;
 
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.sax.SAXResult;
-import javax.xml.transform.stream.StreamSource;
+import javax.xml.stream.XMLStreamException;
 
+import org.jenkinsci.plugins.fitnesse.publisher.history.PageHistoryClient;
 import org.jenkinsci.plugins.fitnesse.publisher.model.AggregatedFitnesseResult;
-import org.jenkinsci.plugins.fitnesse.publisher.model.FitnessePageResult;
 import org.jenkinsci.plugins.fitnesse.publisher.model.FitnesseResult;
-import org.jenkinsci.plugins.fitnesse.publisher.parser.FitnesseResultHandler;
-import org.jenkinsci.plugins.fitnesse.publisher.parser.FitnesseResultTransformerFactory;
+import org.jenkinsci.plugins.fitnesse.publisher.parser.FitnesseResultParser;
+import org.jenkinsci.plugins.fitnesse.publisher.parser.PageContentSink;
 import org.jenkinsci.plugins.fitnesse.publisher.parser.exceptions.TestParsingException;
-import org.jenkinsci.plugins.fitnesse.util.CheckedConsumer;
 import org.jenkinsci.plugins.fitnesse.util.CheckedPredicate;
 
 import hudson.AbortException;
@@ -78,8 +76,24 @@ public class TestsParsingCallable extends MasterToSlaveFileCallable<AggregatedFi
 
     private final boolean compressOutput;
 
+    private final String remoteFitnesseUrl;
+
     private final TaskListener listener;
 
+    private int parsingWorkers;
+
+    private int pipelineCapacity;
+
+    private boolean packOutput;
+
+    private FilePath storeDirectory;
+
+    private HashSet<String> storedFiles;
+
+    private byte[] compressionDictionary;
+
+    private boolean parallelCompression;
+
     /**
      * Initializes a new callable responsible for parsing
      * and publishing the tests with the supplied configuration values
@@ -92,15 +106,86 @@ public class TestsParsingCallable extends MasterToSlaveFileCallable<AggregatedFi
      * @param listener Jenkins build listener, for logging
      */
     public TestsParsingCallable(final String testResultsGlob, final long buildTime, final long timeOnMaster, final FilePath htmlOutputDirectory, final boolean compressOutput, final TaskListener listener)
+    {
+        this(testResultsGlob, buildTime, timeOnMaster, htmlOutputDirectory, compressOutput, null, listener);
+    }
+
+    /**
+     * Initializes a new callable responsible for parsing
+     * and publishing the tests with the supplied configuration values
+     * 
+     * @param testResultsGlob glob pattern that matches the test results files to parse
+     * @param buildTime the time at which the build was started
+     * @param timeOnMaster the current time on the Jenkins master instance
+     * @param htmlOutputDirectory the directory where the tests' HTML content will be written
+     * @param compressOutput whether to compress the captured tests' HTML content
+     * @param remoteFitnesseUrl URL of the remote FitNesse host from which the tests' HTML content
+     *            will be retrieved on demand, or {@code null} to store it with the build
+     * @param listener Jenkins build listener, for logging
+     */
+    public TestsParsingCallable(final String testResultsGlob, final long buildTime, final long timeOnMaster, final FilePath htmlOutputDirectory, final boolean compressOutput, final String remoteFitnesseUrl, final TaskListener listener)
     {
         this.buildTime = buildTime;
         this.testResultsGlob = testResultsGlob;
         this.timeOnMaster = timeOnMaster;
         this.htmlOutputDirectory = htmlOutputDirectory;
         this.compressOutput = compressOutput;
+        this.remoteFitnesseUrl = remoteFitnesseUrl;
         this.listener = listener;
     }
 
+    /**
+     * Sets how the report files are parsed
+     * 
+     * @param parsingWorkers number of report files parsed concurrently, or 0 for one per core of the node
+     * @param pipelineCapacity number of parsed page results waiting for their aggregation before the parsing waits,
+     *            or 0 for the default capacity
+     */
+    public void setPipeline(final int parsingWorkers, final int pipelineCapacity)
+    {
+        this.parsingWorkers = parsingWorkers;
+        this.pipelineCapacity = pipelineCapacity;
+    }
+
+    /**
+     * @param packOutput whether to write the captured HTML output of all the pages into a single pack file
+     */
+    public void setPackOutput(final boolean packOutput)
+    {
+        this.packOutput = packOutput;
+    }
+
+    /**
+     * Writes the captured HTML output to a content-addressed store instead of the output directory,
+     * skipping the content already stored
+     * 
+     * @param storeDirectory directory of the content-addressed store
+     * @param storedFiles names of the files already in the store directory
+     */
+    public void setContentStore(final FilePath storeDirectory, final Set<String> storedFiles)
+    {
+        this.storeDirectory = storeDirectory;
+        this.storedFiles = new HashSet<>(storedFiles);
+    }
+
+    /**
+     * @param compressionDictionary preset dictionary to compress the captured HTML output with,
+     *            or {@code null} to compress it with GZIP
+     */
+    public void setCompressionDictionary(final byte[] compressionDictionary)
+    {
+        this.compressionDictionary = compressionDictionary;
+    }
+
+    /**
+     * @param parallelCompression whether to compress the blocks of the captured HTML output on all the cores of the node,
+     *            for very large outputs
+     */
+    public void setParallelCompression(final boolean parallelCompression)
+    {
+        this.parallelCompression = parallelCompression;
+    }
+
     /** {@inheritDoc} */
     @Override
     public AggregatedFitnesseResult invoke(final File workspace, final VirtualChannel channel) throws IOException, InterruptedException
@@ -117,89 +202,105 @@ public class TestsParsingCallable extends MasterToSlaveFileCallable<AggregatedFi
             throw new AbortException("No FitNesse report files found");
         }
 
-        // filter out the files generated before the current build, and parse the remaining ones
-
-        final Transformer transformer = FitnesseResultTransformerFactory.newInstance();
+        // filter out the files generated before the current build
 
-        final List<FitnesseResultHandler> results = Arrays.stream(paths)
+        final List<FilePath> reports = Arrays.stream(paths)
                 .filter((CheckedPredicate<FilePath>) input -> input.lastModified() >= localBuildTime)
-                .map(path -> this.parseReportFile(path, transformer))
                 .collect(Collectors.toList());
 
-        if (results.isEmpty())
+        if (reports.isEmpty())
         {
             throw new AbortException("FitNesse report files were found but none of them are new. Did tests run?");
         }
 
-        // replace all captured test output with the path of the file it has been written to
+        // parse the remaining ones in parallel, and aggregate all parsed results into a single one
+        // as they are parsed, the results being kept in the order of the files
 
-        results.stream()
-        .flatMap(r -> r.getDetails().stream())
-        .forEach((CheckedConsumer<FitnesseResult>) r -> this.externalizeOutput(r, channel));
+        final int workers = (this.parsingWorkers > 0) ? this.parsingWorkers : Runtime.getRuntime().availableProcessors();
+        final int capacity = (this.pipelineCapacity > 0) ? this.pipelineCapacity : ReportParsingPipeline.DEFAULT_CAPACITY;
 
-        // aggregate all parsed results into a single one
+        // the parsing workers share the pool compressing the blocks of the captured test output, if any
 
-        return this.aggregateResults(results);
-    }
+        final int compressionParallelism = Runtime.getRuntime().availableProcessors();
+        final ExecutorService compressionExecutor = this.parallelCompression ? Executors.newFixedThreadPool(compressionParallelism) : null;
 
-    private FitnesseResultHandler parseReportFile(final FilePath reportPath, final Transformer transformer)
-    {
-        final FitnesseResultHandler handler = new FitnesseResultHandler();
+        try (HtmlOutputStore store = this.createStore(channel))
+        {
+            final AggregatedFitnesseResult results = new ReportParsingPipeline<FilePath>(workers, capacity)
+                    .process(reports, (report, pageListener) -> this.parseReportFile(report,
+                            this.createContentSink(store, compressionExecutor, compressionParallelism), pageListener));
 
-        this.listener.getLogger().format("Parsing FitNesse report file \"%s\"%n", reportPath.getName());
+            store.commit();
 
-        try (InputStream reportInputStream = Files.newInputStream(Paths.get(reportPath.getRemote())))
+            return results;
+        } finally
         {
-            transformer.transform(new StreamSource(reportInputStream), new SAXResult(handler));
-        } catch (TransformerException | IOException e)
-        {
-            throw new TestParsingException("Could not parse results file", e);
+            if (compressionExecutor != null)
+            {
+                compressionExecutor.shutdownNow();
+            }
         }
-
-        return handler;
     }
 
-    private void externalizeOutput(final FitnesseResult result, final VirtualChannel channel) throws IOException, InterruptedException
+    private HtmlOutputStore createStore(final VirtualChannel channel)
     {
-        if (result.getHtmlContent() == null)
+        // the captured test output is transferred in a single stream, either a pack file,
+        // or an archive extracted once all the files are parsed
+
+        if (this.storeDirectory != null)
         {
-            return;
-        }
+            // the store is shared by the builds of the job, each build writing its own archive
+            final Set<String> knownFiles = ConcurrentHashMap.newKeySet();
+            knownFiles.addAll(this.storedFiles);
 
-        final String contentExtension = this.compressOutput ? "html.zip" : "html";
-        final String contentFile = this.htmlOutputDirectory.child(String.join(".", result.getPage(), contentExtension)).getRemote();
-        final FilePath contentFilePath = new FilePath(channel, contentFile);
+            return new DeduplicatingOutputStore(
+                    new HtmlOutputArchive(this.storeDirectory, this.htmlOutputDirectory, channel), this.storeDirectory, knownFiles);
+        }
 
-        // handle optional output compression
-        final OutputStream os = this.compressOutput ? new GZIPOutputStream(contentFilePath.write()) : contentFilePath.write();
+        return this.packOutput
+                ? new HtmlOutputPack(this.htmlOutputDirectory, channel)
+                : new HtmlOutputArchive(this.htmlOutputDirectory, channel);
+    }
 
-        try (OutputStreamWriter osw = new OutputStreamWriter(os, StandardCharsets.UTF_8))
-        {
-            osw.write(result.getHtmlContent());
-        }
+    private HtmlOutputFileSink createContentSink(final HtmlOutputStore store, final ExecutorService compressionExecutor, final int compressionParallelism)
+    {
+        final HtmlOutputFileSink contentSink = new HtmlOutputFileSink(store, this.compressOutput, this.storeDirectory != null);
+        contentSink.setCompressionDictionary(this.compressionDictionary);
+        contentSink.setParallelCompression(compressionExecutor, compressionParallelism);
 
-        result.setHtmlContent(contentFilePath.getRemote());
+        return contentSink;
     }
 
-    private AggregatedFitnesseResult aggregateResults(final List<FitnesseResultHandler> results)
+    private FitnesseResult parseReportFile(final FilePath reportPath, final PageContentSink contentSink, final Consumer<FitnesseResult> pageListener)
     {
-        final AggregatedFitnesseResult allResults = new AggregatedFitnesseResult();
+        // replace all captured test output with a reference to the FitNesse page history,
+        // or write it to a file as it is read, keeping the path of the file
 
-        results.stream()
-        .map(FitnesseResultHandler::getDetails)
-        .flatMap(List::stream)
-        .map(FitnessePageResult::new)
-        .forEach(allResults::addChild);
+        final FitnesseResultParser parser = (this.remoteFitnesseUrl != null)
+                ? new FitnesseResultParser(((Consumer<FitnesseResult>) this::referencePageHistory).andThen(pageListener), PageContentSink.discard())
+                : new FitnesseResultParser(pageListener, contentSink);
 
-        allResults.tally();
+        this.listener.getLogger().format("Parsing FitNesse report file \"%s\"%n", reportPath.getName());
 
-        final long totalDuration = results.stream()
-                .map(FitnesseResultHandler::getSummary)
-                .mapToLong(FitnesseResult::getDuration)
-                .sum();
+        try (InputStream reportInputStream = Files.newInputStream(Paths.get(reportPath.getRemote())))
+        {
+            parser.parse(reportInputStream);
+        } catch (XMLStreamException | IOException e)
+        {
+            throw new TestParsingException("Could not parse results file", e);
+        }
 
-        allResults.setDuration(totalDuration);
+        return parser.getSummary();
+    }
 
-        return allResults;
+    private void referencePageHistory(final FitnesseResult result)
+    {
+        result.setHtmlContent(null);
+
+        // the page history is only available if FitNesse recorded it
+        if (result.getApproxResultDate() != null)
+        {
+            result.setPageHistoryUrl(PageHistoryClient.pageHistoryUrl(this.remoteFitnesseUrl, result.getPage(), result.getApproxResultDate()));
+        }
     }
 }
@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher.history;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.jenkinsci.plugins.fitnesse.util.Digests;
+
+import jenkins.model.Jenkins;
+
+/**
+ * Size-bounded, least recently used on-disk cache of the HTML outputs retrieved
+ * from the FitNesse page history
+ *
+ * <p>
+ * This cache lives on the Jenkins master, and is shared by all jobs. Its entries are stored
+ * compressed, and the least recently viewed ones are evicted once the total size of the
+ * cache exceeds its configured maximum size.
+ *
+ */
+public final class PageHistoryCache
+{
+
+    /** System property which allows to override the maximum size of the cache, in bytes */
+    public static final String MAX_SIZE_PROPERTY = PageHistoryCache.class.getName() + ".maxSize";
+
+    /** Default maximum size of the cache, in bytes */
+    public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+    /** Name of the cache directory, relative to the Jenkins root directory */
+    private static final String CACHE_DIRECTORY = "fitnesse-page-history-cache";
+
+    private static final String ENTRY_EXTENSION = ".html.zip";
+
+    private static PageHistoryCache instance;
+
+    private final Path directory;
+
+    private final long maxSize;
+
+    private final ContentLoader loader;
+
+    /** Cache entries and their size, from the least to the most recently used */
+    private final Map<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+
+    /**
+     * Initializes a cache in the given directory, reusing the entries it may already contain
+     *
+     * @param directory directory where the cache entries are stored
+     * @param maxSize maximum size of the cache, in bytes
+     * @param loader loads the content of an entry in the event of a cache miss
+     * @throws IOException if the cache directory could not be read or created
+     */
+    public PageHistoryCache(final Path directory, final long maxSize, final ContentLoader loader) throws IOException
+    {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.loader = loader;
+
+        Files.createDirectories(directory);
+
+        final List<Path> existingEntries;
+
+        try (Stream<Path> files = Files.list(directory))
+        {
+            existingEntries = files
+                    .filter(file -> file.getFileName().toString().endsWith(PageHistoryCache.ENTRY_EXTENSION))
+                    .sorted(Comparator.comparingLong(file -> file.toFile().lastModified()))
+                    .collect(Collectors.toList());
+        }
+
+        synchronized (this)
+        {
+            for (final Path entry : existingEntries)
+            {
+                final long entrySize = Files.size(entry);
+                this.entries.put(entry.getFileName().toString(), entrySize);
+                this.size += entrySize;
+            }
+
+            this.evict();
+        }
+    }
+
+    /**
+     * @return the cache shared by all jobs of this Jenkins instance
+     * @throws IOException if the cache could not be initialized
+     */
+    public static synchronized PageHistoryCache getInstance() throws IOException
+    {
+        if (PageHistoryCache.instance == null)
+        {
+            PageHistoryCache.instance = new PageHistoryCache(
+                    Jenkins.getInstance().getRootDir().toPath().resolve(PageHistoryCache.CACHE_DIRECTORY),
+                    Long.getLong(PageHistoryCache.MAX_SIZE_PROPERTY, PageHistoryCache.DEFAULT_MAX_SIZE),
+                    PageHistoryClient::fetchHtmlContent);
+        }
+
+        return PageHistoryCache.instance;
+    }
+
+    /**
+     * Retrieves the content associated with the given key, loading it in the event of a cache miss
+     *
+     * @param key key of the entry, i.e. the URL of a page history record
+     * @return the cached or freshly loaded content, or {@code null} if there is none
+     * @throws IOException if the content could neither be read from the cache nor loaded
+     */
+    public String get(final String key) throws IOException
+    {
+        final String entryName = PageHistoryCache.entryName(key);
+        final boolean isCached;
+
+        synchronized (this)
+        {
+            // also marks the entry as the most recently used one
+            isCached = this.entries.get(entryName) != null;
+        }
+
+        if (isCached)
+        {
+            try
+            {
+                return this.read(this.directory.resolve(entryName));
+            } catch (final NoSuchFileException e)
+            {
+                // the entry was evicted in the meantime, load it again
+            }
+        }
+
+        final String content = this.loader.load(key);
+
+        if (content != null)
+        {
+            this.put(entryName, content);
+        }
+
+        return content;
+    }
+
+    /**
+     * @return the current size of the cache, in bytes
+     */
+    public synchronized long getSize()
+    {
+        return this.size;
+    }
+
+    private void put(final String entryName, final String content) throws IOException
+    {
+        // write the entry aside, so that concurrent readers never see a partially written entry
+        final Path temporaryEntry = Files.createTempFile(this.directory, entryName, ".tmp");
+
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(temporaryEntry)), StandardCharsets.UTF_8))
+        {
+            writer.write(content);
+        }
+
+        final long entrySize = Files.size(temporaryEntry);
+
+        synchronized (this)
+        {
+            Files.move(temporaryEntry, this.directory.resolve(entryName), StandardCopyOption.REPLACE_EXISTING);
+
+            final Long previousSize = this.entries.put(entryName, entrySize);
+            this.size += entrySize - (previousSize == null ? 0 : previousSize);
+
+            this.evict();
+        }
+    }
+
+    private String read(final Path entry) throws IOException
+    {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(entry));
+                Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8))
+        {
+            final StringBuilder builder = new StringBuilder();
+            final char[] buffer = new char[8192];
+            int read;
+
+            while ((read = reader.read(buffer)) != -1)
+            {
+                builder.append(buffer, 0, read);
+            }
+
+            return builder.toString();
+        }
+    }
+
+    /** Evicts the least recently used entries until the cache fits within its maximum size */
+    private void evict() throws IOException
+    {
+        final Iterator<Map.Entry<String, Long>> iterator = this.entries.entrySet().iterator();
+
+        while ((this.size > this.maxSize) && iterator.hasNext())
+        {
+            final Map.Entry<String, Long> eldest = iterator.next();
+
+            Files.deleteIfExists(this.directory.resolve(eldest.getKey()));
+            this.size -= eldest.getValue();
+            iterator.remove();
+        }
+    }
+
+    private static String entryName(final String key)
+    {
+        return Digests.sha256(key) + PageHistoryCache.ENTRY_EXTENSION;
+    }
+
+    /**
+     * Loads the content of a cache entry
+     */
+    @FunctionalInterface
+    public interface ContentLoader
+    {
+
+        /**
+         * @param key key of the entry to load
+         * @return the loaded content (may be {@code null})
+         * @throws IOException if the content could not be loaded
+         */
+        String load(String key) throws IOException;
+    }
+}
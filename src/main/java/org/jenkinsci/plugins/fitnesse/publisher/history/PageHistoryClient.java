@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher.history;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jenkinsci.plugins.fitnesse.publisher.model.FitnesseResult;
+import org.jenkinsci.plugins.fitnesse.publisher.parser.FitnesseResultParser;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Retrieves the HTML output of a FitNesse page from its test history record,
+ * i.e. from the {@code pageHistory} responder of the remote FitNesse host
+ *
+ */
+public final class PageHistoryClient
+{
+
+    /** Timeout used when retrieving a page history record, in seconds */
+    private static final int HTTP_TIMEOUT = 60;
+
+    private static final OkHttpClient HTTP_CLIENT = new OkHttpClient().newBuilder()
+            .readTimeout(PageHistoryClient.HTTP_TIMEOUT, TimeUnit.SECONDS)
+            .build();
+
+    /**
+     * Builds the URL of the XML test history record of a given page
+     *
+     * @param hostUrl URL of the remote FitNesse host
+     * @param page name of the FitNesse page
+     * @param approxResultDate approximate date of the test history record
+     * @return the URL of the test history record
+     */
+    public static String pageHistoryUrl(final String hostUrl, final String page, final String approxResultDate)
+    {
+        final String baseUrl = hostUrl.endsWith("/") ? hostUrl.substring(0, hostUrl.length() - 1) : hostUrl;
+
+        return String.format("%s/%s?pageHistory&resultDate=%s&format=xml", baseUrl, page, approxResultDate);
+    }
+
+    /**
+     * Retrieves the HTML output stored in the given page history record
+     *
+     * @param pageHistoryUrl URL of the XML test history record
+     * @return the HTML output of the page, or {@code null} if the record does not contain any
+     * @throws IOException if the record could not be retrieved or parsed
+     */
+    public static String fetchHtmlContent(final String pageHistoryUrl) throws IOException
+    {
+        final HttpUrl url = HttpUrl.parse(pageHistoryUrl);
+
+        if (url == null)
+        {
+            throw new IOException(String.format("\"%s\" is not a valid page history URL", pageHistoryUrl));
+        }
+
+        final Request request = new Request.Builder()
+                .url(url)
+                .addHeader("Accept", "text/xml")
+                .get()
+                .build();
+
+        try (Response response = PageHistoryClient.HTTP_CLIENT.newCall(request).execute())
+        {
+            if (!response.isSuccessful())
+            {
+                throw new IOException(String.format("Incorrect HTTP response for \"%s\": %d - %s", pageHistoryUrl, response.code(), response.message()));
+            }
+
+            // the page history record uses the same format as the test execution responses
+            final FitnesseResultParser parser = new FitnesseResultParser();
+
+            try (InputStream in = response.body().byteStream())
+            {
+                parser.parse(in);
+            } catch (final XMLStreamException e)
+            {
+                throw new IOException(String.format("Could not parse the page history record \"%s\"", pageHistoryUrl), e);
+            }
+
+            return parser.getDetails()
+                    .stream()
+                    .map(FitnesseResult::getHtmlContent)
+                    .filter(Objects::nonNull)
+                    .filter(content -> !content.isEmpty())
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    /** no-op */
+    private PageHistoryClient()
+    {
+        // no-op
+    }
+}
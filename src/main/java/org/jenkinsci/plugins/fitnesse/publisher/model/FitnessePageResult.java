@@ -17,17 +17,27 @@ package org.jenkinsci.plugins.fitnesse.publisher.model;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.zip.GZIPInputStream;
 
+import javax.servlet.http.HttpServletResponse;
+
+import org.jenkinsci.plugins.fitnesse.publisher.HtmlOutputPack;
+import org.jenkinsci.plugins.fitnesse.publisher.history.PageHistoryCache;
+import org.jenkinsci.plugins.fitnesse.publisher.store.HtmlOutputDictionary;
+import org.jenkinsci.plugins.fitnesse.util.Digests;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
 import org.kohsuke.stapler.export.Exported;
 
-import hudson.FilePath;
+import hudson.Util;
 import hudson.model.Result;
 import hudson.model.Run;
 import hudson.tasks.test.TestObject;
@@ -142,6 +152,12 @@ public class FitnessePageResult extends TestResult
     @Override
     public Run<?, ?> getRun()
     {
+        // the results reached through the API rather than the report URL have no build attached
+        if ((this.run == null) && (this.parent != null))
+        {
+            return this.parent.getRun();
+        }
+
         return this.run;
     }
 
@@ -190,13 +206,66 @@ public class FitnessePageResult extends TestResult
         return this.result.getExceptions();
     }
 
+    /**
+     * @return whether this result was reused from a previous build, instead of being produced by an actual execution
+     */
+    @Exported(visibility = 2)
+    public boolean isCached()
+    {
+        return this.result.isCached();
+    }
+
+    /**
+     * @return number of the build which produced this result when it was reused, {@code 0} otherwise
+     */
+    @Exported(visibility = 2)
+    public int getCachedFromBuild()
+    {
+        return this.result.getCachedFromBuild();
+    }
+
+    /**
+     * @return result of the first, failed attempt when this page was rerun, {@code null} otherwise
+     */
+    public FitnesseResult getFirstAttempt()
+    {
+        return this.result.getFirstAttempt();
+    }
+
+    /**
+     * @return whether this page failed, then passed when rerun
+     */
+    @Exported(visibility = 2)
+    public boolean isFlaky()
+    {
+        return this.result.isRerun() && !this.hasFailures();
+    }
+
+    /**
+     * @return whether this page failed, and failed again when rerun
+     */
+    @Exported(visibility = 2)
+    public boolean isConsistentlyFailed()
+    {
+        return this.result.isRerun() && this.hasFailures();
+    }
+
+    /**
+     * @return reference to the stored HTML content of this page, i.e. the path of its content file,
+     *         or {@code null} if it was not stored with the build
+     */
+    public String getHtmlContentReference()
+    {
+        return this.result.getHtmlContent();
+    }
+
     /**
      * @return link pointing to the details of this result
      */
     @Exported(visibility = 2)
     public String getDetailsLink()
     {
-        if (this.result.getHtmlContent() != null)
+        if ((this.result.getHtmlContent() != null) || this.result.hasPageHistoryReference())
         {
             return String.format("<a href=\"%1$s\">%1$s</a>", this.getName());
         }
@@ -214,43 +283,208 @@ public class FitnessePageResult extends TestResult
     {
         final String htmlContent = this.result.getHtmlContent();
 
+        // retrieve the output from the FitNesse page history, if it was not stored with the build
+        if ((htmlContent == null) && this.result.hasPageHistoryReference())
+        {
+            return this.getPageHistoryHtmlContent();
+        }
+
         // use a placeholder if no output is available
         if (htmlContent == null)
         {
             return String.format("<p>%s</p>", Messages.FitnessePageResults_noContent());
         }
 
-        final FilePath htmlContentFilePath = new FilePath(new File(htmlContent));
+        try (final BufferedReader br = new BufferedReader(new InputStreamReader(this.openHtmlContent(htmlContent, false), StandardCharsets.UTF_8)))
+        {
+            final StringBuilder builder = new StringBuilder();
+            String line;
 
-        // handle optional output compression
-        InputStream in;
+            while ((line = br.readLine()) != null)
+            {
+                builder.append(line);
+            }
 
-        try
-        {
-            in = htmlContentFilePath.read();
-        } catch (final InterruptedException e)
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Reads the beginning of this result's captured HTML output, without reading the whole output
+     * 
+     * @param maxLength maximum number of bytes to read
+     * @return the beginning of the output, or {@code null} if it was not stored with the build
+     * @throws IOException if the output could not be read
+     */
+    public String getHtmlContentPrefix(final int maxLength) throws IOException
+    {
+        final String htmlContent = this.result.getHtmlContent();
+
+        if (htmlContent == null)
         {
-            Thread.currentThread().interrupt();
             return null;
         }
 
-        if (htmlContentFilePath.getName().endsWith(".zip"))
+        try (InputStream in = this.openHtmlContent(htmlContent, false))
         {
-            in = new GZIPInputStream(in);
+            final byte[] buffer = new byte[maxLength];
+            int length = 0;
+            int read;
+
+            while ((length < maxLength) && ((read = in.read(buffer, length, maxLength - length)) >= 0))
+            {
+                length += read;
+            }
+
+            return new String(buffer, 0, length, StandardCharsets.UTF_8);
         }
+    }
 
-        try (final BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)))
+    /**
+     * Streams this result's captured HTML output, without reading it into memory
+     * 
+     * <p>
+     * The GZIP-compressed output is sent as is to the browsers which accept it. As the output of a build never
+     * changes, it is cached by the browsers for good.
+     * 
+     * @param req request
+     * @param rsp response
+     * @throws IOException if the output could not be read or sent
+     */
+    public void doContent(final StaplerRequest req, final StaplerResponse rsp) throws IOException
+    {
+        final String htmlContent = this.result.getHtmlContent();
+
+        rsp.setContentType("text/html;charset=UTF-8");
+
+        // the output retrieved from the FitNesse page history, or the placeholder, is not stored with the build
+        if (htmlContent == null)
         {
-            final StringBuilder builder = new StringBuilder();
-            String line;
+            rsp.getOutputStream().write(this.getHtmlContent().getBytes(StandardCharsets.UTF_8));
+            return;
+        }
 
-            while ((line = br.readLine()) != null)
+        final String contentFileName = FitnessePageResult.getContentFileName(htmlContent);
+        final boolean gzipEncoded = contentFileName.endsWith(".zip") && FitnessePageResult.acceptsGzip(req.getHeader("Accept-Encoding"));
+        final String etag = String.format("\"%s%s\"", Digests.sha256(htmlContent), gzipEncoded ? "-gzip" : "");
+
+        rsp.setHeader("ETag", etag);
+        rsp.setHeader("Cache-Control", "private, max-age=31536000, immutable");
+        rsp.setHeader("Vary", "Accept-Encoding");
+
+        final String ifNoneMatch = req.getHeader("If-None-Match");
+
+        if ((ifNoneMatch != null) && ifNoneMatch.contains(etag))
+        {
+            rsp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        // the stored length is the sent length, unless the output is decompressed on the fly
+        if (gzipEncoded)
+        {
+            rsp.setHeader("Content-Encoding", "gzip");
+            rsp.setContentLengthLong(FitnessePageResult.getStoredLength(htmlContent));
+        } else if (contentFileName.endsWith(".html"))
+        {
+            rsp.setContentLengthLong(FitnessePageResult.getStoredLength(htmlContent));
+        }
+
+        try (InputStream in = this.openHtmlContent(htmlContent, gzipEncoded))
+        {
+            final OutputStream out = rsp.getOutputStream();
+            final byte[] buffer = new byte[64 * 1024];
+            int read;
+
+            while ((read = in.read(buffer)) >= 0)
             {
-                builder.append(line);
+                out.write(buffer, 0, read);
             }
+        }
+    }
 
-            return builder.toString();
+    /**
+     * Opens this result's captured HTML output
+     * 
+     * @param htmlContent reference to the stored output
+     * @param gzipEncoded whether to keep the output GZIP-compressed, if it is
+     * @return the output
+     * @throws IOException if the output could not be read
+     */
+    private InputStream openHtmlContent(final String htmlContent, final boolean gzipEncoded) throws IOException
+    {
+        final String contentFileName = FitnessePageResult.getContentFileName(htmlContent);
+        final InputStream in = HtmlOutputPack.isPacked(htmlContent) ? HtmlOutputPack.open(htmlContent) : new FileInputStream(htmlContent);
+
+        // handle optional output compression
+        if (contentFileName.endsWith(".zip") && !gzipEncoded)
+        {
+            return new GZIPInputStream(in);
+        } else if (contentFileName.endsWith(".dz"))
+        {
+            // compressed with one of the dictionaries of the job, which browsers do not know of
+            final Run<?, ?> owningRun = this.getRun();
+
+            if (owningRun == null)
+            {
+                in.close();
+                throw new IOException(String.format("The build of page \"%s\" is unknown, its compressed HTML output cannot be read", this.getName()));
+            }
+
+            return HtmlOutputDictionary.forJob(owningRun.getParent()).inflate(in);
+        }
+
+        return in;
+    }
+
+    private static String getContentFileName(final String htmlContent)
+    {
+        return HtmlOutputPack.isPacked(htmlContent) ? HtmlOutputPack.getFileName(htmlContent) : new File(htmlContent).getName();
+    }
+
+    private static long getStoredLength(final String htmlContent)
+    {
+        return HtmlOutputPack.isPacked(htmlContent) ? HtmlOutputPack.getLength(htmlContent) : new File(htmlContent).length();
+    }
+
+    private static boolean acceptsGzip(final String acceptEncoding)
+    {
+        if (acceptEncoding == null)
+        {
+            return false;
+        }
+
+        for (final String coding : acceptEncoding.split(","))
+        {
+            final String[] parameters = coding.trim().split("\\s*;\\s*");
+
+            if ("gzip".equalsIgnoreCase(parameters[0]) && !((parameters.length > 1) && parameters[1].matches("q=0(\\.0*)?")))
+            {
+                return true;
+            }
         }
+
+        return false;
+    }
+
+    /**
+     * Retrieves this result's HTML output from the FitNesse page history, through the master's cache
+     * 
+     * @return the HTML output, or a placeholder if it is not available
+     */
+    private String getPageHistoryHtmlContent()
+    {
+        String htmlContent;
+
+        try
+        {
+            htmlContent = PageHistoryCache.getInstance().get(this.result.getPageHistoryUrl());
+        } catch (final IOException e)
+        {
+            return String.format("<p>%s</p>", Messages.FitnessePageResults_unavailableContent(Util.escape(e.getMessage())));
+        }
+
+        return htmlContent == null ? String.format("<p>%s</p>", Messages.FitnessePageResults_noContent()) : htmlContent;
     }
 
     /**
@@ -44,6 +44,14 @@ public class FitnesseResult implements Serializable
 
     private String htmlContent;
 
+    private String approxResultDate;
+
+    private String pageHistoryUrl;
+
+    private int cachedFromBuild;
+
+    private FitnesseResult firstAttempt;
+
     /**
      * Constructor
      * 
@@ -138,6 +146,95 @@ public class FitnesseResult implements Serializable
         return this.htmlContent != null;
     }
 
+    /**
+     * @return approximate date of the FitNesse test history record of this result (may be {@code null})
+     */
+    public String getApproxResultDate()
+    {
+        return this.approxResultDate;
+    }
+
+    /**
+     * @param approxResultDate approximate date of the FitNesse test history record of this result
+     */
+    public void setApproxResultDate(final String approxResultDate)
+    {
+        this.approxResultDate = approxResultDate;
+    }
+
+    /**
+     * @return URL of the FitNesse page history record of this result, from which
+     *         its HTML output may be retrieved on demand (may be {@code null})
+     */
+    public String getPageHistoryUrl()
+    {
+        return this.pageHistoryUrl;
+    }
+
+    /**
+     * @param pageHistoryUrl URL of the FitNesse page history record of this result
+     */
+    public void setPageHistoryUrl(final String pageHistoryUrl)
+    {
+        this.pageHistoryUrl = pageHistoryUrl;
+    }
+
+    /**
+     * @return {@code true} if the HTML output can be retrieved from the FitNesse page history, {@code false} otherwise
+     */
+    public boolean hasPageHistoryReference()
+    {
+        return this.pageHistoryUrl != null;
+    }
+
+    /**
+     * @return number of the build which produced this result when it was reused from a previous build, {@code 0} otherwise
+     */
+    public int getCachedFromBuild()
+    {
+        return this.cachedFromBuild;
+    }
+
+    /**
+     * @param cachedFromBuild number of the build which produced this reused result
+     */
+    public void setCachedFromBuild(final int cachedFromBuild)
+    {
+        this.cachedFromBuild = cachedFromBuild;
+    }
+
+    /**
+     * @return whether this result was reused from a previous build, instead of being produced by an actual execution
+     */
+    public boolean isCached()
+    {
+        return this.cachedFromBuild > 0;
+    }
+
+    /**
+     * @return result of the first, failed attempt when this result comes from a rerun, {@code null} otherwise
+     */
+    public FitnesseResult getFirstAttempt()
+    {
+        return this.firstAttempt;
+    }
+
+    /**
+     * @param firstAttempt result of the first, failed attempt of this rerun result
+     */
+    public void setFirstAttempt(final FitnesseResult firstAttempt)
+    {
+        this.firstAttempt = firstAttempt;
+    }
+
+    /**
+     * @return whether this result comes from the rerun of a failed page
+     */
+    public boolean isRerun()
+    {
+        return this.firstAttempt != null;
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString()
@@ -0,0 +1,548 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jenkinsci.plugins.fitnesse.publisher.model.FitnesseResult;
+
+/**
+ * Streaming parser of the FitNesse tests results, in the XML or the JUnit format
+ * 
+ * <p>
+ * The summary and the detail counts are computed in a single pass over the results, only the page being
+ * parsed being held in memory: each page result is handed to the page listener as soon as it is complete,
+ * e.g. for its HTML content to be referenced before the next page is read. The HTML content itself may be
+ * streamed to a {@link PageContentSink} as it is read, only the reference returned by the sink being kept.
+ * 
+ * <p>
+ * The {@code cachedFromBuild} and {@code firstAttempt} elements apply to all the pages of the results,
+ * and are thus expected before them, right after the root element.
+ * 
+ */
+public class FitnesseResultParser
+{
+
+    /** Root element of the XML format */
+    private static final String TEST_RESULTS = "testResults";
+
+    /** Root element of the JUnit format */
+    private static final String TEST_SUITE = "testsuite";
+
+    private static final String RESULT_DATE_PARAMETER = "resultDate=";
+
+    /** Configured factories, looked up once per parsing thread rather than once per parsed file */
+    private static final ThreadLocal<XMLInputFactory> INPUT_FACTORY = ThreadLocal.withInitial(FitnesseResultParser::createInputFactory);
+
+    private final Consumer<FitnesseResult> pageListener;
+
+    private final PageContentSink contentSink;
+
+    // Parser state
+
+    private FitnesseResult summary;
+
+    private final List<FitnesseResult> details = new ArrayList<>();
+
+    private int cachedFromBuild;
+
+    private Counts firstAttemptCounts;
+
+    private long firstAttemptDuration;
+
+    /**
+     * Constructor
+     */
+    public FitnesseResultParser()
+    {
+        this(null);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param pageListener called with the result of each page, as soon as it is parsed, instead of the
+     *            page results being kept in the details (may be {@code null} to keep them)
+     */
+    public FitnesseResultParser(final Consumer<FitnesseResult> pageListener)
+    {
+        this(pageListener, null);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param pageListener called with the result of each page, as soon as it is parsed, instead of the
+     *            page results being kept in the details (may be {@code null} to keep them)
+     * @param contentSink receives the HTML content of the pages as it is read,
+     *            or {@code null} to keep it in the page results
+     */
+    public FitnesseResultParser(final Consumer<FitnesseResult> pageListener, final PageContentSink contentSink)
+    {
+        this.pageListener = (pageListener == null) ? this.details::add : pageListener;
+        this.contentSink = contentSink;
+    }
+
+    /**
+     * Parses FitNesse tests results
+     * 
+     * @param in tests results
+     * @throws XMLStreamException if the tests results are not well-formed
+     */
+    public void parse(final InputStream in) throws XMLStreamException
+    {
+        this.parse(FitnesseResultParser.INPUT_FACTORY.get().createXMLStreamReader(in));
+    }
+
+    /**
+     * Parses FitNesse tests results
+     * 
+     * @param in tests results
+     * @throws XMLStreamException if the tests results are not well-formed
+     */
+    public void parse(final Reader in) throws XMLStreamException
+    {
+        this.parse(FitnesseResultParser.INPUT_FACTORY.get().createXMLStreamReader(in));
+    }
+
+    /**
+     * @return tests execution summary
+     */
+    public FitnesseResult getSummary()
+    {
+        return this.summary;
+    }
+
+    /**
+     * @return tests results, empty if they were handed to a page listener
+     */
+    public List<FitnesseResult> getDetails()
+    {
+        return this.details;
+    }
+
+    private void parse(final XMLStreamReader reader) throws XMLStreamException
+    {
+        try
+        {
+            reader.nextTag();
+
+            if (FitnesseResultParser.TEST_RESULTS.equals(reader.getLocalName()))
+            {
+                this.parseTestResults(reader);
+            } else if (FitnesseResultParser.TEST_SUITE.equals(reader.getLocalName()))
+            {
+                this.parseTestSuite(reader);
+            } else
+            {
+                throw new XMLStreamException(String.format("Unexpected root element \"%s\"", reader.getLocalName()), reader.getLocation());
+            }
+        } finally
+        {
+            reader.close();
+        }
+    }
+
+    private void parseTestResults(final XMLStreamReader reader) throws XMLStreamException
+    {
+        String rootPath = "";
+        long duration = 0L;
+        final Counts total = new Counts();
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT)
+        {
+            switch (reader.getLocalName())
+            {
+                case "rootPath":
+                    rootPath = reader.getElementText().trim();
+                    break;
+                case "totalRunTimeInMillis":
+                    duration = FitnesseResultParser.parseLong(reader, reader.getElementText());
+                    break;
+                case "result":
+                    final FitnesseResult result = this.parseResult(reader, rootPath);
+                    total.add(result);
+                    this.addDetail(result);
+                    break;
+                default:
+                    this.parseCommonElement(reader);
+                    break;
+            }
+        }
+
+        this.summary = total.toResult(rootPath, duration);
+    }
+
+    private FitnesseResult parseResult(final XMLStreamReader reader, final String rootPath) throws XMLStreamException
+    {
+        final Counts counts = new Counts();
+        Long duration = null;
+        String content = "";
+        boolean contentWritten = false;
+        String pageHistoryLink = "";
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT)
+        {
+            switch (reader.getLocalName())
+            {
+                case "counts":
+                    this.parseCounts(reader, counts);
+                    break;
+                case "runTimeInMillis":
+                    final long runTime = FitnesseResultParser.parseLong(reader, reader.getElementText());
+                    duration = (duration == null) ? runTime : duration;
+                    break;
+                case "content":
+                    if (this.contentSink == null)
+                    {
+                        content = reader.getElementText();
+                    } else
+                    {
+                        this.writeContent(reader);
+                        contentWritten = true;
+                    }
+                    break;
+                case "pageHistoryLink":
+                    pageHistoryLink = reader.getElementText().trim();
+                    break;
+                default:
+                    FitnesseResultParser.skipElement(reader);
+                    break;
+            }
+        }
+
+        // the page history link is the only place where the full page name is given
+        final int queryIndex = pageHistoryLink.indexOf('?');
+        final String page = (queryIndex > 0) ? pageHistoryLink.substring(0, queryIndex) : rootPath;
+
+        if (this.contentSink != null)
+        {
+            content = contentWritten ? this.completeContent(reader, page) : null;
+        }
+
+        final FitnesseResult result = counts.toResult(page, (duration == null) ? 0L : duration, content);
+
+        // keep track of the FitNesse test history record, if any
+        final int dateIndex = pageHistoryLink.indexOf(FitnesseResultParser.RESULT_DATE_PARAMETER);
+        final String approxResultDate = (dateIndex < 0) ? "" : pageHistoryLink.substring(dateIndex + FitnesseResultParser.RESULT_DATE_PARAMETER.length());
+        result.setApproxResultDate(approxResultDate.isEmpty() ? null : approxResultDate);
+
+        return result;
+    }
+
+    private void parseCounts(final XMLStreamReader reader, final Counts counts) throws XMLStreamException
+    {
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT)
+        {
+            switch (reader.getLocalName())
+            {
+                case "right":
+                    counts.right += FitnesseResultParser.parseInt(reader, reader.getElementText());
+                    break;
+                case "wrong":
+                    counts.wrong += FitnesseResultParser.parseInt(reader, reader.getElementText());
+                    break;
+                case "ignores":
+                    counts.ignored += FitnesseResultParser.parseInt(reader, reader.getElementText());
+                    break;
+                case "exceptions":
+                    counts.exceptions += FitnesseResultParser.parseInt(reader, reader.getElementText());
+                    break;
+                default:
+                    FitnesseResultParser.skipElement(reader);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * The JUnit format only gives the counts of each page, a page without failure counting as one right assertion
+     */
+    private void parseTestSuite(final XMLStreamReader reader) throws XMLStreamException
+    {
+        final String name = FitnesseResultParser.getAttribute(reader, "name");
+        final long duration = FitnesseResultParser.parseSeconds(reader, FitnesseResultParser.getAttribute(reader, "time"));
+
+        // counts of pages, not of assertions
+        final Counts total = new Counts();
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT)
+        {
+            if ("testcase".equals(reader.getLocalName()))
+            {
+                this.addDetail(this.parseTestCase(reader, name, total));
+            } else
+            {
+                this.parseCommonElement(reader);
+            }
+        }
+
+        this.summary = total.toResult(name, duration);
+    }
+
+    private FitnesseResult parseTestCase(final XMLStreamReader reader, final String suiteName, final Counts total) throws XMLStreamException
+    {
+        final String name = FitnesseResultParser.getAttribute(reader, "name");
+        final long duration = FitnesseResultParser.parseSeconds(reader, FitnesseResultParser.getAttribute(reader, "time"));
+        final Counts counts = new Counts();
+        String failureMessage = null;
+        int errors = 0;
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT)
+        {
+            switch (reader.getLocalName())
+            {
+                case "failure":
+                    failureMessage = FitnesseResultParser.getAttribute(reader, "message");
+                    break;
+                case "error":
+                    errors++;
+                    break;
+                case "skipped":
+                    counts.ignored++;
+                    break;
+                default:
+                    break;
+            }
+
+            FitnesseResultParser.skipElement(reader);
+        }
+
+        if (failureMessage != null)
+        {
+            // e.g. " exceptions: 1 wrong: 3"
+            counts.wrong = FitnesseResultParser.parseInt(reader, FitnesseResultParser.substringBetween(failureMessage, "wrong:", null));
+            counts.exceptions = FitnesseResultParser.parseInt(reader, FitnesseResultParser.substringBetween(failureMessage, "exceptions:", "wrong:"));
+            total.wrong++;
+        } else
+        {
+            counts.exceptions = errors;
+        }
+
+        total.exceptions += (errors > 0) ? 1 : 0;
+        total.ignored += (counts.ignored > 0) ? 1 : 0;
+
+        if ((failureMessage == null) && (errors == 0) && (counts.ignored == 0))
+        {
+            counts.right = 1;
+            total.right++;
+        }
+
+        return counts.toResult(name.isEmpty() ? suiteName : name, duration, null);
+    }
+
+    /**
+     * Parses the elements which apply to all the pages of the results
+     */
+    private void parseCommonElement(final XMLStreamReader reader) throws XMLStreamException
+    {
+        switch (reader.getLocalName())
+        {
+            case "cachedFromBuild":
+                // keep track of the build which produced a reused result, if any
+                this.cachedFromBuild = FitnesseResultParser.parseInt(reader, reader.getElementText());
+                break;
+            case "firstAttempt":
+                // keep the counts of the first attempt of a rerun page, if any
+                this.firstAttemptCounts = new Counts();
+                this.firstAttemptCounts.right = FitnesseResultParser.parseInt(reader, FitnesseResultParser.getAttribute(reader, "right"));
+                this.firstAttemptCounts.wrong = FitnesseResultParser.parseInt(reader, FitnesseResultParser.getAttribute(reader, "wrong"));
+                this.firstAttemptCounts.ignored = FitnesseResultParser.parseInt(reader, FitnesseResultParser.getAttribute(reader, "ignores"));
+                this.firstAttemptCounts.exceptions = FitnesseResultParser.parseInt(reader, FitnesseResultParser.getAttribute(reader, "exceptions"));
+                this.firstAttemptDuration = FitnesseResultParser.parseLong(reader, FitnesseResultParser.getAttribute(reader, "runTimeInMillis"));
+                FitnesseResultParser.skipElement(reader);
+                break;
+            default:
+                FitnesseResultParser.skipElement(reader);
+                break;
+        }
+    }
+
+    private void addDetail(final FitnesseResult result)
+    {
+        result.setCachedFromBuild(this.cachedFromBuild);
+
+        if (this.firstAttemptCounts != null)
+        {
+            result.setFirstAttempt(this.firstAttemptCounts.toResult(result.getPage(), this.firstAttemptDuration, null));
+        }
+
+        this.pageListener.accept(result);
+    }
+
+    private static XMLInputFactory createInputFactory()
+    {
+        final XMLInputFactory inputFactory = XMLInputFactory.newFactory();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        return inputFactory;
+    }
+
+    /**
+     * Copies the text of the current element to the content sink, chunk by chunk
+     */
+    private void writeContent(final XMLStreamReader reader) throws XMLStreamException
+    {
+        try (Writer writer = this.contentSink.begin())
+        {
+            int event;
+
+            while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT)
+            {
+                if ((event == XMLStreamConstants.CHARACTERS) || (event == XMLStreamConstants.CDATA) || (event == XMLStreamConstants.SPACE))
+                {
+                    writer.write(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                } else if (event == XMLStreamConstants.START_ELEMENT)
+                {
+                    throw new XMLStreamException("Unexpected element in the page content", reader.getLocation());
+                }
+            }
+        } catch (final IOException e)
+        {
+            throw new XMLStreamException("Could not write the page content", reader.getLocation(), e);
+        }
+    }
+
+    private String completeContent(final XMLStreamReader reader, final String page) throws XMLStreamException
+    {
+        try
+        {
+            return this.contentSink.complete(page);
+        } catch (final IOException e)
+        {
+            throw new XMLStreamException(String.format("Could not write the content of the page \"%s\"", page), reader.getLocation(), e);
+        }
+    }
+
+    /**
+     * Skips the current element and all its descendants
+     */
+    private static void skipElement(final XMLStreamReader reader) throws XMLStreamException
+    {
+        int depth = 1;
+
+        while (depth > 0)
+        {
+            final int event = reader.next();
+
+            if (event == XMLStreamConstants.START_ELEMENT)
+            {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT)
+            {
+                depth--;
+            }
+        }
+    }
+
+    private static String getAttribute(final XMLStreamReader reader, final String name)
+    {
+        final String value = reader.getAttributeValue(null, name);
+
+        return (value == null) ? "" : value;
+    }
+
+    private static String substringBetween(final String value, final String start, final String end)
+    {
+        final int startIndex = value.indexOf(start);
+
+        if (startIndex < 0)
+        {
+            return "";
+        }
+
+        final String after = value.substring(startIndex + start.length());
+        final int endIndex = (end == null) ? -1 : after.indexOf(end);
+
+        return (endIndex < 0) ? after : after.substring(0, endIndex);
+    }
+
+    private static int parseInt(final XMLStreamReader reader, final String value) throws XMLStreamException
+    {
+        return (int) FitnesseResultParser.parseLong(reader, value);
+    }
+
+    private static long parseLong(final XMLStreamReader reader, final String value) throws XMLStreamException
+    {
+        final String trimmed = value.trim();
+
+        try
+        {
+            return trimmed.isEmpty() ? 0L : Long.parseLong(trimmed);
+        } catch (final NumberFormatException e)
+        {
+            throw new XMLStreamException(String.format("Invalid number \"%s\"", trimmed), reader.getLocation(), e);
+        }
+    }
+
+    private static long parseSeconds(final XMLStreamReader reader, final String value) throws XMLStreamException
+    {
+        final String trimmed = value.trim();
+
+        try
+        {
+            return trimmed.isEmpty() ? 0L : Math.round(Double.parseDouble(trimmed) * 1000);
+        } catch (final NumberFormatException e)
+        {
+            throw new XMLStreamException(String.format("Invalid duration \"%s\"", trimmed), reader.getLocation(), e);
+        }
+    }
+
+    /**
+     * Assertion counts, accumulated while parsing
+     */
+    private static final class Counts
+    {
+
+        private int right;
+
+        private int wrong;
+
+        private int ignored;
+
+        private int exceptions;
+
+        void add(final FitnesseResult result)
+        {
+            this.right += result.getRight();
+            this.wrong += result.getWrong();
+            this.ignored += result.getIgnored();
+            this.exceptions += result.getExceptions();
+        }
+
+        FitnesseResult toResult(final String page, final long duration)
+        {
+            return this.toResult(page, duration, null);
+        }
+
+        FitnesseResult toResult(final String page, final long duration, final String htmlContent)
+        {
+            return new FitnesseResult(page, duration, this.right, this.wrong, this.ignored, this.exceptions, htmlContent);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher.parser;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Receives the HTML content of the pages while they are parsed, for it never to be held in memory
+ * 
+ * <p>
+ * The name of a page may only be known once its content is read: the content is first written
+ * anonymously, and then completed with the name of its page.
+ * 
+ */
+public interface PageContentSink
+{
+
+    /**
+     * Starts receiving the HTML content of the page being parsed
+     * 
+     * @return writer of the content, closed once the content is read
+     * @throws IOException if the content cannot be written
+     */
+    Writer begin() throws IOException;
+
+    /**
+     * Completes the HTML content of the page being parsed, once its name is known
+     * 
+     * @param page name of the page
+     * @return reference to the written content, kept as the HTML content of the page result (may be {@code null})
+     * @throws IOException if the content cannot be written
+     */
+    String complete(String page) throws IOException;
+
+    /**
+     * @return a sink which discards the HTML content
+     */
+    static PageContentSink discard()
+    {
+        return new PageContentSink()
+        {
+
+            @Override
+            public Writer begin()
+            {
+                return new Writer()
+                {
+
+                    @Override
+                    public void write(final char[] cbuf, final int off, final int len)
+                    {
+                        // discarded
+                    }
+
+                    @Override
+                    public void flush()
+                    {
+                        // nothing to flush
+                    }
+
+                    @Override
+                    public void close()
+                    {
+                        // nothing to close
+                    }
+                };
+            }
+
+            @Override
+            public String complete(final String page)
+            {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher.store;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Trains a preset dictionary for the Deflate compression of HTML outputs, from a sample of outputs
+ * 
+ * <p>
+ * The outputs are split into markup fragments, each ending with the end of a tag. The fragments found in
+ * several outputs are scored by the number of outputs they are found in times their length, and the best
+ * ones make up the dictionary, the best one last as Deflate favors the closest matches.
+ * 
+ */
+public final class DictionaryTrainer
+{
+
+    /** Maximum size of a dictionary, i.e. the size of the Deflate window */
+    public static final int MAX_SIZE = 32 * 1024;
+
+    /** Minimum length of the fragments, shorter ones being cheaper to compress than to reference */
+    private static final int MIN_FRAGMENT_LENGTH = 4;
+
+    /** Maximum length of the fragments, longer ones being rather page-specific text */
+    private static final int MAX_FRAGMENT_LENGTH = 256;
+
+    private DictionaryTrainer()
+    {
+        // utility class
+    }
+
+    /**
+     * Trains a dictionary
+     * 
+     * @param samples sample of outputs, encoded
+     * @param size maximum size of the dictionary
+     * @return the dictionary, empty if the outputs have no fragment in common
+     */
+    public static byte[] train(final List<byte[]> samples, final int size)
+    {
+        // count the outputs each fragment is found in
+
+        final Map<ByteBuffer, Integer> occurrences = new HashMap<>();
+
+        for (final byte[] sample : samples)
+        {
+            for (final ByteBuffer fragment : DictionaryTrainer.split(sample))
+            {
+                occurrences.merge(fragment, 1, Integer::sum);
+            }
+        }
+
+        // keep the best fragments found in several outputs, within the size of the dictionary
+
+        final List<ByteBuffer> fragments = occurrences.entrySet().stream()
+                .filter(entry -> entry.getValue() > 1)
+                .sorted(Comparator.comparingLong((final Map.Entry<ByteBuffer, Integer> entry) -> -DictionaryTrainer.score(entry))
+                        .thenComparing(Map.Entry::getKey))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+
+        final List<ByteBuffer> selected = new ArrayList<>();
+        int length = 0;
+
+        for (final ByteBuffer fragment : fragments)
+        {
+            if ((length + fragment.remaining()) <= size)
+            {
+                selected.add(fragment);
+                length += fragment.remaining();
+            }
+        }
+
+        // the best fragment last
+
+        final ByteArrayOutputStream dictionary = new ByteArrayOutputStream(length);
+
+        for (int i = selected.size() - 1; i >= 0; i--)
+        {
+            final ByteBuffer fragment = selected.get(i);
+            dictionary.write(fragment.array(), fragment.arrayOffset(), fragment.remaining());
+        }
+
+        return dictionary.toByteArray();
+    }
+
+    private static long score(final Map.Entry<ByteBuffer, Integer> entry)
+    {
+        return (long) entry.getValue() * entry.getKey().remaining();
+    }
+
+    private static Set<ByteBuffer> split(final byte[] sample)
+    {
+        final Set<ByteBuffer> fragments = new HashSet<>();
+        int start = 0;
+
+        for (int i = 0; i < sample.length; i++)
+        {
+            if ((sample[i] == '>') || (i == (sample.length - 1)))
+            {
+                final int length = (i + 1) - start;
+
+                if ((length >= DictionaryTrainer.MIN_FRAGMENT_LENGTH) && (length <= DictionaryTrainer.MAX_FRAGMENT_LENGTH))
+                {
+                    fragments.add(ByteBuffer.wrap(sample, start, length).slice());
+                }
+
+                start = i + 1;
+            }
+        }
+
+        return fragments;
+    }
+}
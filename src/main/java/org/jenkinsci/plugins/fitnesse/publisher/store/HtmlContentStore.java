@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import hudson.Extension;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+import jenkins.util.Timer;
+
+/**
+ * Content-addressed store of the HTML output of the pages, shared by the builds of a job
+ * 
+ * <p>
+ * The store lives on the Jenkins master, in the job directory. Each content file is named after the hash of
+ * its content, so that a page whose output did not change since a previous build is stored once. Each build
+ * records the content files it references, and the content files no longer referenced by any build are swept
+ * once builds are deleted, the deletions of a log rotation being swept at once. The builds publishing into the store hold its lock for reading, and a sweep holds it
+ * for writing, so that a content file is not deleted between the moment a build finds it and the moment it
+ * records its reference.
+ * 
+ */
+public class HtmlContentStore
+{
+
+    private static final Logger LOGGER = Logger.getLogger(HtmlContentStore.class.getName());
+
+    /** Name of the store directory, relative to the job directory */
+    private static final String STORE_DIRECTORY = "fitnesse-html-store";
+
+    /** Name of the file listing the content files referenced by a build, relative to the build directory */
+    private static final String REFERENCES_FILE = "fitnesse-html-store.refs";
+
+    /** Delay before a scheduled sweep, for the deletions happening in the meantime to be swept at once */
+    private static final long SWEEP_DELAY = 60;
+
+    /** Locks of the stores, by store directory */
+    private static final ConcurrentMap<Path, ReadWriteLock> LOCKS = new ConcurrentHashMap<>();
+
+    /** Stores having a scheduled sweep, and the directories of the builds deleted since it was scheduled */
+    private static final ConcurrentMap<Path, Set<Path>> PENDING_SWEEPS = new ConcurrentHashMap<>();
+
+    private final Path directory;
+
+    private final ReadWriteLock lock;
+
+    /**
+     * Constructor
+     * 
+     * @param directory directory where the content files are stored
+     */
+    public HtmlContentStore(final Path directory)
+    {
+        this.directory = directory;
+        this.lock = HtmlContentStore.LOCKS.computeIfAbsent(directory.toAbsolutePath().normalize(), key -> new ReentrantReadWriteLock(true));
+    }
+
+    /**
+     * @param job Jenkins job
+     * @return the store of the given job
+     */
+    public static HtmlContentStore forJob(final Job<?, ?> job)
+    {
+        return new HtmlContentStore(new File(job.getRootDir(), HtmlContentStore.STORE_DIRECTORY).toPath());
+    }
+
+    /**
+     * @return directory where the content files are stored
+     */
+    public Path getDirectory()
+    {
+        return this.directory;
+    }
+
+    /**
+     * @return lock of this store, held for reading while a build publishes into the store and for writing while
+     *         the store is swept
+     */
+    public ReadWriteLock getLock()
+    {
+        return this.lock;
+    }
+
+    /**
+     * @return names of the stored content files
+     * @throws IOException if the store could not be listed
+     */
+    public Set<String> list() throws IOException
+    {
+        if (!Files.isDirectory(this.directory))
+        {
+            return new HashSet<>();
+        }
+
+        try (Stream<Path> files = Files.list(this.directory))
+        {
+            return files
+                    .map(file -> file.getFileName().toString())
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * Records the content files of this store referenced by a build, for them to be kept as long as the build
+     * 
+     * @param run build
+     * @param contentFiles paths of the content files referenced by the build, in this store or not
+     * @throws IOException if the references could not be recorded
+     */
+    public void recordReferences(final Run<?, ?> run, final Collection<String> contentFiles) throws IOException
+    {
+        final List<String> references = contentFiles.stream()
+                .map(contentFile -> new File(contentFile).toPath())
+                .filter(contentFile -> this.directory.equals(contentFile.getParent()))
+                .map(contentFile -> contentFile.getFileName().toString())
+                .distinct()
+                .collect(Collectors.toList());
+
+        // several publishing steps of a build add up their references
+        Files.write(run.getRootDir().toPath().resolve(HtmlContentStore.REFERENCES_FILE), references, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Deletes the content files which are not referenced by any build of the job anymore
+     * 
+     * @param job Jenkins job
+     * @param deletedDirectories directories of the builds being deleted, whose references are ignored
+     * @return number of deleted content files
+     * @throws IOException if the store could not be swept
+     */
+    public int sweep(final Job<?, ?> job, final Collection<Path> deletedDirectories) throws IOException
+    {
+        final Lock sweepLock = this.lock.writeLock();
+
+        sweepLock.lock();
+        try
+        {
+            if (!Files.isDirectory(this.directory))
+            {
+                return 0;
+            }
+
+            // mark
+
+            final Set<String> referenced = new HashSet<>();
+
+            try (DirectoryStream<Path> buildDirectories = Files.newDirectoryStream(job.getBuildDir().toPath(), Files::isDirectory))
+            {
+                for (final Path buildDirectory : buildDirectories)
+                {
+                    final Path references = buildDirectory.resolve(HtmlContentStore.REFERENCES_FILE);
+
+                    if (!deletedDirectories.contains(buildDirectory) && Files.exists(references))
+                    {
+                        referenced.addAll(Files.readAllLines(references, StandardCharsets.UTF_8));
+                    }
+                }
+            }
+
+            // sweep
+
+            int deleted = 0;
+
+            try (DirectoryStream<Path> contentFiles = Files.newDirectoryStream(this.directory))
+            {
+                for (final Path contentFile : contentFiles)
+                {
+                    if (!referenced.contains(contentFile.getFileName().toString()) && Files.deleteIfExists(contentFile))
+                    {
+                        deleted++;
+                    }
+                }
+            }
+
+            return deleted;
+        } finally
+        {
+            sweepLock.unlock();
+        }
+    }
+
+    /**
+     * Sweeps the store asynchronously, once no build of the job is running nor publishing anymore
+     * 
+     * <p>
+     * The deletions happening before the sweep starts are coalesced into it, so that deleting several builds at
+     * once, e.g. on a log rotation, sweeps the store once.
+     * 
+     * @param job Jenkins job
+     * @param deletedDirectories directories of the builds being deleted
+     * @param executor executor of the sweep
+     * @param delay delay before the sweep, in seconds
+     */
+    void scheduleSweep(final Job<?, ?> job, final Collection<Path> deletedDirectories, final ScheduledExecutorService executor, final long delay)
+    {
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        HtmlContentStore.PENDING_SWEEPS.compute(this.directory, (key, pending) -> {
+            final Set<Path> directories = (pending == null) ? new HashSet<>() : pending;
+            directories.addAll(deletedDirectories);
+            scheduled.set(pending == null);
+            return directories;
+        });
+
+        if (scheduled.get())
+        {
+            executor.schedule(() -> this.sweepScheduled(job, executor, delay), delay, TimeUnit.SECONDS);
+        }
+    }
+
+    private void sweepScheduled(final Job<?, ?> job, final ScheduledExecutorService executor, final long delay)
+    {
+        final Set<Path> deletedDirectories = HtmlContentStore.PENDING_SWEEPS.remove(this.directory);
+        final Lock sweepLock = this.lock.writeLock();
+
+        // a running build may reference content files it did not record yet
+        if (HtmlContentStore.hasRunningBuild(job) || !sweepLock.tryLock())
+        {
+            this.scheduleSweep(job, deletedDirectories, executor, delay);
+            return;
+        }
+
+        try
+        {
+            final int deleted = this.sweep(job, deletedDirectories);
+            HtmlContentStore.LOGGER.fine(() -> String.format("Swept %d content files from the FitNesse HTML output store of %s", deleted, job.getFullName()));
+        } catch (final IOException e)
+        {
+            HtmlContentStore.LOGGER.log(Level.WARNING, String.format("Could not sweep the FitNesse HTML output store of %s", job.getFullName()), e);
+        } finally
+        {
+            sweepLock.unlock();
+        }
+    }
+
+    /**
+     * @param job Jenkins job
+     * @return {@code true} if a build of the job is running, looking only at the builds started after the last
+     *         completed one rather than loading all the builds of the job
+     */
+    private static boolean hasRunningBuild(final Job<?, ?> job)
+    {
+        final Run<?, ?> lastCompletedBuild = job.getLastCompletedBuild();
+
+        for (Run<?, ?> build = job.getLastBuild(); (build != null) && (build != lastCompletedBuild); build = build.getPreviousBuild())
+        {
+            if (build.isBuilding())
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Schedules the sweep of the store of a job when one of its builds is deleted
+     */
+    @Extension
+    public static class DeletedRunListener extends RunListener<Run<?, ?>>
+    {
+
+        /** {@inheritDoc} */
+        @Override
+        public void onDeleted(final Run<?, ?> run)
+        {
+            final Job<?, ?> job = run.getParent();
+
+            HtmlContentStore.forJob(job).scheduleSweep(job, Collections.singleton(run.getRootDir().toPath()), Timer.get(), HtmlContentStore.SWEEP_DELAY);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.Adler32;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import hudson.model.Job;
+import hudson.model.Run;
+
+/**
+ * Preset dictionaries of the Deflate compression of the HTML output of the pages, trained per job
+ * 
+ * <p>
+ * The dictionaries are stored in the job directory, each one in a file named after its identifier, i.e. its
+ * Adler-32 checksum, which the Deflate (zlib) streams compressed with it carry in their header. A dictionary is
+ * trained from the output of a build, and retrained periodically; the previous dictionaries are kept for the
+ * output of the previous builds to remain readable.
+ * 
+ */
+public class HtmlOutputDictionary
+{
+
+    /** Name of the dictionaries directory, relative to the job directory */
+    private static final String DICTIONARIES_DIRECTORY = "fitnesse-html-dictionaries";
+
+    /** Name of the file holding the identifier of the current dictionary and the build it was trained from */
+    private static final String CURRENT_FILE = "current";
+
+    /** Maximum number of outputs a dictionary is trained from */
+    public static final int SAMPLE_SIZE = 100;
+
+    /** Maximum length of the beginning of an output a dictionary is trained from, in bytes */
+    public static final int SAMPLE_LENGTH = 64 * 1024;
+
+    /** Number of builds after which the current dictionary is retrained */
+    private static final int RETRAINING_INTERVAL = 100;
+
+    private final Path directory;
+
+    /**
+     * Constructor
+     * 
+     * @param directory directory where the dictionaries are stored
+     */
+    public HtmlOutputDictionary(final Path directory)
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * @param job Jenkins job
+     * @return the dictionaries of the given job
+     */
+    public static HtmlOutputDictionary forJob(final Job<?, ?> job)
+    {
+        return new HtmlOutputDictionary(new File(job.getRootDir(), HtmlOutputDictionary.DICTIONARIES_DIRECTORY).toPath());
+    }
+
+    /**
+     * @param dictionary dictionary
+     * @return identifier of the dictionary, as found in the header of the streams compressed with it
+     */
+    public static int getId(final byte[] dictionary)
+    {
+        final Adler32 checksum = new Adler32();
+        checksum.update(dictionary, 0, dictionary.length);
+
+        return (int) checksum.getValue();
+    }
+
+    /**
+     * @return the current dictionary, or {@code null} if none was trained yet
+     * @throws IOException if the dictionary could not be read
+     */
+    public byte[] getCurrent() throws IOException
+    {
+        final String[] current = this.readCurrent();
+
+        return (current == null) ? null : this.get(Integer.parseUnsignedInt(current[0], 16));
+    }
+
+    /**
+     * @param id identifier of a dictionary
+     * @return the dictionary
+     * @throws IOException if the dictionary does not exist or could not be read
+     */
+    public byte[] get(final int id) throws IOException
+    {
+        return Files.readAllBytes(this.directory.resolve(HtmlOutputDictionary.getFileName(id)));
+    }
+
+    /**
+     * @param run build
+     * @return whether a dictionary should be trained from the output of the given build
+     * @throws IOException if the current dictionary could not be read
+     */
+    public boolean needsTraining(final Run<?, ?> run) throws IOException
+    {
+        final String[] current = this.readCurrent();
+
+        return (current == null) || ((run.getNumber() - Integer.parseInt(current[1])) >= HtmlOutputDictionary.RETRAINING_INTERVAL);
+    }
+
+    /**
+     * Trains a dictionary from the output of a build, and makes it the current one
+     * 
+     * @param run build
+     * @param samples sample of the HTML output of the build
+     * @return the trained dictionary, or {@code null} if the outputs have too little in common to train one
+     * @throws IOException if the dictionary could not be stored
+     */
+    public byte[] train(final Run<?, ?> run, final List<String> samples) throws IOException
+    {
+        final byte[] dictionary = DictionaryTrainer.train(
+                samples.stream().map(sample -> sample.getBytes(StandardCharsets.UTF_8)).collect(Collectors.toList()),
+                DictionaryTrainer.MAX_SIZE);
+
+        if (dictionary.length == 0)
+        {
+            return null;
+        }
+
+        final int id = HtmlOutputDictionary.getId(dictionary);
+
+        synchronized (HtmlOutputDictionary.class)
+        {
+            Files.createDirectories(this.directory);
+            Files.write(this.directory.resolve(HtmlOutputDictionary.getFileName(id)), dictionary);
+
+            // the dictionary is complete before it becomes the current one
+            final Path current = Files.createTempFile(this.directory, HtmlOutputDictionary.CURRENT_FILE, ".tmp");
+            Files.write(current, String.format("%08x %d", id, run.getNumber()).getBytes(StandardCharsets.UTF_8));
+            Files.move(current, this.directory.resolve(HtmlOutputDictionary.CURRENT_FILE), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return dictionary;
+    }
+
+    /**
+     * Decompresses a Deflate (zlib) stream compressed with one of the dictionaries
+     * 
+     * @param in compressed stream
+     * @return the decompressed stream
+     */
+    public InputStream inflate(final InputStream in)
+    {
+        return new DictionaryInflaterInputStream(in);
+    }
+
+    private static String getFileName(final int id)
+    {
+        return String.format("%08x.dict", id);
+    }
+
+    private String[] readCurrent() throws IOException
+    {
+        final Path current = this.directory.resolve(HtmlOutputDictionary.CURRENT_FILE);
+
+        if (!Files.exists(current))
+        {
+            return null;
+        }
+
+        return new String(Files.readAllBytes(current), StandardCharsets.UTF_8).trim().split(" ");
+    }
+
+    /**
+     * Sets the dictionary requested by the stream header once the inflater needs it
+     */
+    private final class DictionaryInflaterInputStream extends InflaterInputStream
+    {
+
+        DictionaryInflaterInputStream(final InputStream in)
+        {
+            super(in, new Inflater());
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException
+        {
+            final int read = super.read(b, off, len);
+
+            if ((read < 0) && this.inf.needsDictionary())
+            {
+                try
+                {
+                    this.inf.setDictionary(HtmlOutputDictionary.this.get(this.inf.getAdler()));
+                } catch (final IllegalArgumentException e)
+                {
+                    throw new ZipException("Invalid compression dictionary");
+                }
+
+                return super.read(b, off, len);
+            }
+
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            try
+            {
+                super.close();
+            } finally
+            {
+                // the inflater was not created by the parent stream, which does not release it
+                this.inf.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Hexadecimal SHA-256 digests of strings and byte arrays
+ * 
+ */
+public final class Digests
+{
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * @param content the content to digest
+     * @return the hexadecimal SHA-256 digest of the UTF-8 representation of the content
+     */
+    public static String sha256(final String content)
+    {
+        return Digests.sha256(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param content the content to digest
+     * @return the hexadecimal SHA-256 digest of the content
+     */
+    public static String sha256(final byte[] content)
+    {
+        return Digests.toHex(Digests.newSha256().digest(content));
+    }
+
+    /**
+     * @return a new SHA-256 {@link MessageDigest}, for incremental digests
+     */
+    public static MessageDigest newSha256()
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e)
+        {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param digest a raw digest
+     * @return the hexadecimal representation of the digest
+     */
+    public static String toHex(final byte[] digest)
+    {
+        final char[] hex = new char[digest.length * 2];
+
+        for (int i = 0; i < digest.length; i++)
+        {
+            hex[2 * i] = Digests.HEX_DIGITS[(digest[i] >> 4) & 0xF];
+            hex[(2 * i) + 1] = Digests.HEX_DIGITS[digest[i] & 0xF];
+        }
+
+        return new String(hex);
+    }
+
+    /** no-op */
+    private Digests()
+    {
+        // no-op
+    }
+}
@@ -1,5 +1,12 @@
 $(function(){
 
+/**
+ * Page output, streamed from the build once the page is displayed
+ */
+$("#fitnesse_results[data-content-url]").each(function () {
+	$(this).load($(this).attr("data-content-url"));
+});
+
 /**
  *  Scenario's and Exceptions (after test execution)
  */
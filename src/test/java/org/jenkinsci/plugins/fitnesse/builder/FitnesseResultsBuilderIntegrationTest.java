@@ -22,6 +22,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -30,6 +31,7 @@ import java.util.stream.Collectors;
 
 import org.hamcrest.Matchers;
 import org.jenkinsci.plugins.fitnesse.builder.FitnesseResultsBuilder.TargetType;
+import org.jenkinsci.plugins.fitnesse.builder.actions.FitnesseWarmUpAction;
 import org.jenkinsci.plugins.fitnesse.util.MockFitnesseResponseDispatcher;
 import org.jenkinsci.plugins.fitnesse.util.TestUtils;
 import org.junit.After;
@@ -278,4 +280,64 @@ public class FitnesseResultsBuilderIntegrationTest
                 expectedResults,
                 TestUtils.gatherWorkspaceOutputFiles(filenameOutputFormat, build.getWorkspace()));
     }
+
+    /**
+     * Execute a list of FitNesse targets after warm-up pages, whose results are discarded
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testRunWithWarmUpPages() throws Exception
+    {
+        // FitNesse build step configuration
+        final URL remoteFitnesseUrl = this.mockServer.url("/").url();
+        final String warmUpPage = "This.Is.A.WarmUp.Page";
+        final String targetPage = "This.Is.A.Fake.Page";
+        final String filenameOutputFormat = "%s-results.xml";
+
+        final FitnesseResultsBuilder builder = new FitnesseResultsBuilder();
+        builder.setRemoteFitnesseUrl(remoteFitnesseUrl);
+        builder.setHttpTimeout(120);
+        builder.setTargetType(TargetType.PAGES.getName());
+        builder.setTargetPages(targetPage);
+        builder.setWarmUpPages(warmUpPage);
+        builder.setIncludeHtmlOutput(true);
+        builder.setFilenameOutputFormat(filenameOutputFormat);
+
+        // mock remote Fitnesse host HTTP responses
+        final String expectedResponse = "Coucou";
+
+        final Map<String, String> expectedResults = Collections.singletonMap(String.format(filenameOutputFormat, targetPage), expectedResponse);
+
+        final Map<String, String> mockResponses = new HashMap<>();
+        mockResponses.put(warmUpPage, "Warm-up");
+        mockResponses.put(targetPage, expectedResponse);
+
+        this.mockServer.setDispatcher(new MockFitnesseResponseDispatcher(mockResponses));
+
+        // create a test FitNesse project
+        final FreeStyleProject project = this.jenkinsRule.createFreeStyleProject();
+
+        // add the FitNesse build step to the project
+        project.getBuildersList().add(builder);
+
+        // launch the build and check its result
+        final FreeStyleBuild build = this.jenkinsRule.buildAndAssertSuccess(project);
+
+        Assert.assertEquals("Two requests should have been made", 2, this.mockServer.getRequestCount());
+
+        Assert.assertEquals("The warm-up page should have been requested first",
+                "/This.Is.A.WarmUp.Page?test&includehtml&format=xml&nochunk",
+                this.mockServer.takeRequest().getPath());
+
+        Assert.assertEquals("The warm-up results should have been discarded",
+                expectedResults,
+                TestUtils.gatherWorkspaceOutputFiles(filenameOutputFormat, build.getWorkspace()));
+
+        final FitnesseWarmUpAction warmUpAction = build.getAction(FitnesseWarmUpAction.class);
+
+        Assert.assertNotNull("The warm-up should have been recorded", warmUpAction);
+        Assert.assertEquals(1, warmUpAction.getPages());
+        Assert.assertTrue("The warm-up duration should have been recorded", warmUpAction.getDuration() >= 0);
+    }
 }
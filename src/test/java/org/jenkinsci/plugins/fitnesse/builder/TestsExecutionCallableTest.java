@@ -18,19 +18,36 @@ package org.jenkinsci.plugins.fitnesse.builder;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.jenkinsci.plugins.fitnesse.builder.TestsExecutionCallable;
 import org.jenkinsci.plugins.fitnesse.builder.FitnesseResultsBuilder.TargetType;
+import org.jenkinsci.plugins.fitnesse.builder.cache.PageContentHasher;
+import org.jenkinsci.plugins.fitnesse.builder.history.HistoryWindow;
+import org.jenkinsci.plugins.fitnesse.builder.journal.ExecutionJournal;
+import org.jenkinsci.plugins.fitnesse.builder.rerun.FirstAttempt;
 import org.jenkinsci.plugins.fitnesse.builder.runner.FitnessePageRunner;
 import org.jenkinsci.plugins.fitnesse.builder.runner.FitnesseResponse;
+import org.jenkinsci.plugins.fitnesse.builder.runner.ResourceGroup;
+import org.jenkinsci.plugins.fitnesse.builder.runner.SuiteFilter;
 import org.jenkinsci.plugins.fitnesse.builder.runner.exceptions.TestExecutionException;
+import org.jenkinsci.plugins.fitnesse.builder.wiki.WikiIndex;
+import org.jenkinsci.plugins.fitnesse.builder.wiki.WikiIndexer;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -117,6 +134,87 @@ public class TestsExecutionCallableTest
         Assert.assertEquals(expectedResponse.getContent(), actualResponse.getContent());
     }
 
+    /**
+     * Import the test history of a suite, whose latest record references the records of its pages
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testInvokeWithSuiteTargetFromHistory() throws Exception
+    {
+        // given
+
+        final String suiteRecord = new String(Files.readAllBytes(Paths.get(this.getClass()
+                .getResource("/org/jenkinsci/plugins/fitnesse/builder/history/suite-history-record.xml").toURI())), StandardCharsets.UTF_8);
+
+        final TaskListener mockListener = Mockito.mock(TaskListener.class);
+        Mockito.when(mockListener.getLogger()).thenReturn(System.out);
+
+        final FitnessePageRunner mockRunner = Mockito.mock(FitnessePageRunner.class);
+        Mockito.when(mockRunner.fetchLatestResult("SuiteName")).thenReturn(CompletableFuture.completedFuture(new FitnesseResponse("SuiteName", suiteRecord)));
+        Mockito.when(mockRunner.fetchResult("SuiteName.FirstPage", "20190301100001"))
+                .thenReturn(CompletableFuture.completedFuture(new FitnesseResponse("SuiteName.FirstPage", "first")));
+        Mockito.when(mockRunner.fetchResult("SuiteName.SecondPage", "20190301100002"))
+                .thenReturn(CompletableFuture.completedFuture(new FitnesseResponse("SuiteName.SecondPage", "second")));
+
+        final TestsExecutionCallable callable = new TestsExecutionCallable(mockRunner, mockListener, TargetType.SUITE.getName(), null, null, "SuiteName");
+        callable.setHistoryWindow(new HistoryWindow(0));
+
+        // when
+
+        final List<FitnesseResponse> responses = callable.invoke(this.tempFolder.newFolder(), null);
+
+        // then
+
+        Mockito.verify(mockRunner, Mockito.never()).executeSuite(Mockito.anyString());
+
+        Assert.assertEquals(2, responses.size());
+        Assert.assertEquals("SuiteName.FirstPage", responses.get(0).getPage());
+        Assert.assertEquals("first", responses.get(0).getContent());
+        Assert.assertEquals("SuiteName.SecondPage", responses.get(1).getPage());
+        Assert.assertEquals("second", responses.get(1).getContent());
+    }
+
+    /**
+     * Invoke the callable with a suite target type partitioned by tags
+     * 
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testInvokeWithPartitionedSuiteTarget() throws IOException, InterruptedException
+    {
+        // given
+
+        final List<SuiteFilter> partitions = SuiteFilter.partition(Collections.singletonList("smoke"), Collections.emptyList());
+
+        final TaskListener mockListener = Mockito.mock(TaskListener.class);
+        Mockito.when(mockListener.getLogger()).thenReturn(System.out);
+
+        final FitnessePageRunner mockRunner = Mockito.mock(FitnessePageRunner.class);
+
+        for (final SuiteFilter partition : partitions)
+        {
+            Mockito.when(mockRunner.executeSuite("TestSuite", partition))
+                    .thenReturn(CompletableFuture.completedFuture(new FitnesseResponse(partition.getResultName("TestSuite"), "foo")));
+        }
+
+        final TestsExecutionCallable callable = new TestsExecutionCallable(mockRunner, mockListener, TargetType.SUITE.getName(), null, null, "TestSuite");
+        callable.setSuiteFilters(partitions);
+
+        // when
+
+        final List<FitnesseResponse> responses = callable.invoke(null, null);
+
+        // then
+
+        Mockito.verify(mockRunner, Mockito.never()).executeSuite("TestSuite");
+
+        Assert.assertEquals(2, responses.size());
+        Assert.assertEquals("TestSuite-smoke", responses.get(0).getPage());
+        Assert.assertEquals("TestSuite-" + SuiteFilter.UNTAGGED_PARTITION, responses.get(1).getPage());
+    }
+
     /**
      * Invoke the callable with a pages target type
      * 
@@ -265,4 +363,201 @@ public class TestsExecutionCallableTest
             Assert.assertEquals(expectedResponse.getContent(), actualResponse.getContent());
         }
     }
+
+    /**
+     * Invoke the callable with a pages target type, reusing the result of the unchanged pages
+     * 
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testInvokeWithPagesTargetAndResultReuse() throws IOException, InterruptedException
+    {
+        // given
+
+        final File workspace = this.tempFolder.newFolder();
+        final Path wikiRoot = Files.createDirectories(workspace.toPath().resolve("FitNesseRoot/SampleSuite"));
+
+        Files.write(wikiRoot.resolve("SetUp.wiki"), "|import|".getBytes());
+        Files.write(wikiRoot.resolve("UnchangedPage.wiki"), "|script|".getBytes());
+        Files.write(wikiRoot.resolve("ChangedPage.wiki"), "|script|".getBytes());
+
+        final WikiIndex previousIndex = WikiIndexer.index(workspace.toPath().resolve("FitNesseRoot"), null);
+        Files.write(wikiRoot.resolve("ChangedPage.wiki"), "|script|check|".getBytes());
+
+        final String targetPages = String.join("\n", "SampleSuite.UnchangedPage", "SampleSuite.ChangedPage");
+
+        final TaskListener mockListener = Mockito.mock(TaskListener.class);
+        Mockito.when(mockListener.getLogger()).thenReturn(System.out);
+
+        final FitnessePageRunner mockRunner = Mockito.mock(FitnessePageRunner.class);
+        Mockito.when(mockRunner.executePage("SampleSuite.ChangedPage")).thenReturn(CompletableFuture.completedFuture(new FitnesseResponse("SampleSuite.ChangedPage", "foo")));
+
+        final Map<String, String> reusableContentHashes = new HashMap<>();
+        reusableContentHashes.put("SampleSuite.UnchangedPage", previousIndex.getDependencyHash("SampleSuite.UnchangedPage"));
+        reusableContentHashes.put("SampleSuite.ChangedPage", previousIndex.getDependencyHash("SampleSuite.ChangedPage"));
+
+        final TestsExecutionCallable callable = new TestsExecutionCallable(mockRunner, mockListener, TargetType.PAGES.getName(), null, targetPages, null);
+        callable.setResultReuse(new PageContentHasher(mockRunner, "FitNesseRoot"), reusableContentHashes);
+
+        // when
+
+        final List<FitnesseResponse> responses = callable.invoke(workspace, null);
+
+        // then
+
+        Mockito.verify(mockRunner).executePage("SampleSuite.ChangedPage");
+        Mockito.verify(mockRunner, Mockito.never()).executePage("SampleSuite.UnchangedPage");
+        Mockito.verify(mockRunner, Mockito.never()).fetchPageContent(Mockito.anyString());
+
+        Assert.assertEquals(2, responses.size());
+
+        final Map<String, FitnesseResponse> responsesByPage = new HashMap<>();
+        responses.forEach(response -> responsesByPage.put(response.getPage(), response));
+
+        Assert.assertTrue(responsesByPage.get("SampleSuite.UnchangedPage").isCached());
+        Assert.assertFalse(responsesByPage.get("SampleSuite.ChangedPage").isCached());
+        Assert.assertEquals("foo", responsesByPage.get("SampleSuite.ChangedPage").getContent());
+        Assert.assertEquals(WikiIndexer.index(workspace.toPath().resolve("FitNesseRoot"), null).getDependencyHash("SampleSuite.ChangedPage"),
+                responsesByPage.get("SampleSuite.ChangedPage").getContentHash());
+    }
+
+    /**
+     * Rerun failed pages of an exclusive resource group: the reruns are dispatched within the permits of the group,
+     * whatever the rerun concurrency level
+     * 
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testInvokeRerunsFailedPagesWithinResourceGroups() throws IOException, InterruptedException
+    {
+        // given
+
+        final String failedContent = TestsExecutionCallableTest.readResource("failed-test-results.xml");
+        final String successfulContent = TestsExecutionCallableTest.readResource("successful-test-results.xml");
+        final List<String> pages = Arrays.asList("FrontPage.Db.PageOne", "FrontPage.Db.PageTwo");
+
+        final TaskListener mockListener = Mockito.mock(TaskListener.class);
+        Mockito.when(mockListener.getLogger()).thenReturn(System.out);
+
+        final FitnessePageRunner mockRunner = Mockito.mock(FitnessePageRunner.class);
+        Mockito.when(mockRunner.getConcurrencyLevel()).thenReturn(2);
+
+        final FitnessePageRunner mockRerunRunner = Mockito.mock(FitnessePageRunner.class);
+        Mockito.when(mockRerunRunner.getConcurrencyLevel()).thenReturn(2);
+
+        final AtomicInteger runningReruns = new AtomicInteger();
+        final AtomicInteger maxRunningReruns = new AtomicInteger();
+
+        for (final String page : pages)
+        {
+            Mockito.when(mockRunner.executePage(page)).thenReturn(CompletableFuture.completedFuture(new FitnesseResponse(page, failedContent)));
+            Mockito.when(mockRerunRunner.executePage(page)).thenAnswer(invocation -> CompletableFuture.supplyAsync(() -> {
+                maxRunningReruns.accumulateAndGet(runningReruns.incrementAndGet(), Math::max);
+                try
+                {
+                    TimeUnit.MILLISECONDS.sleep(100);
+                } catch (final InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                runningReruns.decrementAndGet();
+                return new FitnesseResponse(page, successfulContent);
+            }));
+        }
+
+        final TestsExecutionCallable callable = new TestsExecutionCallable(mockRunner, mockListener, TargetType.PAGES.getName(), null, String.join("\n", pages), null);
+        callable.setResourceGroups(ResourceGroup.parse("db:1:FrontPage.Db.*"), null);
+        callable.setRerunRunner(mockRerunRunner);
+
+        // when
+
+        final List<FitnesseResponse> responses = callable.invoke(this.tempFolder.newFolder(), null);
+
+        // then
+
+        for (final String page : pages)
+        {
+            Mockito.verify(mockRerunRunner).executePage(page);
+        }
+
+        Assert.assertEquals(1, maxRunningReruns.get());
+        Assert.assertEquals(2, responses.size());
+        Assert.assertTrue(responses.stream().noneMatch(response -> FirstAttempt.isFailed(response.getContent())));
+    }
+
+    /**
+     * Interrupt the rerun of a failed page: its first attempt is not journaled, for the page to be run again when
+     * the build is resumed
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testInvokeInterruptedBeforeRerun() throws Exception
+    {
+        // given
+
+        final File workspace = this.tempFolder.newFolder();
+        final String failedPage = "FrontPage.FailedPage";
+        final String passedPage = "FrontPage.PassedPage";
+        final ExecutionJournal journal = new ExecutionJournal("0123456789abcdef", "fitnesse-results-%s.xml", 12);
+
+        final TaskListener mockListener = Mockito.mock(TaskListener.class);
+        Mockito.when(mockListener.getLogger()).thenReturn(System.out);
+
+        final FitnessePageRunner mockRunner = Mockito.mock(FitnessePageRunner.class);
+        Mockito.when(mockRunner.executePage(failedPage)).thenReturn(CompletableFuture.completedFuture(
+                new FitnesseResponse(failedPage, TestsExecutionCallableTest.readResource("failed-test-results.xml"))));
+        Mockito.when(mockRunner.executePage(passedPage)).thenReturn(CompletableFuture.completedFuture(
+                new FitnesseResponse(passedPage, TestsExecutionCallableTest.readResource("successful-test-results.xml"))));
+
+        // the rerun never completes
+        final CountDownLatch rerunStarted = new CountDownLatch(1);
+        final FitnessePageRunner mockRerunRunner = Mockito.mock(FitnessePageRunner.class);
+        Mockito.when(mockRerunRunner.executePage(failedPage)).thenAnswer(invocation -> {
+            rerunStarted.countDown();
+            return new CompletableFuture<FitnesseResponse>();
+        });
+
+        final TestsExecutionCallable callable = new TestsExecutionCallable(mockRunner, mockListener, TargetType.PAGES.getName(), null,
+                String.join("\n", failedPage, passedPage), null);
+        callable.setJournal(journal);
+        callable.setRerunRunner(mockRerunRunner);
+
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final Thread build = new Thread(() -> {
+            try
+            {
+                callable.invoke(workspace, null);
+            } catch (final Throwable e)
+            {
+                error.set(e);
+            }
+        });
+
+        // when
+
+        build.start();
+        Assert.assertTrue(rerunStarted.await(10, TimeUnit.SECONDS));
+        build.interrupt();
+        build.join(10000);
+
+        // then
+
+        Assert.assertTrue(error.get() instanceof InterruptedException);
+        Assert.assertEquals(Collections.singleton(passedPage), journal.readCompletedPages(workspace));
+    }
+
+    private static String readResource(final String name) throws IOException
+    {
+        try
+        {
+            return new String(Files.readAllBytes(Paths.get(TestsExecutionCallableTest.class
+                    .getResource("/org/jenkinsci/plugins/fitnesse/publisher/" + name).toURI())), StandardCharsets.UTF_8);
+        } catch (final URISyntaxException e)
+        {
+            throw new IOException(e);
+        }
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.jenkinsci.plugins.fitnesse.builder.runner.FitnessePageRunner;
+import org.jenkinsci.plugins.fitnesse.builder.runner.FitnesseResponse;
+import org.jenkinsci.plugins.fitnesse.builder.runner.exceptions.TestExecutionException;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import hudson.model.TaskListener;
+
+/**
+ * {@link WarmUpCallable} tests
+ * 
+ */
+public class WarmUpCallableTest
+{
+
+    /** Enables the creation of temporary files/folders during tests */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Run warm-up pages, one of which fails: their results are discarded and the failure is only logged
+     * 
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testInvokeDiscardsResults() throws IOException, InterruptedException
+    {
+        // given
+
+        final File workspace = this.tempFolder.newFolder();
+        final String successPage = "WarmUp.SuccessPage";
+        final String failurePage = "WarmUp.FailurePage";
+
+        final CompletableFuture<FitnesseResponse> failedFuture = new CompletableFuture<>();
+        failedFuture.completeExceptionally(new TestExecutionException("Connection refused"));
+
+        final ByteArrayOutputStream log = new ByteArrayOutputStream();
+        final TaskListener mockListener = Mockito.mock(TaskListener.class);
+        Mockito.when(mockListener.getLogger()).thenReturn(new PrintStream(log, true, StandardCharsets.UTF_8.name()));
+
+        final FitnessePageRunner mockRunner = Mockito.mock(FitnessePageRunner.class);
+        Mockito.when(mockRunner.executePage(successPage)).thenReturn(CompletableFuture.completedFuture(new FitnesseResponse(successPage, "foo")));
+        Mockito.when(mockRunner.executePage(failurePage)).thenReturn(failedFuture);
+
+        final WarmUpCallable callable = new WarmUpCallable(mockRunner, Arrays.asList(successPage, failurePage), mockListener);
+
+        // when
+
+        final long duration = callable.invoke(workspace, null);
+
+        // then
+
+        Mockito.verify(mockRunner).executePage(successPage);
+        Mockito.verify(mockRunner).executePage(failurePage);
+        Mockito.verifyNoMoreInteractions(mockRunner);
+
+        Assert.assertTrue(duration >= 0);
+        Assert.assertEquals("No result should have been written", 0, workspace.list().length);
+        Assert.assertTrue(new String(log.toByteArray(), StandardCharsets.UTF_8)
+                .contains(String.format("Warm-up page \"%s\" failed: Connection refused", failurePage)));
+    }
+
+    /**
+     * Check that the duration of the warm-up covers the execution of its pages
+     * 
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testInvokeMeasuresDuration() throws IOException, InterruptedException
+    {
+        // given
+
+        final long pageDuration = 200;
+        final String page = "WarmUp.SlowPage";
+
+        final TaskListener mockListener = Mockito.mock(TaskListener.class);
+        Mockito.when(mockListener.getLogger()).thenReturn(System.out);
+
+        final FitnessePageRunner mockRunner = Mockito.mock(FitnessePageRunner.class);
+        // the page starts when the warm-up requests it
+        Mockito.when(mockRunner.executePage(page)).thenAnswer(invocation -> CompletableFuture.supplyAsync(() -> {
+            try
+            {
+                TimeUnit.MILLISECONDS.sleep(pageDuration);
+            } catch (final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            return new FitnesseResponse(page, "foo");
+        }));
+
+        final WarmUpCallable callable = new WarmUpCallable(mockRunner, Collections.singletonList(page), mockListener);
+
+        // when
+
+        final long duration = callable.invoke(this.tempFolder.newFolder(), null);
+
+        // then
+
+        Assert.assertTrue(String.format("The duration %d ms should cover the page execution", duration), duration >= pageDuration);
+    }
+}
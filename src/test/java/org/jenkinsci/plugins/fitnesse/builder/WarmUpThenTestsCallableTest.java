@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.jenkinsci.plugins.fitnesse.builder.FitnesseResultsBuilder.TargetType;
+import org.jenkinsci.plugins.fitnesse.builder.runner.FitnessePageRunner;
+import org.jenkinsci.plugins.fitnesse.builder.runner.FitnesseResponse;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import hudson.model.TaskListener;
+
+/**
+ * {@link WarmUpThenTestsCallable} tests
+ * 
+ */
+public class WarmUpThenTestsCallableTest
+{
+
+    /** Enables the creation of temporary files/folders during tests */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Test that the tests start once the warm-up completed, only their responses being returned
+     * 
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testInvoke() throws IOException, InterruptedException
+    {
+        // given
+
+        final String warmUpPage = "WarmUp.Page";
+        final String testPage = "TestPage";
+        final List<String> executedPages = new CopyOnWriteArrayList<>();
+
+        final TaskListener mockListener = Mockito.mock(TaskListener.class);
+        Mockito.when(mockListener.getLogger()).thenReturn(System.out);
+
+        final FitnessePageRunner mockRunner = Mockito.mock(FitnessePageRunner.class);
+
+        for (final String page : Arrays.asList(warmUpPage, testPage))
+        {
+            Mockito.when(mockRunner.executePage(page)).thenAnswer(invocation -> {
+                executedPages.add(page);
+                return CompletableFuture.completedFuture(new FitnesseResponse(page, "foo"));
+            });
+        }
+
+        final WarmUpCallable warmUp = new WarmUpCallable(mockRunner, Collections.singletonList(warmUpPage), mockListener);
+        final TestsExecutionCallable tests = new TestsExecutionCallable(mockRunner, mockListener, TargetType.PAGES.getName(), null, testPage, null);
+
+        // when
+
+        final WarmUpThenTestsCallable.Result result = new WarmUpThenTestsCallable(warmUp, tests, mockListener).invoke(this.tempFolder.newFolder(), null);
+
+        // then
+
+        Assert.assertEquals(Arrays.asList(warmUpPage, testPage), executedPages);
+        Assert.assertTrue(result.getWarmUpDuration() >= 0);
+        Assert.assertEquals(1, result.getResponses().size());
+        Assert.assertEquals(testPage, result.getResponses().get(0).getPage());
+    }
+
+    /**
+     * Test that the tests run directly when there is no warm-up
+     * 
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testInvokeWithoutWarmUp() throws IOException, InterruptedException
+    {
+        // given
+
+        final String testPage = "TestPage";
+
+        final TaskListener mockListener = Mockito.mock(TaskListener.class);
+        Mockito.when(mockListener.getLogger()).thenReturn(System.out);
+
+        final FitnessePageRunner mockRunner = Mockito.mock(FitnessePageRunner.class);
+        Mockito.when(mockRunner.executePage(testPage)).thenReturn(CompletableFuture.completedFuture(new FitnesseResponse(testPage, "foo")));
+
+        final TestsExecutionCallable tests = new TestsExecutionCallable(mockRunner, mockListener, TargetType.PAGES.getName(), null, testPage, null);
+
+        // when
+
+        final WarmUpThenTestsCallable.Result result = new WarmUpThenTestsCallable(null, tests, mockListener).invoke(this.tempFolder.newFolder(), null);
+
+        // then
+
+        Assert.assertEquals(0, result.getWarmUpDuration());
+        Assert.assertEquals(1, result.getResponses().size());
+    }
+}
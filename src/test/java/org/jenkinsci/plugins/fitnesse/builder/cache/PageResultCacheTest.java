@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * {@link PageResultCache} tests
+ * 
+ */
+public class PageResultCacheTest
+{
+
+    /** Enables the creation of temporary files/folders during tests */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Store a passing result, and reuse it for the same system under test only
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testUpdateWithPassingResult() throws Exception
+    {
+        // given
+
+        final Path directory = this.tempFolder.newFolder().toPath();
+        final String content = this.readResource("successful-test-results.xml");
+
+        final PageResultCache cache = new PageResultCache(directory);
+
+        // when
+
+        cache.update("SamplePage", "abc", "sut-1.0", 12, content);
+        cache.save();
+
+        // then
+
+        final PageResultCache reopenedCache = new PageResultCache(directory);
+        final Map<String, String> reusableContentHashes = reopenedCache.getReusableContentHashes("sut-1.0");
+
+        Assert.assertEquals(1, reusableContentHashes.size());
+        Assert.assertEquals("abc", reusableContentHashes.get("SamplePage"));
+        Assert.assertTrue(reopenedCache.getReusableContentHashes("sut-1.1").isEmpty());
+
+        Assert.assertEquals(12, reopenedCache.getEntry("SamplePage").getBuildNumber());
+        Assert.assertTrue(reopenedCache.getContent("SamplePage").contains("<cachedFromBuild>12</cachedFromBuild>"));
+    }
+
+    /**
+     * A failing result is not stored, and evicts the previously stored one
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testUpdateWithFailingResult() throws Exception
+    {
+        // given
+
+        final PageResultCache cache = new PageResultCache(this.tempFolder.newFolder().toPath());
+        cache.update("SamplePage", "abc", "sut-1.0", 12, this.readResource("successful-test-results.xml"));
+
+        // when
+
+        cache.update("SamplePage", "abc", "sut-1.0", 13, this.readResource("failed-test-results.xml"));
+
+        // then
+
+        Assert.assertNull(cache.getEntry("SamplePage"));
+        Assert.assertTrue(cache.getReusableContentHashes("sut-1.0").isEmpty());
+    }
+
+    /**
+     * The builds sharing the cache merge their updates, and a build whose reused result was evicted by another
+     * one does not find it anymore
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testConcurrentBuilds() throws Exception
+    {
+        // given
+
+        final Path directory = this.tempFolder.newFolder().toPath();
+        final PageResultCache initialCache = new PageResultCache(directory);
+        initialCache.update("SamplePage", "abc", "sut-1.0", 11, this.readResource("successful-test-results.xml"));
+        initialCache.save();
+
+        final PageResultCache firstBuildCache = new PageResultCache(directory);
+        final PageResultCache secondBuildCache = new PageResultCache(directory);
+
+        // when
+
+        firstBuildCache.update("FirstPage", "def", "sut-1.0", 12, this.readResource("successful-test-results.xml"));
+        secondBuildCache.update("SecondPage", "ghi", "sut-1.0", 13, this.readResource("successful-test-results.xml"));
+        secondBuildCache.update("SamplePage", "abc", "sut-1.0", 13, this.readResource("failed-test-results.xml"));
+        secondBuildCache.save();
+        firstBuildCache.save();
+
+        // then
+
+        Assert.assertNull(firstBuildCache.getContent("SamplePage"));
+
+        final Map<String, String> reusableContentHashes = new PageResultCache(directory).getReusableContentHashes("sut-1.0");
+
+        Assert.assertEquals(2, reusableContentHashes.size());
+        Assert.assertEquals("def", reusableContentHashes.get("FirstPage"));
+        Assert.assertEquals("ghi", reusableContentHashes.get("SecondPage"));
+    }
+
+    private String readResource(final String name) throws Exception
+    {
+        // reuse the FitNesse responses of the publisher tests
+        final Path resource = Paths.get(this.getClass().getResource("/org/jenkinsci/plugins/fitnesse/publisher/" + name).toURI());
+
+        return new String(Files.readAllBytes(resource), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.history;
+
+import java.time.OffsetDateTime;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@link HistoryWindow} tests
+ *
+ */
+public class HistoryWindowTest
+{
+
+    /**
+     * A suite record is dated by its most recent page result
+     */
+    @Test
+    public void testGetResultDate()
+    {
+        // given
+
+        final String content = "<testResults>"
+                + "<result><date>2018-08-09T10:35:12+02:00</date></result>"
+                + "<result><date>2018-08-09T10:40:00+0200</date></result>"
+                + "</testResults>";
+
+        // when
+
+        final long resultDate = HistoryWindow.getResultDate(content);
+
+        // then
+
+        Assert.assertEquals(OffsetDateTime.parse("2018-08-09T08:40:00Z").toInstant().toEpochMilli(), resultDate);
+    }
+
+    /**
+     * Only the records dated within the window are imported
+     */
+    @Test
+    public void testContains()
+    {
+        // given
+
+        final HistoryWindow window = new HistoryWindow(OffsetDateTime.parse("2018-08-09T00:00:00Z").toInstant().toEpochMilli());
+
+        // then
+
+        Assert.assertTrue(window.contains("<result><date>2018-08-09T10:35:12+02:00</date></result>"));
+        Assert.assertFalse(window.contains("<result><date>2018-08-08T10:35:12+02:00</date></result>"));
+        Assert.assertFalse(window.contains("<result></result>"));
+        Assert.assertTrue(HistoryWindow.lastHours(0).contains("<result></result>"));
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.history;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@link SuiteHistoryRecord} tests
+ *
+ */
+public class SuiteHistoryRecordTest
+{
+
+    /**
+     * Read the references to the page records of a suite record
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testGetPageResultDates() throws Exception
+    {
+        // given
+
+        final String content = new String(Files.readAllBytes(Paths.get(this.getClass().getResource("suite-history-record.xml").toURI())), StandardCharsets.UTF_8);
+
+        // when
+
+        final Map<String, String> resultDates = SuiteHistoryRecord.getPageResultDates(content);
+
+        // then
+
+        Assert.assertTrue(SuiteHistoryRecord.isSuiteRecord(content));
+        Assert.assertFalse(SuiteHistoryRecord.isSuiteRecord("<testResults><result/></testResults>"));
+        Assert.assertEquals(Arrays.asList("SuiteName.FirstPage", "SuiteName.SecondPage"), new ArrayList<>(resultDates.keySet()));
+        Assert.assertEquals(Arrays.asList("20190301100001", "20190301100002"), new ArrayList<>(resultDates.values()));
+    }
+}
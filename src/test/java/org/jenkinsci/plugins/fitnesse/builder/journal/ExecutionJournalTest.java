@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jenkinsci.plugins.fitnesse.builder.runner.FitnesseResponse;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * {@link ExecutionJournal} tests
+ *
+ */
+public class ExecutionJournalTest
+{
+
+    /** Enables the creation of temporary files/folders during tests */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Record completed pages, then read them back from a rerun of the same step
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testRecordAndReadCompletedPages() throws IOException
+    {
+        // given
+
+        final File workspace = this.tempFolder.newFolder();
+        final ExecutionJournal journal = new ExecutionJournal("0123456789abcdef0123456789abcdef", "fitnesse-results-%s.xml", 12);
+
+        // when
+
+        journal.record(workspace, new FitnesseResponse("PassingPage", "<testResults><right>1</right><wrong>0</wrong><totalRunTimeInMillis>42</totalRunTimeInMillis></testResults>"));
+        journal.record(workspace, new FitnesseResponse("FailingPage", "<testResults><right>0</right><wrong>2</wrong></testResults>"));
+
+        // then
+
+        Assert.assertEquals(".fitnesse-journal-0123456789abcdef", journal.getFileName());
+        Assert.assertTrue(new File(workspace, "fitnesse-results-PassingPage.xml").exists());
+
+        final List<String> lines = Files.readAllLines(workspace.toPath().resolve(journal.getFileName()), StandardCharsets.UTF_8);
+        Assert.assertTrue(lines.get(0).startsWith("#build\t12\t"));
+        Assert.assertEquals("PassingPage\tpassed\tfitnesse-results-PassingPage.xml\t42", lines.get(1));
+        Assert.assertEquals("FailingPage\tfailed\tfitnesse-results-FailingPage.xml\t-1", lines.get(2));
+
+        Assert.assertEquals(2, journal.readCompletedPages(workspace).size());
+    }
+
+    /**
+     * Ignore the partially written last line, and the pages whose results file was deleted
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testReadCompletedPagesIgnoresIncompleteEntries() throws IOException
+    {
+        // given
+
+        final File workspace = this.tempFolder.newFolder();
+        final ExecutionJournal journal = new ExecutionJournal("fedcba9876543210", "fitnesse-results-%s.xml", 12);
+
+        journal.record(workspace, new FitnesseResponse("CompletedPage", "<testResults/>"));
+        journal.record(workspace, new FitnesseResponse("DeletedPage", "<testResults/>"));
+        Files.delete(workspace.toPath().resolve("fitnesse-results-DeletedPage.xml"));
+
+        // the build was interrupted while appending a line
+        Files.write(workspace.toPath().resolve(journal.getFileName()), "InterruptedPage\tpas".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        // when
+
+        final Set<String> completedPages = journal.readCompletedPages(workspace);
+
+        // then
+
+        Assert.assertEquals(Collections.singleton("CompletedPage"), completedPages);
+    }
+
+    /**
+     * Run again the pages completed by a run started more than a day ago, and delete its journal
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testReadCompletedPagesWithExpiredJournal() throws IOException
+    {
+        // given
+
+        final File workspace = this.tempFolder.newFolder();
+        final ExecutionJournal journal = new ExecutionJournal("fedcba9876543210", "fitnesse-results-%s.xml", 12);
+
+        journal.record(workspace, new FitnesseResponse("CompletedPage", "<testResults/>"));
+
+        final Path journalFile = workspace.toPath().resolve(journal.getFileName());
+        final List<String> lines = Files.readAllLines(journalFile, StandardCharsets.UTF_8);
+        lines.set(0, String.format("#build\t12\t%d", System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2)));
+        Files.write(journalFile, lines, StandardCharsets.UTF_8);
+
+        // when
+
+        final Set<String> completedPages = journal.readCompletedPages(workspace);
+
+        // then
+
+        Assert.assertTrue(completedPages.isEmpty());
+        Assert.assertFalse(Files.exists(journalFile));
+    }
+
+    /**
+     * No journal is found when the step has never been interrupted
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testReadCompletedPagesWithoutJournal() throws IOException
+    {
+        // given
+
+        final ExecutionJournal journal = new ExecutionJournal("fedcba9876543210", "fitnesse-results-%s.xml", 12);
+
+        // when / then
+
+        Assert.assertTrue(journal.readCompletedPages(this.tempFolder.newFolder()).isEmpty());
+    }
+}
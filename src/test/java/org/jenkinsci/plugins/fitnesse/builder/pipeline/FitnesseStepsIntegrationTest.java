@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.pipeline;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+
+import org.jenkinsci.plugins.fitnesse.builder.FitnesseResultsBuilder;
+import org.jenkinsci.plugins.fitnesse.publisher.actions.FitnesseResultsAction;
+import org.jenkinsci.plugins.fitnesse.util.MockFitnesseResponseDispatcher;
+import org.jenkinsci.plugins.fitnesse.util.TestUtils;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import hudson.model.Result;
+import okhttp3.mockwebserver.MockWebServer;
+
+/** {@link FitnesseStartStep} and {@link FitnesseAwaitStep} tests */
+public class FitnesseStepsIntegrationTest
+{
+
+    /** Allows to execute local Jenkins instances */
+    @Rule
+    public final JenkinsRule jenkinsRule = new JenkinsRule();
+
+    /** Local web server which allows to mock a remote FitNesse instance */
+    private MockWebServer mockServer;
+
+    /**
+     * Local web server instantiation & startup
+     * 
+     * @throws IOException
+     */
+    @Before
+    public void setUp() throws IOException
+    {
+        this.mockServer = new MockWebServer();
+        this.mockServer.start();
+    }
+
+    /**
+     * Local web server shutdown
+     * 
+     * @throws IOException
+     */
+    @After
+    public void tearDown() throws IOException
+    {
+        this.mockServer.shutdown();
+    }
+
+    /**
+     * Start FitNesse pages in the background, and await their results after other pipeline work
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testStartAndAwait() throws Exception
+    {
+        // mock remote Fitnesse host HTTP responses
+        final String targetPage = "This.Is.A.Fake.Page";
+        final String filenameOutputFormat = "%s-results.xml";
+
+        this.mockServer.setDispatcher(new MockFitnesseResponseDispatcher(Collections.singletonMap(targetPage, "Coucou")));
+
+        // create a pipeline which overlaps the FitNesse tests with other work
+        final WorkflowJob job = this.jenkinsRule.jenkins.createProject(WorkflowJob.class, "fitnesse-pipeline");
+        job.setDefinition(new CpsFlowDefinition(String.join("\n",
+                "node {",
+                "  def fitnesse = fitnesseStart builder: fitnesseBuilder(remoteFitnesseUrl: '" + this.mockServer.url("/") + "', targetType: 'pages', targetPages: '" + targetPage + "', filenameOutputFormat: '" + filenameOutputFormat + "')",
+                "  echo 'Deploying the next environment'",
+                "  fitnesseAwait fitnesse",
+                "}"), true));
+
+        // launch the build and check its result
+        final WorkflowRun run = this.jenkinsRule.buildAndAssertSuccess(job);
+
+        this.jenkinsRule.assertLogContains("FitNesse tests started in the background", run);
+
+        final Map<String, String> expectedResults = Collections.singletonMap(String.format(filenameOutputFormat, targetPage), "Coucou");
+
+        Assert.assertEquals("The output filenames and/or content is incorrect",
+                expectedResults,
+                TestUtils.gatherWorkspaceOutputFiles(filenameOutputFormat, TestUtils.getWorkspace(run)));
+    }
+
+    /**
+     * Run FitNesse pages from the controller outside of any node, and publish their results from the build directory
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testStartOnControllerAndPublish() throws Exception
+    {
+        // mock remote Fitnesse host HTTP responses
+        final String targetPage = "This.Is.A.Sample.Test.Output";
+        final String response = new String(Files.readAllBytes(Paths.get(this.getClass().getResource("/org/jenkinsci/plugins/fitnesse/publisher/successful-test-results.xml").toURI())), StandardCharsets.UTF_8);
+
+        this.mockServer.setDispatcher(new MockFitnesseResponseDispatcher(Collections.singletonMap(targetPage, response)));
+
+        // create a pipeline which does not allocate any executor
+        final WorkflowJob job = this.jenkinsRule.jenkins.createProject(WorkflowJob.class, "fitnesse-pipeline");
+        job.setDefinition(new CpsFlowDefinition(String.join("\n",
+                "def fitnesse = fitnesseStart builder: fitnesseBuilder(remoteFitnesseUrl: '" + this.mockServer.url("/") + "', targetType: 'pages', targetPages: '" + targetPage + "', filenameOutputFormat: '%s-results.xml')",
+                "fitnesseAwait handle: fitnesse, publisher: fitnessePublisher(xmlResultsPath: '*-results.xml')"), true));
+
+        // launch the build and check its result
+        final WorkflowRun run = this.jenkinsRule.buildAndAssertSuccess(job);
+
+        Assert.assertTrue("The results file should be stored in the build directory",
+                new File(new File(run.getRootDir(), FitnesseResultsBuilder.BUILD_RESULTS_DIRECTORY), targetPage + "-results.xml").exists());
+
+        final FitnesseResultsAction action = run.getAction(FitnesseResultsAction.class);
+        Assert.assertNotNull("The results should have been published", action);
+        Assert.assertEquals(12, action.getTotalCount());
+    }
+
+    /**
+     * Await FitNesse tests which were never started
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testAwaitUnknownHandle() throws Exception
+    {
+        final WorkflowJob job = this.jenkinsRule.jenkins.createProject(WorkflowJob.class, "fitnesse-pipeline");
+        job.setDefinition(new CpsFlowDefinition("node { fitnesseAwait 'unknown' }", true));
+
+        final WorkflowRun run = this.jenkinsRule.assertBuildStatus(Result.FAILURE, job.scheduleBuild2(0));
+
+        this.jenkinsRule.assertLogContains(Messages.FitnesseAwaitStep_errors_unknownHandle("unknown"), run);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.priority;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.jenkinsci.plugins.fitnesse.publisher.actions.FitnesseResultsAction;
+import org.jenkinsci.plugins.fitnesse.publisher.model.AggregatedFitnesseResult;
+import org.jenkinsci.plugins.fitnesse.publisher.model.FitnessePageResult;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import hudson.model.Run;
+
+/**
+ * Tests de la classe {@link FailureLikelihood}
+ * 
+ */
+public class FailureLikelihoodTest
+{
+
+    /**
+     * Test that a recent failure outweighs a flaky history, which outweighs older failures
+     */
+    @Test
+    public void testScore()
+    {
+        // when
+        final double recentFailure = FailureLikelihood.score(Arrays.asList(true, false, false, false));
+        final double flaky = FailureLikelihood.score(Arrays.asList(false, true, false, true));
+        final double oldFailure = FailureLikelihood.score(Arrays.asList(false, false, false, true));
+        final double stable = FailureLikelihood.score(Arrays.asList(false, false, false, false));
+
+        // then
+        Assert.assertTrue(recentFailure > flaky);
+        Assert.assertTrue(flaky > oldFailure);
+        Assert.assertTrue(oldFailure > stable);
+        Assert.assertEquals(0, stable, 0);
+    }
+
+    /**
+     * Test the estimation from the results published by the previous builds
+     */
+    @Test
+    public void testEstimate()
+    {
+        // given
+        final Run<?, ?> currentBuild = Mockito.mock(Run.class);
+        final Run<?, ?> previousBuild = Mockito.mock(Run.class);
+        final FitnesseResultsAction action = Mockito.mock(FitnesseResultsAction.class);
+        final AggregatedFitnesseResult results = Mockito.mock(AggregatedFitnesseResult.class);
+
+        Mockito.doReturn(previousBuild).when(currentBuild).getPreviousBuild();
+        Mockito.when(previousBuild.getAction(FitnesseResultsAction.class)).thenReturn(action);
+        Mockito.when(action.getResult()).thenReturn(results);
+        Mockito.doReturn(Arrays.asList(FailureLikelihoodTest.pageResult("FrontPage.Failed", true), FailureLikelihoodTest.pageResult("FrontPage.Passed", false)))
+                .when(results).getChildren();
+
+        // when
+        final Map<String, Double> scores = FailureLikelihood.estimate(PageHistory.read(currentBuild), Collections.singleton("FrontPage.Changed"));
+
+        // then
+        Assert.assertTrue(scores.get("FrontPage.Failed") > scores.get("FrontPage.Changed"));
+        Assert.assertTrue(scores.get("FrontPage.Changed") > scores.get("FrontPage.Passed"));
+        Assert.assertEquals(FailureLikelihood.UNKNOWN_PAGE_SCORE, scores.get("FrontPage.Changed"), 0);
+    }
+
+    private static FitnessePageResult pageResult(final String page, final boolean failed)
+    {
+        final FitnessePageResult result = Mockito.mock(FitnessePageResult.class);
+        Mockito.when(result.getName()).thenReturn(page);
+        Mockito.when(result.hasFailures()).thenReturn(failed);
+
+        return result;
+    }
+}
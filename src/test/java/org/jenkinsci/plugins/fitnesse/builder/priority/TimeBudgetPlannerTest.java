@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.priority;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests de la classe {@link TimeBudgetPlanner}
+ * 
+ */
+public class TimeBudgetPlannerTest
+{
+
+    /**
+     * Test that the simulated parallel schedule fits the budget, favouring the pages likely to fail
+     */
+    @Test
+    public void testPlan()
+    {
+        // given
+        final Map<String, Long> durations = new HashMap<>();
+        durations.put("FrontPage.Long", 50L);
+        durations.put("FrontPage.Failing", 40L);
+        durations.put("FrontPage.Short", 10L);
+        durations.put("FrontPage.Other", 30L);
+
+        final Map<String, Double> scores = new HashMap<>();
+        scores.put("FrontPage.Long", 0d);
+        scores.put("FrontPage.Failing", 4d);
+        scores.put("FrontPage.Short", 0d);
+        scores.put("FrontPage.Other", 0d);
+
+        // when
+        final TimeBudgetPlanner.Plan plan = new TimeBudgetPlanner(2, 50)
+                .plan(Arrays.asList("FrontPage.Long", "FrontPage.Failing", "FrontPage.Short", "FrontPage.Other"), durations, scores);
+
+        // then
+        Assert.assertEquals(Arrays.asList("FrontPage.Failing", "FrontPage.Short", "FrontPage.Other"), plan.getSelectedPages());
+        Assert.assertEquals(Arrays.asList("FrontPage.Long"), plan.getSkippedPages());
+        Assert.assertEquals(40L, plan.getEstimatedDuration());
+    }
+
+    /**
+     * Test that a page listed several times is planned once, leaving the budget to the other pages
+     */
+    @Test
+    public void testPlanWithDuplicatePages()
+    {
+        // given
+        final Map<String, Long> durations = new HashMap<>();
+        durations.put("FrontPage.Short", 10L);
+        durations.put("FrontPage.Other", 30L);
+
+        final Map<String, Double> scores = new HashMap<>();
+        scores.put("FrontPage.Short", 0d);
+        scores.put("FrontPage.Other", 0d);
+
+        // when
+        final TimeBudgetPlanner.Plan plan = new TimeBudgetPlanner(1, 40)
+                .plan(Arrays.asList("FrontPage.Short", "FrontPage.Short", "FrontPage.Short", "FrontPage.Other"), durations, scores);
+
+        // then
+        Assert.assertEquals(Arrays.asList("FrontPage.Short", "FrontPage.Other"), plan.getSelectedPages());
+        Assert.assertTrue(plan.getSkippedPages().isEmpty());
+        Assert.assertEquals(40L, plan.getEstimatedDuration());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.rerun;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jenkinsci.plugins.fitnesse.publisher.model.FitnesseResult;
+import org.jenkinsci.plugins.fitnesse.publisher.parser.FitnesseResultParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests de la classe {@link FirstAttempt}
+ * 
+ */
+public class FirstAttemptTest
+{
+
+    /**
+     * Test the detection of the failed responses
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testIsFailed() throws IOException
+    {
+        Assert.assertTrue(FirstAttempt.isFailed(FirstAttemptTest.readResource("failed-test-results.xml")));
+        Assert.assertFalse(FirstAttempt.isFailed(FirstAttemptTest.readResource("successful-test-results.xml")));
+    }
+
+    /**
+     * Test that the counts of the first attempt are parsed along with the result of the rerun
+     * 
+     * @throws IOException
+     * @throws XMLStreamException
+     */
+    @Test
+    public void testAnnotate() throws IOException, XMLStreamException
+    {
+        // given
+        final String firstAttempt = FirstAttemptTest.readResource("failed-test-results.xml");
+        final String rerun = FirstAttemptTest.readResource("successful-test-results.xml");
+
+        // when
+        final String content = FirstAttempt.annotate(rerun, firstAttempt);
+
+        // then
+        final FitnesseResultParser parser = new FitnesseResultParser();
+        parser.parse(new StringReader(content));
+
+        final FitnesseResult result = parser.getDetails().get(0);
+        Assert.assertTrue(result.isRerun());
+        Assert.assertEquals(0, result.getWrong());
+        Assert.assertEquals(10, result.getFirstAttempt().getRight());
+        Assert.assertEquals(4, result.getFirstAttempt().getWrong());
+        Assert.assertEquals(2, result.getFirstAttempt().getIgnored());
+        Assert.assertEquals(1, result.getFirstAttempt().getExceptions());
+        Assert.assertEquals(7201, result.getFirstAttempt().getDuration());
+    }
+
+    private static String readResource(final String name) throws IOException
+    {
+        try (InputStream stream = FirstAttemptTest.class.getResourceAsStream("/org/jenkinsci/plugins/fitnesse/publisher/" + name);
+                Scanner scanner = new Scanner(stream, StandardCharsets.UTF_8.name()))
+        {
+            return scanner.useDelimiter("\\A").next();
+        }
+    }
+}
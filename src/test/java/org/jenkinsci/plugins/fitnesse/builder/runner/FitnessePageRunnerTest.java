@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.concurrent.CompletableFuture;
 
 import org.jenkinsci.plugins.fitnesse.builder.runner.exceptions.TestExecutionException;
 import org.junit.After;
@@ -191,6 +192,50 @@ public class FitnessePageRunnerTest
         Assert.assertEquals(mockHttpResponseBody, actualResponse.getContent());
     }
 
+    /**
+     * FitNesse pages executed with a ramped up concurrency all complete
+     * 
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testExecutePagesWithRampUp() throws IOException, InterruptedException
+    {
+        final URL hostUrl = this.getMockServerUrl(this.mockServer);
+
+        // mock HTTP responses
+
+        for (int i = 0; i < 3; i++)
+        {
+            this.mockServer.enqueue(new MockResponse().setBody("test"));
+        }
+
+        // page runner instantiation
+
+        final TaskListener mockListener = Mockito.mock(TaskListener.class);
+        Mockito.when(mockListener.getLogger()).thenReturn(Mockito.mock(PrintStream.class));
+
+        final FitnessePageRunner testRunner = new FitnessePageRunner(
+                hostUrl,
+                0,
+                false,
+                2,
+                mockListener);
+
+        testRunner.setRampUp(true);
+
+        // page executions
+
+        final CompletableFuture<FitnesseResponse> firstResponse = testRunner.executePage("FirstPage");
+        final CompletableFuture<FitnesseResponse> secondResponse = testRunner.executePage("SecondPage");
+        final CompletableFuture<FitnesseResponse> thirdResponse = testRunner.executePage("ThirdPage");
+
+        Assert.assertEquals("FirstPage", firstResponse.join().getPage());
+        Assert.assertEquals("SecondPage", secondResponse.join().getPage());
+        Assert.assertEquals("ThirdPage", thirdResponse.join().getPage());
+        Assert.assertEquals(3, this.mockServer.getRequestCount());
+    }
+
     /**
      * Asynchronous FitNesse page execution that produces an incorrect HTTP status code (!= [2xx..3xx])
      * 
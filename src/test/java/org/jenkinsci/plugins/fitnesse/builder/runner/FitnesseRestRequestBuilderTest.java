@@ -17,6 +17,9 @@ package org.jenkinsci.plugins.fitnesse.builder.runner;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.jenkinsci.plugins.fitnesse.builder.runner.FitnesseRestRequestBuilder;
 import org.junit.Assert;
@@ -109,4 +112,144 @@ public class FitnesseRestRequestBuilderTest
         Assert.assertTrue(request.url().queryParameterNames().contains("test"));
         Assert.assertFalse(request.url().queryParameterNames().contains("includehtml"));
     }
+
+    /**
+     * Build a suite execution request with tag filters
+     * 
+     * @throws MalformedURLException
+     */
+    @Test
+    public void testBuildSuiteUrlWithSuiteFilter() throws MalformedURLException
+    {
+        final URL hostUrl = new URL("http", "foobar.com", 8080, "");
+
+        final Request request = this.requestBuilder
+                .withHostUrl(hostUrl)
+                .withSuiteTarget()
+                .withTargetPage("TestSuite")
+                .withSuiteFilter(new SuiteFilter(Arrays.asList("smoke", "billing"), Collections.singletonList("slow"), false))
+                .build();
+
+        Assert.assertEquals("smoke,billing", request.url().queryParameter("suiteFilter"));
+        Assert.assertEquals("slow", request.url().queryParameter("excludeSuiteFilter"));
+        Assert.assertFalse(request.url().queryParameterNames().contains("runTestsMatchingAllTags"));
+        Assert.assertEquals("xml", request.url().queryParameter("format"));
+
+        final Request matchAllRequest = new FitnesseRestRequestBuilder()
+                .withHostUrl(hostUrl)
+                .withSuiteTarget()
+                .withTargetPage("TestSuite")
+                .withSuiteFilter(new SuiteFilter(Arrays.asList("smoke", "billing"), Collections.emptyList(), true))
+                .build();
+
+        Assert.assertEquals("smoke,billing", matchAllRequest.url().queryParameter("runTestsMatchingAllTags"));
+        Assert.assertFalse(matchAllRequest.url().queryParameterNames().contains("suiteFilter"));
+        Assert.assertFalse(matchAllRequest.url().queryParameterNames().contains("excludeSuiteFilter"));
+    }
+
+    /**
+     * Partition a suite into disjoint tag-based partitions
+     */
+    @Test
+    public void testSuiteFilterPartition()
+    {
+        final List<SuiteFilter> partitions = SuiteFilter.partition(SuiteFilter.parseTags("smoke, billing"), Collections.singletonList("slow"));
+
+        Assert.assertEquals(3, partitions.size());
+
+        Assert.assertEquals(Collections.singletonList("smoke"), partitions.get(0).getIncludedTags());
+        Assert.assertEquals(Collections.singletonList("slow"), partitions.get(0).getExcludedTags());
+        Assert.assertEquals("TestSuite-smoke", partitions.get(0).getResultName("TestSuite"));
+
+        Assert.assertEquals(Collections.singletonList("billing"), partitions.get(1).getIncludedTags());
+        Assert.assertEquals(Arrays.asList("slow", "smoke"), partitions.get(1).getExcludedTags());
+
+        Assert.assertTrue(partitions.get(2).getIncludedTags().isEmpty());
+        Assert.assertEquals(Arrays.asList("slow", "smoke", "billing"), partitions.get(2).getExcludedTags());
+        Assert.assertEquals("TestSuite-" + SuiteFilter.UNTAGGED_PARTITION, partitions.get(2).getResultName("TestSuite"));
+    }
+
+    /**
+     * Build a conditional page names retrieval request
+     * 
+     * @throws MalformedURLException
+     */
+    @Test
+    public void testBuildPageNamesUrl() throws MalformedURLException
+    {
+        final Request request = this.requestBuilder
+                .withHostUrl(new URL("http", "foobar.com", 8080, ""))
+                .withTargetPage("root")
+                .withPageNamesTarget()
+                .withIfNoneMatch("\"v1\"")
+                .build();
+
+        Assert.assertEquals("text/plain", request.header("Accept"));
+        Assert.assertEquals("\"v1\"", request.header("If-None-Match"));
+        Assert.assertTrue(request.url().queryParameterNames().contains("names"));
+        Assert.assertTrue(request.url().queryParameterNames().contains("Recursive"));
+        Assert.assertFalse(request.url().queryParameterNames().contains("format"));
+    }
+
+    /**
+     * Build the URL of the latest test history record of a page
+     * 
+     * @throws MalformedURLException
+     */
+    @Test
+    public void testBuildLatestResultUrl() throws MalformedURLException
+    {
+        final Request request = this.requestBuilder
+                .withHostUrl(new URL("http", "foobar.com", 8080, ""))
+                .withTargetPage("Suite.Page")
+                .withLatestResultTarget()
+                .build();
+
+        Assert.assertEquals("text/xml", request.header("Accept"));
+        Assert.assertEquals("/Suite.Page", request.url().encodedPath());
+        Assert.assertEquals("latest", request.url().queryParameter("resultDate"));
+        Assert.assertEquals("xml", request.url().queryParameter("format"));
+        Assert.assertTrue(request.url().queryParameterNames().contains("pageHistory"));
+    }
+
+    /**
+     * Build a request retrieving a given test history record of a page
+     * 
+     * @throws MalformedURLException
+     */
+    @Test
+    public void testBuildResultUrl() throws MalformedURLException
+    {
+        final Request request = this.requestBuilder
+                .withHostUrl(new URL("http", "foobar.com", 8080, ""))
+                .withTargetPage("Suite.Page")
+                .withResultTarget("20190301100001")
+                .build();
+
+        Assert.assertEquals("/Suite.Page", request.url().encodedPath());
+        Assert.assertEquals("20190301100001", request.url().queryParameter("resultDate"));
+        Assert.assertEquals("xml", request.url().queryParameter("format"));
+    }
+
+    /**
+     * Build a lean test execution request, which is not recorded in the test history and uses the JUnit format
+     * 
+     * @throws MalformedURLException
+     */
+    @Test
+    public void testBuildLeanTestUrl() throws MalformedURLException
+    {
+        final Request request = this.requestBuilder
+                .withHostUrl(new URL("http", "foobar.com", 8080, ""))
+                .withTargetPage("Suite.Page")
+                .withoutHistory()
+                .withJunitFormat()
+                .build();
+
+        Assert.assertEquals("/Suite.Page", request.url().encodedPath());
+        Assert.assertEquals("junit", request.url().queryParameter("format"));
+        Assert.assertEquals("true", request.url().queryParameter("nohistory"));
+        Assert.assertTrue(request.url().queryParameterNames().contains("test"));
+        Assert.assertTrue(request.url().queryParameterNames().contains("nochunk"));
+    }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.runner;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests de la classe {@link PageScheduler}
+ * 
+ */
+public class PageSchedulerTest
+{
+
+    /**
+     * Test that a page waiting for a permit of its group does not hold back the other pages
+     */
+    @Test
+    public void testScheduleWithResourceGroup()
+    {
+        // given
+        final PageScheduler scheduler = new PageScheduler(3, ResourceGroup.parse("db:1:FrontPage.Db.*"), Collections.emptyMap());
+        final Map<String, CompletableFuture<FitnesseResponse>> executions = new HashMap<>();
+
+        // when
+        for (final String page : new String[] { "FrontPage.Db.A1", "FrontPage.Db.A2", "FrontPage.B" })
+        {
+            scheduler.schedule(page, 0, () -> {
+                final CompletableFuture<FitnesseResponse> execution = new CompletableFuture<>();
+                executions.put(page, execution);
+                return execution;
+            });
+        }
+
+        // then
+        Assert.assertTrue(executions.containsKey("FrontPage.Db.A1"));
+        Assert.assertFalse(executions.containsKey("FrontPage.Db.A2"));
+        Assert.assertTrue(executions.containsKey("FrontPage.B"));
+
+        // when
+        executions.get("FrontPage.Db.A1").complete(new FitnesseResponse("FrontPage.Db.A1", "<testResults/>"));
+
+        // then
+        Assert.assertTrue(executions.containsKey("FrontPage.Db.A2"));
+    }
+
+    /**
+     * Test that the highest-priority pages are started first
+     */
+    @Test
+    public void testScheduleByPriority()
+    {
+        // given
+        final PageScheduler scheduler = new PageScheduler(1, Collections.emptyList(), Collections.emptyMap());
+        final CompletableFuture<FitnesseResponse> first = new CompletableFuture<>();
+        final CompletableFuture<FitnesseResponse> low = new CompletableFuture<>();
+        final CompletableFuture<FitnesseResponse> high = new CompletableFuture<>();
+
+        // when
+        scheduler.schedule("FrontPage.First", 0, () -> first);
+        final CompletableFuture<FitnesseResponse> lowResult = scheduler.schedule("FrontPage.Low", 1, () -> low);
+        final CompletableFuture<FitnesseResponse> highResult = scheduler.schedule("FrontPage.High", 2, () -> high);
+        first.complete(new FitnesseResponse("FrontPage.First", "<testResults/>"));
+        high.complete(new FitnesseResponse("FrontPage.High", "<testResults/>"));
+
+        // then
+        Assert.assertTrue(highResult.isDone());
+        Assert.assertFalse(lowResult.isDone());
+    }
+
+    /**
+     * Test the parsing of the resource groups
+     */
+    @Test
+    public void testParseResourceGroups()
+    {
+        // when
+        final ResourceGroup group = ResourceGroup.parse("db:2:FrontPage.Db.** tag:database").get(0);
+
+        // then
+        Assert.assertEquals("db", group.getName());
+        Assert.assertEquals(2, group.getPermits());
+        Assert.assertTrue(group.matches("FrontPage.Other", Collections.singleton("database")));
+        Assert.assertFalse(group.matches("FrontPage.Other", Collections.emptySet()));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.tree;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@link PageTree} and {@link PagePattern} tests
+ * 
+ */
+public class PageTreeTest
+{
+
+    /** Tested class */
+    private PageTree tree;
+
+    /** Parse a sample FitNesse names responder output */
+    @Before
+    public void setUp()
+    {
+        this.tree = PageTree.parse(String.join("\n",
+                "FrontPage",
+                "FrontPage.Billing",
+                "FrontPage.Billing.TestInvoice",
+                "FrontPage.Billing.Sub.Deep.MyInvoiceTest",
+                "FrontPage.Billing.Invoice.TestChild",
+                "FrontPage.BillingArchive.TestInvoice",
+                "FrontPage.Other.TestInvoice",
+                ""), "\"v1\"", 0L);
+    }
+
+    /**
+     * Expand glob patterns
+     */
+    @Test
+    public void testExpandGlobPattern()
+    {
+        Assert.assertEquals(
+                new TreeSet<>(Arrays.asList("FrontPage.Billing.Sub.Deep.MyInvoiceTest", "FrontPage.Billing.TestInvoice")),
+                this.tree.expand(PagePattern.compile("FrontPage.Billing.**.*Invoice*")));
+
+        Assert.assertEquals(
+                new TreeSet<>(Arrays.asList("FrontPage.Billing.TestInvoice", "FrontPage.BillingArchive.TestInvoice", "FrontPage.Other.TestInvoice")),
+                this.tree.expand(PagePattern.compile("FrontPage.*.Test*")));
+
+        Assert.assertEquals(7, this.tree.expand(PagePattern.compile("FrontPage.**")).size());
+
+        Assert.assertEquals(
+                Collections.singleton("FrontPage.Billing.TestInvoice"),
+                this.tree.expand(PagePattern.compile("FrontPage.Billing.TestInvoice")));
+    }
+
+    /**
+     * Expand regular expression patterns
+     */
+    @Test
+    public void testExpandRegexPattern()
+    {
+        Assert.assertEquals(
+                new TreeSet<>(Arrays.asList("FrontPage.Billing.Invoice.TestChild", "FrontPage.Billing.TestInvoice")),
+                this.tree.expand(PagePattern.compile("regex:FrontPage\\.Billing\\.(Test)?Invoice(\\.TestChild)?")));
+    }
+
+    /**
+     * Use the literal prefix of glob patterns, and reject invalid patterns
+     */
+    @Test
+    public void testCompile()
+    {
+        Assert.assertEquals("FrontPage.Billing", PagePattern.compile("FrontPage.Billing.**.*Invoice*").getPrefix());
+        Assert.assertEquals("", PagePattern.compile("**.TestInvoice").getPrefix());
+        Assert.assertEquals("", PagePattern.compile("regex:FrontPage.*").getPrefix());
+
+        try
+        {
+            PagePattern.compile("FrontPage..Billing");
+            Assert.fail("An exception should have been thrown");
+        } catch (final IllegalArgumentException e)
+        {
+            Assert.assertEquals("\"FrontPage..Billing\" is not a valid page pattern", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.builder.wiki;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * {@link WikiIndexer} and {@link WikiIndex} tests
+ * 
+ */
+public class WikiIndexerTest
+{
+
+    /** Enables the creation of temporary files/folders during tests */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Path root;
+
+    /**
+     * Creates a sample FitNesseRoot directory, in both wiki formats
+     * 
+     * @throws IOException
+     */
+    @Before
+    public void setUp() throws IOException
+    {
+        this.root = this.tempFolder.newFolder("FitNesseRoot").toPath();
+
+        this.write("content.txt", "root page");
+        this.write("files/content.txt", "not a page");
+        this.write("FrontPage/Billing/TestInvoice.wiki", "---\nTest\nSuites: smoke, billing\n---\n!include -seamless <Billing.Fixtures\n|check|\n");
+        this.write("FrontPage/Billing/Fixtures.wiki", "!define X {1}\n");
+        this.write("FrontPage/Billing/SetUp.wiki", "|script|\n");
+        this.write("FrontPage/Other/LegacyPage/content.txt", "|check|\n");
+        this.write("FrontPage/Other/LegacyPage/properties.xml", "<properties><Test/><Suites>legacy</Suites></properties>");
+        this.write("FrontPage/Other/Helper.wiki", "some text\n");
+    }
+
+    /**
+     * Index a FitNesseRoot directory, reading the page types, tags and includes
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testIndex() throws IOException
+    {
+        // when
+
+        final WikiIndex index = WikiIndexer.index(this.root, null);
+
+        // then
+
+        Assert.assertEquals(5, index.getPages().size());
+
+        final WikiPage invoicePage = index.getPage("FrontPage.Billing.TestInvoice");
+        Assert.assertTrue(invoicePage.isTest());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("smoke", "billing")), invoicePage.getTags());
+        Assert.assertEquals(Collections.singletonList("<Billing.Fixtures"), invoicePage.getIncludes());
+
+        final WikiPage legacyPage = index.getPage("FrontPage.Other.LegacyPage");
+        Assert.assertTrue(legacyPage.isTest());
+        Assert.assertEquals(Collections.singleton("legacy"), legacyPage.getTags());
+
+        Assert.assertFalse(index.getPage("FrontPage.Other.Helper").isTest());
+
+        // without a baseline, all test pages are affected
+        Assert.assertEquals(
+                new HashSet<>(Arrays.asList("FrontPage.Billing.TestInvoice", "FrontPage.Other.LegacyPage")),
+                index.getAffectedTestPages(null));
+    }
+
+    /**
+     * Select the test pages affected by a change to an included page
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testAffectedTestPagesWithIncludedPageChange() throws IOException
+    {
+        // given
+
+        final WikiIndex baseline = WikiIndexer.index(this.root, null);
+
+        this.write("FrontPage/Billing/Fixtures.wiki", "!define X {10}\n");
+
+        // when
+
+        final WikiIndex index = WikiIndexer.index(this.root, baseline);
+
+        // then
+
+        Assert.assertEquals(Collections.singleton("FrontPage.Billing.TestInvoice"), index.getAffectedTestPages(baseline));
+
+        // unchanged pages are reused from the previous index
+        Assert.assertSame(baseline.getPage("FrontPage.Other.Helper"), index.getPage("FrontPage.Other.Helper"));
+    }
+
+    /**
+     * Select the test pages affected by the removal of an inherited set up page
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testAffectedTestPagesWithRemovedSetUpPage() throws IOException
+    {
+        // given
+
+        final WikiIndex baseline = WikiIndexer.index(this.root, null);
+
+        Files.delete(this.root.resolve("FrontPage/Billing/SetUp.wiki"));
+
+        // when
+
+        final WikiIndex index = WikiIndexer.index(this.root, baseline);
+
+        // then
+
+        Assert.assertEquals(Collections.singleton("FrontPage.Billing.TestInvoice"), index.getAffectedTestPages(baseline));
+        Assert.assertTrue(index.getAffectedTestPages(index).isEmpty());
+    }
+
+    /**
+     * Compute the hash of a page along with its included pages, inherited set up pages and scenario libraries
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testDependencyHash() throws IOException
+    {
+        // given
+
+        final String initialHash = WikiIndexer.index(this.root, null).getDependencyHash("FrontPage.Billing.TestInvoice");
+
+        // when
+
+        this.write("FrontPage/Other/Helper.wiki", "other text\n");
+        final String unrelatedChangeHash = WikiIndexer.index(this.root, null).getDependencyHash("FrontPage.Billing.TestInvoice");
+
+        this.write("FrontPage/Billing/Fixtures.wiki", "!define X {10}\n");
+        final String includedChangeHash = WikiIndexer.index(this.root, null).getDependencyHash("FrontPage.Billing.TestInvoice");
+
+        this.write("FrontPage/Billing/SetUp.wiki", "|script|setup|\n");
+        final String setUpChangeHash = WikiIndexer.index(this.root, null).getDependencyHash("FrontPage.Billing.TestInvoice");
+
+        this.write("FrontPage/ScenarioLibrary.wiki", "|scenario|\n");
+        final String scenarioLibraryHash = WikiIndexer.index(this.root, null).getDependencyHash("FrontPage.Billing.TestInvoice");
+
+        // then
+
+        Assert.assertEquals(initialHash, unrelatedChangeHash);
+        Assert.assertFalse(unrelatedChangeHash.equals(includedChangeHash));
+        Assert.assertFalse(includedChangeHash.equals(setUpChangeHash));
+        Assert.assertFalse(setUpChangeHash.equals(scenarioLibraryHash));
+        Assert.assertNull(WikiIndexer.index(this.root, null).getDependencyHash("FrontPage.Billing.UnknownPage"));
+    }
+
+    private void write(final String file, final String content) throws IOException
+    {
+        final Path path = this.root.resolve(file);
+
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@link HtmlOutputFileSink} tests
+ * 
+ */
+public class HtmlOutputFileSinkTest
+{
+
+    /**
+     * Test that the contents differing only by the style of their line terminators share their address, and only them
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testContentAddressedLineTerminators() throws IOException
+    {
+        final String address = HtmlOutputFileSinkTest.getAddress("<pre>one\ntwo</pre>");
+
+        Assert.assertEquals(address, HtmlOutputFileSinkTest.getAddress("<pre>one\r\ntwo</pre>"));
+        Assert.assertEquals(address, HtmlOutputFileSinkTest.getAddress("<pre>one\rtwo</pre>"));
+        Assert.assertFalse(address.equals(HtmlOutputFileSinkTest.getAddress("<pre>onetwo</pre>")));
+        Assert.assertFalse(address.equals(HtmlOutputFileSinkTest.getAddress("<pre>one\n\ntwo</pre>")));
+        Assert.assertFalse(address.equals(HtmlOutputFileSinkTest.getAddress("<pre>one\r\n\rtwo</pre>")));
+    }
+
+    /**
+     * @return name of the file the content is stored under, when addressed by its hash
+     */
+    private static String getAddress(final String content) throws IOException
+    {
+        final HtmlOutputFileSink sink = new HtmlOutputFileSink(new HtmlOutputStore()
+        {
+            @Override
+            public String add(final String fileName, final Path contentFile)
+            {
+                return fileName;
+            }
+
+            @Override
+            public void commit()
+            {
+                // nothing to commit
+            }
+
+            @Override
+            public void close()
+            {
+                // nothing to close
+            }
+        }, false, true);
+
+        try (Writer writer = sink.begin())
+        {
+            // one character at a time, for the \r\n terminators to span several writes
+            for (final char c : content.toCharArray())
+            {
+                writer.write(c);
+            }
+        }
+
+        return sink.complete("PageName");
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Scanner;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import hudson.FilePath;
+
+/**
+ * Tests de la classe {@link HtmlOutputPack}
+ * 
+ */
+public class HtmlOutputPackTest
+{
+
+    /** Enables the creation of temporary files/folders during tests */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Test that the content files added to the pack are read back from their reference
+     * 
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testAddAndOpen() throws IOException, InterruptedException
+    {
+        // given
+        final File outputDirectory = this.tempFolder.newFolder();
+        final Path pageOne = this.tempFolder.newFile().toPath();
+        final Path pageTwo = this.tempFolder.newFile().toPath();
+        Files.write(pageOne, "<p>Page one</p>".getBytes(StandardCharsets.UTF_8));
+        Files.write(pageTwo, "<p>Page two</p>".getBytes(StandardCharsets.UTF_8));
+
+        final String referenceOne;
+        final String referenceTwo;
+
+        // when
+        try (HtmlOutputPack pack = new HtmlOutputPack(new FilePath(outputDirectory), null))
+        {
+            referenceOne = pack.add("PageOne.html", pageOne);
+            referenceTwo = pack.add("PageTwo.html.zip", pageTwo);
+            pack.commit();
+        }
+
+        // then
+        Assert.assertEquals(1, outputDirectory.list().length);
+        Assert.assertTrue(HtmlOutputPack.isPacked(referenceOne));
+        Assert.assertFalse(HtmlOutputPack.isPacked(new File(outputDirectory, "PageOne.html").getPath()));
+        Assert.assertFalse(HtmlOutputPack.isPacked(new File(outputDirectory, "job#1/PageOne.html").getPath()));
+        Assert.assertEquals("PageTwo.html.zip", HtmlOutputPack.getFileName(referenceTwo));
+        Assert.assertEquals("<p>Page two</p>", HtmlOutputPackTest.read(referenceTwo));
+        Assert.assertEquals("<p>Page one</p>", HtmlOutputPackTest.read(referenceOne));
+    }
+
+    /**
+     * Test that a pack which was not committed is deleted
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testCloseWithoutCommit() throws IOException
+    {
+        // given
+        final File outputDirectory = this.tempFolder.newFolder();
+        final Path page = this.tempFolder.newFile().toPath();
+
+        // when
+        try (HtmlOutputPack pack = new HtmlOutputPack(new FilePath(outputDirectory), null))
+        {
+            pack.add("Page.html", page);
+        }
+
+        // then
+        Assert.assertEquals(0, outputDirectory.list().length);
+    }
+
+    private static String read(final String reference) throws IOException
+    {
+        try (InputStream in = HtmlOutputPack.open(reference); Scanner scanner = new Scanner(in, StandardCharsets.UTF_8.name()))
+        {
+            return scanner.useDelimiter("\\A").next();
+        }
+    }
+}
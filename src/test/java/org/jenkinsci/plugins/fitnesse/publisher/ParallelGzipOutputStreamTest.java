@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests de la classe {@link ParallelGzipOutputStream}
+ * 
+ */
+public class ParallelGzipOutputStreamTest
+{
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    /**
+     * Releases the worker pool
+     */
+    @After
+    public void tearDown()
+    {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * Test that content spanning several blocks is read back as a regular GZIP stream
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testWriteSeveralBlocks() throws IOException
+    {
+        // given
+        final StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; builder.length() < (5 * ParallelGzipOutputStream.BLOCK_SIZE); i++)
+        {
+            builder.append("<tr><td class=\"pass\">").append(i).append("</td></tr>");
+        }
+
+        final byte[] content = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+        // when
+        final byte[] compressed = this.compress(content);
+
+        // then
+        Assert.assertTrue(compressed.length < (content.length / 4));
+        Assert.assertArrayEquals(content, ParallelGzipOutputStreamTest.decompress(compressed));
+    }
+
+    /**
+     * Test that content smaller than a block, or empty, is read back as a regular GZIP stream
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testWriteSingleBlock() throws IOException
+    {
+        // given
+        final byte[] content = "<p>Page one</p>".getBytes(StandardCharsets.UTF_8);
+
+        // when
+        final byte[] compressed = this.compress(content);
+        final byte[] compressedEmpty = this.compress(new byte[0]);
+
+        // then
+        Assert.assertArrayEquals(content, ParallelGzipOutputStreamTest.decompress(compressed));
+        Assert.assertArrayEquals(new byte[0], ParallelGzipOutputStreamTest.decompress(compressedEmpty));
+    }
+
+    private byte[] compress(final byte[] content) throws IOException
+    {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        try (OutputStream out = new ParallelGzipOutputStream(compressed, this.executor, 2))
+        {
+            // odd-sized writes, straddling the blocks
+            for (int offset = 0; offset < content.length; offset += 1000)
+            {
+                out.write(content, offset, Math.min(1000, content.length - offset));
+            }
+        }
+
+        return compressed.toByteArray();
+    }
+
+    private static byte[] decompress(final byte[] compressed) throws IOException
+    {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed)))
+        {
+            final byte[] buffer = new byte[8192];
+            int read;
+
+            while ((read = in.read(buffer)) > 0)
+            {
+                content.write(buffer, 0, read);
+            }
+        }
+
+        return content.toByteArray();
+    }
+}
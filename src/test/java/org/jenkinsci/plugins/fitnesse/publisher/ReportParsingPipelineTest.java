@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.jenkinsci.plugins.fitnesse.publisher.model.AggregatedFitnesseResult;
+import org.jenkinsci.plugins.fitnesse.publisher.model.FitnesseResult;
+import org.jenkinsci.plugins.fitnesse.publisher.parser.exceptions.TestParsingException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import hudson.tasks.test.TestResult;
+
+/**
+ * Tests de la classe {@link ReportParsingPipeline}
+ * 
+ */
+public class ReportParsingPipelineTest
+{
+
+    /**
+     * Test that the page results are aggregated in the order of the reports, even when the queue is full
+     * 
+     * @throws InterruptedException
+     */
+    @Test
+    public void testProcess() throws InterruptedException
+    {
+        // given
+        final ReportParsingPipeline<Integer> pipeline = new ReportParsingPipeline<>(3, 1);
+
+        // when
+        final AggregatedFitnesseResult result = pipeline.process(Arrays.asList(30, 0, 10), (delay, pageListener) -> {
+            ReportParsingPipelineTest.sleep(delay);
+
+            for (int page = 1; page <= 3; page++)
+            {
+                pageListener.accept(new FitnesseResult(String.format("Report%d.Page%d", delay, page), 1000, 1, 0, 0, 0, null));
+            }
+
+            return new FitnesseResult("Report" + delay, 3000, 3, 0, 0, 0, null);
+        });
+
+        // then
+        final List<String> pages = result.getChildren().stream()
+                .map(TestResult::getName)
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(Arrays.asList(
+                "Report30.Page1", "Report30.Page2", "Report30.Page3",
+                "Report0.Page1", "Report0.Page2", "Report0.Page3",
+                "Report10.Page1", "Report10.Page2", "Report10.Page3"), pages);
+        Assert.assertEquals(9, result.getPassCount());
+        Assert.assertEquals(9, result.getDuration(), 0.0001);
+    }
+
+    /**
+     * Test that the failure of the parsing of a report is reported
+     * 
+     * @throws InterruptedException
+     */
+    @Test(expected = TestParsingException.class)
+    public void testProcessWithInvalidReport() throws InterruptedException
+    {
+        new ReportParsingPipeline<String>(2, 1).process(Arrays.asList("valid", "invalid"), (report, pageListener) -> {
+            if ("invalid".equals(report))
+            {
+                throw new TestParsingException("Could not parse results file", null);
+            }
+
+            pageListener.accept(new FitnesseResult(report, 1000, 1, 0, 0, 0, null));
+
+            return new FitnesseResult(report, 1000, 1, 0, 0, 0, null);
+        });
+    }
+
+    /**
+     * Test that an error thrown while parsing a report is reported, rather than leaving the aggregation waiting
+     * 
+     * @throws InterruptedException
+     */
+    @Test(expected = NoClassDefFoundError.class, timeout = 10000)
+    public void testProcessWithError() throws InterruptedException
+    {
+        new ReportParsingPipeline<String>(2, 1).process(Arrays.asList("valid", "error"), (report, pageListener) -> {
+            if ("error".equals(report))
+            {
+                throw new NoClassDefFoundError("fitnesse/Missing");
+            }
+
+            return new FitnesseResult(report, 1000, 1, 0, 0, 0, null);
+        });
+    }
+
+    /**
+     * Test that the workers are stopped once the processing fails, none of them still parsing
+     * 
+     * @throws InterruptedException
+     */
+    @Test
+    public void testProcessWaitsForWorkers() throws InterruptedException
+    {
+        // given
+        final AtomicInteger parsing = new AtomicInteger();
+
+        // when
+        try
+        {
+            new ReportParsingPipeline<Integer>(2, 1).process(Arrays.asList(0, 200), (delay, pageListener) -> {
+                parsing.incrementAndGet();
+
+                try
+                {
+                    if (delay == 0)
+                    {
+                        throw new TestParsingException("Could not parse results file", null);
+                    }
+
+                    // a parsing which does not stop on interruption
+                    final long end = System.currentTimeMillis() + delay;
+
+                    while (System.currentTimeMillis() < end)
+                    {
+                        Thread.yield();
+                    }
+
+                    return new FitnesseResult("Report" + delay, 1000, 1, 0, 0, 0, null);
+                } finally
+                {
+                    parsing.decrementAndGet();
+                }
+            });
+
+            Assert.fail("The parsing failure was not reported");
+        } catch (final TestParsingException e)
+        {
+            // expected
+        }
+
+        // then
+        Assert.assertEquals(0, parsing.get());
+    }
+
+    private static void sleep(final long millis)
+    {
+        try
+        {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -18,6 +18,10 @@ package org.jenkinsci.plugins.fitnesse.publisher;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.jenkinsci.plugins.fitnesse.publisher.TestsParsingCallable;
 import org.jenkinsci.plugins.fitnesse.publisher.model.AggregatedFitnesseResult;
@@ -31,6 +35,7 @@ import org.mockito.Mockito;
 import hudson.AbortException;
 import hudson.FilePath;
 import hudson.model.TaskListener;
+import hudson.tasks.test.TestResult;
 
 /**
  * {@link TestsParsingCallableTest} tests
@@ -192,4 +197,114 @@ public class TestsParsingCallableTest
         Assert.assertEquals(3.576, child.getDuration(), 0.0001);
         Assert.assertEquals("Test output goes here", child.getHtmlContent());
     }
+
+    /**
+     * Invoke the callable with valid FitNesse report files in the workspace,
+     * and only keep a reference to the FitNesse page history of the results
+     * 
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testInvokeWithValidFitnesseReportFilesAndPageHistoryReference() throws IOException, InterruptedException
+    {
+        final File workspace = this.tempFolder.newFolder();
+        final File htmlOutputDirectory = new File(workspace, "htmloutput");
+        final String name = "suite-test-results.xml";
+
+        Files.copy(this.getClass().getResourceAsStream(name), workspace.toPath().resolve(name));
+
+        final TaskListener mockListener = Mockito.mock(TaskListener.class);
+
+        Mockito.when(mockListener.getLogger()).thenReturn(System.out);
+
+        final TestsParsingCallable callable = new TestsParsingCallable("*-test-results.xml", 0, 0, new FilePath(htmlOutputDirectory), false, "http://fitnesse:8080/", mockListener);
+
+        final AggregatedFitnesseResult topLevelResult = callable.invoke(workspace, null);
+
+        Assert.assertNotNull(topLevelResult);
+        Assert.assertEquals(3, topLevelResult.getTotalPages());
+        Assert.assertFalse("No HTML output should have been written", htmlOutputDirectory.exists());
+
+        final FitnessePageResult child = (FitnessePageResult) topLevelResult.getChildren().iterator().next();
+
+        Assert.assertEquals("SampleSuite.PageOne", child.getName());
+        Assert.assertEquals(String.format("<a href=\"%1$s\">%1$s</a>", child.getName()), child.getDetailsLink());
+    }
+
+    /**
+     * Invoke the callable with a FitNesse report file in the JUnit format in the workspace
+     * 
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testInvokeWithJunitFitnesseReportFile() throws IOException, InterruptedException
+    {
+        final File workspace = this.tempFolder.newFolder();
+        final File htmlOutputDirectory = new File(workspace, "htmloutput");
+        final String name = "junit-test-results.xml";
+
+        Files.copy(this.getClass().getResourceAsStream(name), workspace.toPath().resolve(name));
+
+        final TaskListener mockListener = Mockito.mock(TaskListener.class);
+
+        Mockito.when(mockListener.getLogger()).thenReturn(System.out);
+
+        final TestsParsingCallable callable = new TestsParsingCallable("*-test-results.xml", 0, 0, new FilePath(htmlOutputDirectory), false, mockListener);
+
+        final AggregatedFitnesseResult topLevelResult = callable.invoke(workspace, null);
+
+        Assert.assertNotNull(topLevelResult);
+        Assert.assertEquals(2, topLevelResult.getTotalPages());
+        Assert.assertEquals(1, topLevelResult.getPassedPages());
+        Assert.assertEquals(1, topLevelResult.getFailedPages());
+        Assert.assertEquals(1, topLevelResult.getPassCount());
+        Assert.assertEquals(3, topLevelResult.getFailOnlyCount());
+        Assert.assertEquals(1, topLevelResult.getExceptionCount());
+        Assert.assertFalse("No HTML output should have been written", htmlOutputDirectory.exists());
+    }
+
+    /**
+     * Invoke the callable with several FitNesse report files in the workspace, which are parsed in parallel
+     * 
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testInvokeWithSeveralFitnesseReportFiles() throws IOException, InterruptedException
+    {
+        final File workspace = this.tempFolder.newFolder();
+        final File htmlOutputDirectory = new File(workspace, "htmloutput");
+
+        Files.copy(this.getClass().getResourceAsStream("suite-test-results.xml"), workspace.toPath().resolve("suite-test-results.xml"));
+        Files.copy(this.getClass().getResourceAsStream("junit-test-results.xml"), workspace.toPath().resolve("junit-test-results.xml"));
+
+        final TaskListener mockListener = Mockito.mock(TaskListener.class);
+
+        Mockito.when(mockListener.getLogger()).thenReturn(System.out);
+
+        final TestsParsingCallable callable = new TestsParsingCallable("*-test-results.xml", 0, 0, new FilePath(htmlOutputDirectory), false, mockListener);
+
+        final AggregatedFitnesseResult topLevelResult = callable.invoke(workspace, null);
+
+        // the pages are kept in the order of the report files
+        final List<String> expectedPages = new ArrayList<>();
+
+        for (final FilePath path : new FilePath(workspace).list("*-test-results.xml"))
+        {
+            expectedPages.addAll(path.getName().startsWith("suite")
+                    ? Arrays.asList("SampleSuite.PageOne", "SampleSuite.PageTwo", "SampleSuite.PageThree")
+                    : Arrays.asList("FitNesse.SuiteAcceptanceTests.PassingTest", "FitNesse.SuiteAcceptanceTests.FailingTest"));
+        }
+
+        final List<String> pages = topLevelResult.getChildren().stream()
+                .map(TestResult::getName)
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(expectedPages, pages);
+        Assert.assertEquals(5, topLevelResult.getTotalPages());
+        Assert.assertTrue(new File(htmlOutputDirectory, "SampleSuite.PageTwo.html").exists());
+        Assert.assertEquals("The HTML output archive should have been extracted and deleted", 3, htmlOutputDirectory.list().length);
+    }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher.history;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.jenkinsci.plugins.fitnesse.publisher.history.PageHistoryCache.ContentLoader;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+/**
+ * {@link PageHistoryCache} tests
+ *
+ */
+public class PageHistoryCacheTest
+{
+
+    /** Enables the creation of temporary files/folders during tests */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Retrieve the same entry twice, only loading it once
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testGetLoadsOnlyOnCacheMiss() throws IOException
+    {
+        // given
+
+        final String key = "http://fitnesse/Page?pageHistory&resultDate=20180809103512&format=xml";
+        final ContentLoader mockLoader = Mockito.mock(ContentLoader.class);
+        Mockito.when(mockLoader.load(key)).thenReturn("Test output goes here");
+
+        final PageHistoryCache cache = new PageHistoryCache(this.tempFolder.newFolder().toPath(), PageHistoryCache.DEFAULT_MAX_SIZE, mockLoader);
+
+        // when
+
+        final String firstContent = cache.get(key);
+        final String secondContent = cache.get(key);
+
+        // then
+
+        Mockito.verify(mockLoader).load(key);
+
+        Assert.assertEquals("Test output goes here", firstContent);
+        Assert.assertEquals(firstContent, secondContent);
+        Assert.assertTrue(cache.getSize() > 0);
+    }
+
+    /**
+     * Missing page history records are not cached
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testGetWithNoContent() throws IOException
+    {
+        // given
+
+        final ContentLoader mockLoader = Mockito.mock(ContentLoader.class);
+        Mockito.when(mockLoader.load("foo")).thenReturn(null);
+
+        final PageHistoryCache cache = new PageHistoryCache(this.tempFolder.newFolder().toPath(), PageHistoryCache.DEFAULT_MAX_SIZE, mockLoader);
+
+        // when
+
+        final String content = cache.get("foo");
+
+        // then
+
+        Assert.assertNull(content);
+        Assert.assertEquals(0, cache.getSize());
+    }
+
+    /**
+     * Evict the least recently used entries once the maximum size is exceeded
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testEvictLeastRecentlyUsedEntries() throws IOException
+    {
+        // given
+
+        final Path directory = this.tempFolder.newFolder().toPath();
+        final ContentLoader loader = key -> "Test output of page " + key;
+
+        // measure the size of a single entry
+        final PageHistoryCache sizingCache = new PageHistoryCache(this.tempFolder.newFolder().toPath(), Long.MAX_VALUE, loader);
+        sizingCache.get("A");
+        final long entrySize = sizingCache.getSize();
+
+        // the cache can only hold two entries
+        final PageHistoryCache cache = new PageHistoryCache(directory, (2 * entrySize) + 1, loader);
+
+        // when
+
+        cache.get("A");
+        cache.get("B");
+        cache.get("A"); // "B" is now the least recently used entry
+        cache.get("C");
+
+        // then
+
+        Assert.assertTrue(cache.getSize() <= ((2 * entrySize) + 1));
+
+        try (Stream<Path> entries = Files.list(directory))
+        {
+            Assert.assertEquals(2, entries.count());
+        }
+
+        // the remaining entries are reused by a new cache instance
+        final ContentLoader mockLoader = Mockito.mock(ContentLoader.class);
+        final PageHistoryCache reopenedCache = new PageHistoryCache(directory, (2 * entrySize) + 1, mockLoader);
+
+        Assert.assertEquals("Test output of page A", reopenedCache.get("A"));
+        Assert.assertEquals("Test output of page C", reopenedCache.get("C"));
+        Mockito.verifyZeroInteractions(mockLoader);
+    }
+}
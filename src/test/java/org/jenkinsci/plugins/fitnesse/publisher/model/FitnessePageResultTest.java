@@ -15,10 +15,17 @@
  */
 package org.jenkinsci.plugins.fitnesse.publisher.model;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
 
 import org.jenkinsci.plugins.fitnesse.publisher.model.FitnessePageResult;
 import org.jenkinsci.plugins.fitnesse.publisher.model.FitnesseResult;
@@ -26,9 +33,15 @@ import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
 import org.mockito.Mockito;
 
+import hudson.model.Run;
+import hudson.tasks.test.TestObject;
+
 import org.jenkinsci.plugins.fitnesse.publisher.model.Messages;
+import org.jenkinsci.plugins.fitnesse.util.Digests;
 
 /**
  * {@link FitnessePageResult} tests
@@ -72,6 +85,92 @@ public class FitnessePageResultTest
         Assert.assertEquals(expectedContent, actualContent);
     }
 
+    /**
+     * Read the beginning of compressed captured HTML content only
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void getHtmlContentPrefix() throws IOException
+    {
+        // given
+
+        final File contentFile = new File(this.tempFolder.getRoot(), "SuiteName.PageName.html.zip");
+
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(contentFile.toPath())))
+        {
+            out.write("hello world".getBytes(StandardCharsets.UTF_8));
+        }
+
+        final FitnesseResult counts = Mockito.mock(FitnesseResult.class);
+        Mockito.when(counts.getHtmlContent()).thenReturn(contentFile.getAbsolutePath());
+
+        final FitnessePageResult result = new FitnessePageResult(counts);
+
+        // when
+
+        final String prefix = result.getHtmlContentPrefix(5);
+        final String whole = result.getHtmlContentPrefix(64);
+
+        // then
+
+        Assert.assertEquals("hello", prefix);
+        Assert.assertEquals("hello world", whole);
+    }
+
+    /**
+     * Resolve the build of a result reached without its build attached from its parent result
+     */
+    @Test
+    public void getRunFromParent()
+    {
+        // given
+
+        final Run<?, ?> mockRun = Mockito.mock(Run.class);
+        final TestObject mockParent = Mockito.mock(TestObject.class);
+        Mockito.doReturn(mockRun).when(mockParent).getRun();
+
+        final FitnessePageResult result = new FitnessePageResult(Mockito.mock(FitnesseResult.class));
+        result.setParent(mockParent);
+
+        // when
+
+        final Run<?, ?> run = result.getRun();
+
+        // then
+
+        Assert.assertSame(mockRun, run);
+    }
+
+    /**
+     * Fail clearly to read dictionary-compressed HTML content without knowing the build it belongs to
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void getDictionaryCompressedHtmlContentWithoutRun() throws IOException
+    {
+        // given
+
+        final File contentFile = this.tempFolder.newFile("SuiteName.PageName.html.dz");
+
+        final FitnesseResult counts = Mockito.mock(FitnesseResult.class);
+        Mockito.when(counts.getHtmlContent()).thenReturn(contentFile.getAbsolutePath());
+
+        final FitnessePageResult result = new FitnessePageResult(counts);
+
+        try
+        {
+            // when
+            result.getHtmlContent();
+            Assert.fail("An exception should have been thrown");
+        } catch (final IOException e)
+        {
+            // then
+            Assert.assertTrue(e.getMessage().contains("build"));
+        }
+    }
+
     /**
      * Read non-existent HTML content
      * 
@@ -150,4 +249,147 @@ public class FitnessePageResultTest
 
         Assert.assertEquals(String.format("<a href=\"%1$s\">%1$s</a>", page), actualLink);
     }
+
+    /**
+     * Stream the compressed HTML content as is to a browser accepting GZIP
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void doContentWithGzipEncoding() throws IOException
+    {
+        // given
+
+        final File contentFile = this.newCompressedContentFile("hello world");
+
+        final FitnesseResult counts = Mockito.mock(FitnesseResult.class);
+        Mockito.when(counts.getHtmlContent()).thenReturn(contentFile.getAbsolutePath());
+
+        final StaplerRequest request = Mockito.mock(StaplerRequest.class);
+        Mockito.when(request.getHeader("Accept-Encoding")).thenReturn("gzip, deflate");
+
+        final StaplerResponse response = Mockito.mock(StaplerResponse.class);
+        final ByteArrayOutputStream body = FitnessePageResultTest.captureBody(response);
+
+        final FitnessePageResult result = new FitnessePageResult(counts);
+
+        // when
+
+        result.doContent(request, response);
+
+        // then
+
+        Mockito.verify(response).setHeader("Content-Encoding", "gzip");
+        Mockito.verify(response).setHeader("ETag", String.format("\"%s-gzip\"", Digests.sha256(contentFile.getAbsolutePath())));
+        Mockito.verify(response).setContentLengthLong(contentFile.length());
+
+        Assert.assertArrayEquals(Files.readAllBytes(contentFile.toPath()), body.toByteArray());
+    }
+
+    /**
+     * Stream the compressed HTML content decompressed to a browser not accepting GZIP
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void doContentWithoutGzipEncoding() throws IOException
+    {
+        // given
+
+        final File contentFile = this.newCompressedContentFile("hello world");
+
+        final FitnesseResult counts = Mockito.mock(FitnesseResult.class);
+        Mockito.when(counts.getHtmlContent()).thenReturn(contentFile.getAbsolutePath());
+
+        final StaplerRequest request = Mockito.mock(StaplerRequest.class);
+        Mockito.when(request.getHeader("Accept-Encoding")).thenReturn("gzip;q=0, identity");
+
+        final StaplerResponse response = Mockito.mock(StaplerResponse.class);
+        final ByteArrayOutputStream body = FitnessePageResultTest.captureBody(response);
+
+        final FitnessePageResult result = new FitnessePageResult(counts);
+
+        // when
+
+        result.doContent(request, response);
+
+        // then
+
+        Mockito.verify(response, Mockito.never()).setHeader(Mockito.eq("Content-Encoding"), Mockito.anyString());
+
+        Assert.assertEquals("hello world", new String(body.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Do not stream the HTML content again to a browser which cached it
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void doContentNotModified() throws IOException
+    {
+        // given
+
+        final File contentFile = this.tempFolder.newFile("page.html");
+        Files.write(contentFile.toPath(), "hello world".getBytes(StandardCharsets.UTF_8));
+
+        final FitnesseResult counts = Mockito.mock(FitnesseResult.class);
+        Mockito.when(counts.getHtmlContent()).thenReturn(contentFile.getAbsolutePath());
+
+        final StaplerRequest request = Mockito.mock(StaplerRequest.class);
+        Mockito.when(request.getHeader("If-None-Match")).thenReturn(String.format("\"%s\"", Digests.sha256(contentFile.getAbsolutePath())));
+
+        final StaplerResponse response = Mockito.mock(StaplerResponse.class);
+
+        final FitnessePageResult result = new FitnessePageResult(counts);
+
+        // when
+
+        result.doContent(request, response);
+
+        // then
+
+        Mockito.verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        Mockito.verify(response, Mockito.never()).getOutputStream();
+    }
+
+    private File newCompressedContentFile(final String content) throws IOException
+    {
+        final File contentFile = this.tempFolder.newFile("page.html.zip");
+
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(contentFile.toPath())))
+        {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return contentFile;
+    }
+
+    private static ByteArrayOutputStream captureBody(final StaplerResponse response) throws IOException
+    {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        Mockito.when(response.getOutputStream()).thenReturn(new ServletOutputStream()
+        {
+            @Override
+            public void write(final int b)
+            {
+                body.write(b);
+            }
+
+            @Override
+            public boolean isReady()
+            {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(final WriteListener writeListener)
+            {
+                // no-op
+            }
+        });
+
+        return body;
+    }
 }
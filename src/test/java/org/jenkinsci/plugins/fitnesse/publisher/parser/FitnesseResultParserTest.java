@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher.parser;
+
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jenkinsci.plugins.fitnesse.publisher.model.FitnesseResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests de la classe {@link FitnesseResultParser}
+ * 
+ */
+public class FitnesseResultParserTest
+{
+
+    /**
+     * Test the parsing of the results of a suite in the XML format
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testParseSuite() throws Exception
+    {
+        // given
+        final List<FitnesseResult> parsedPages = new ArrayList<>();
+        final FitnesseResultParser parser = new FitnesseResultParser(parsedPages::add);
+
+        // when
+        try (InputStream in = FitnesseResultParserTest.class.getResourceAsStream("/org/jenkinsci/plugins/fitnesse/publisher/suite-test-results.xml"))
+        {
+            parser.parse(in);
+        }
+
+        // then
+        final FitnesseResult summary = parser.getSummary();
+        Assert.assertEquals("SampleSuite", summary.getPage());
+        Assert.assertEquals(2650, summary.getDuration());
+        Assert.assertEquals(9, summary.getRight());
+        Assert.assertEquals(1, summary.getWrong());
+        Assert.assertEquals(1, summary.getIgnored());
+        Assert.assertEquals(1, summary.getExceptions());
+
+        // the page results are handed to the listener only
+        Assert.assertTrue(parser.getDetails().isEmpty());
+        Assert.assertEquals(Arrays.asList("SampleSuite.PageOne", "SampleSuite.PageTwo", "SampleSuite.PageThree"),
+                parsedPages.stream().map(FitnesseResult::getPage).collect(Collectors.toList()));
+
+        final FitnesseResult pageTwo = parsedPages.get(1);
+        Assert.assertEquals(800, pageTwo.getDuration());
+        Assert.assertEquals(2, pageTwo.getRight());
+        Assert.assertEquals(1, pageTwo.getWrong());
+        Assert.assertEquals(1, pageTwo.getIgnored());
+        Assert.assertEquals("20180809103513", pageTwo.getApproxResultDate());
+        Assert.assertEquals("<table><tr><td class=\"fail\">Page two output</td></tr></table>", pageTwo.getHtmlContent());
+        Assert.assertFalse(pageTwo.isCached());
+        Assert.assertFalse(pageTwo.isRerun());
+    }
+
+    /**
+     * Test the parsing of the results of a suite in the JUnit format, which only reports the counts of each page
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testParseJunitSuite() throws Exception
+    {
+        // given
+        final FitnesseResultParser parser = new FitnesseResultParser();
+
+        // when
+        try (InputStream in = FitnesseResultParserTest.class.getResourceAsStream("/org/jenkinsci/plugins/fitnesse/publisher/junit-test-results.xml"))
+        {
+            parser.parse(in);
+        }
+
+        // then
+        final FitnesseResult summary = parser.getSummary();
+        Assert.assertEquals("FitNesse.SuiteAcceptanceTests", summary.getPage());
+        Assert.assertEquals(4217, summary.getDuration());
+        Assert.assertEquals(1, summary.getRight());
+        Assert.assertEquals(1, summary.getWrong());
+
+        final FitnesseResult passing = parser.getDetails().get(0);
+        Assert.assertEquals("FitNesse.SuiteAcceptanceTests.PassingTest", passing.getPage());
+        Assert.assertEquals(1102, passing.getDuration());
+        Assert.assertEquals(1, passing.getRight());
+        Assert.assertNull(passing.getHtmlContent());
+
+        final FitnesseResult failing = parser.getDetails().get(1);
+        Assert.assertEquals(0, failing.getRight());
+        Assert.assertEquals(3, failing.getWrong());
+        Assert.assertEquals(1, failing.getExceptions());
+    }
+
+    /**
+     * Test that the elements added to a reused or rerun result apply to its pages
+     * 
+     * @throws XMLStreamException
+     */
+    @Test
+    public void testParseAnnotatedResult() throws XMLStreamException
+    {
+        // given
+        final String content = "<testResults><cachedFromBuild>12</cachedFromBuild>"
+                + "<firstAttempt right=\"1\" wrong=\"2\" ignores=\"0\" exceptions=\"0\" runTimeInMillis=\"300\"/>"
+                + "<rootPath>SamplePage</rootPath>"
+                + "<result><counts><right>3</right><wrong>0</wrong><ignores>0</ignores><exceptions>0</exceptions></counts>"
+                + "<runTimeInMillis>250</runTimeInMillis><content></content><pageHistoryLink></pageHistoryLink></result>"
+                + "<totalRunTimeInMillis>270</totalRunTimeInMillis></testResults>";
+        final FitnesseResultParser parser = new FitnesseResultParser();
+
+        // when
+        parser.parse(new StringReader(content));
+
+        // then
+        final FitnesseResult result = parser.getDetails().get(0);
+        Assert.assertEquals("SamplePage", result.getPage());
+        Assert.assertNull(result.getApproxResultDate());
+        Assert.assertEquals(12, result.getCachedFromBuild());
+        Assert.assertEquals(2, result.getFirstAttempt().getWrong());
+        Assert.assertEquals(300, result.getFirstAttempt().getDuration());
+    }
+
+    /**
+     * Test that the HTML content of the pages is written to the content sink, only its reference being kept
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testParseWithContentSink() throws Exception
+    {
+        // given
+        final Map<String, String> contents = new LinkedHashMap<>();
+        final StringWriter writer = new StringWriter();
+        final PageContentSink sink = new PageContentSink()
+        {
+
+            @Override
+            public Writer begin()
+            {
+                writer.getBuffer().setLength(0);
+                return writer;
+            }
+
+            @Override
+            public String complete(final String page)
+            {
+                contents.put(page, writer.toString());
+                return page + ".html";
+            }
+        };
+        final List<FitnesseResult> parsedPages = new ArrayList<>();
+        final FitnesseResultParser parser = new FitnesseResultParser(parsedPages::add, sink);
+
+        // when
+        try (InputStream in = FitnesseResultParserTest.class.getResourceAsStream("/org/jenkinsci/plugins/fitnesse/publisher/suite-test-results.xml"))
+        {
+            parser.parse(in);
+        }
+
+        // then
+        Assert.assertEquals(3, contents.size());
+        Assert.assertEquals("<table><tr><td class=\"pass\">Page one output</td></tr></table>", contents.get("SampleSuite.PageOne"));
+        Assert.assertEquals("SampleSuite.PageThree.html", parsedPages.get(2).getHtmlContent());
+    }
+
+    /**
+     * Test that an unexpected document is rejected
+     * 
+     * @throws XMLStreamException
+     */
+    @Test(expected = XMLStreamException.class)
+    public void testParseUnexpectedDocument() throws XMLStreamException
+    {
+        new FitnesseResultParser().parse(new StringReader("<html><body/></html>"));
+    }
+}
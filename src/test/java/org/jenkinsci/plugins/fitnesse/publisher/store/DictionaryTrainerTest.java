@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests de la classe {@link DictionaryTrainer}
+ * 
+ */
+public class DictionaryTrainerTest
+{
+
+    /**
+     * Test that the dictionary holds the fragments common to several outputs, the best one last
+     */
+    @Test
+    public void testTrain()
+    {
+        // given
+        final List<byte[]> samples = Arrays.asList(
+                "<table class=\"slimTable\"><tr><td>one</td></tr></table>".getBytes(StandardCharsets.UTF_8),
+                "<table class=\"slimTable\"><tr><td>two</td></tr></table>".getBytes(StandardCharsets.UTF_8),
+                "<p>three</p>".getBytes(StandardCharsets.UTF_8));
+
+        // when
+        final String dictionary = new String(DictionaryTrainer.train(samples, DictionaryTrainer.MAX_SIZE), StandardCharsets.UTF_8);
+
+        // then
+        Assert.assertTrue(dictionary.endsWith("<table class=\"slimTable\">"));
+        Assert.assertTrue(dictionary.contains("<tr>"));
+        Assert.assertTrue(dictionary.contains("</table>"));
+        Assert.assertFalse(dictionary.contains("one"));
+        Assert.assertFalse(dictionary.contains("three"));
+    }
+
+    /**
+     * Test that the dictionary does not exceed the given size
+     */
+    @Test
+    public void testTrainWithinSize()
+    {
+        // given
+        final List<byte[]> samples = Arrays.asList(
+                "<table class=\"slimTable\"><tr><td>one</td></tr></table>".getBytes(StandardCharsets.UTF_8),
+                "<table class=\"slimTable\"><tr><td>two</td></tr></table>".getBytes(StandardCharsets.UTF_8));
+
+        // when
+        final byte[] smallDictionary = DictionaryTrainer.train(samples, 30);
+        final byte[] largeDictionary = DictionaryTrainer.train(samples, 40);
+
+        // then
+        Assert.assertEquals("</tr><table class=\"slimTable\">", new String(smallDictionary, StandardCharsets.UTF_8));
+        Assert.assertEquals("</tr></table><table class=\"slimTable\">", new String(largeDictionary, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test that no dictionary is trained from outputs without anything in common
+     */
+    @Test
+    public void testTrainWithoutCommonFragment()
+    {
+        // given
+        final List<byte[]> samples = Arrays.asList(
+                "<p>one</p>".getBytes(StandardCharsets.UTF_8),
+                "<div>two</div>".getBytes(StandardCharsets.UTF_8));
+
+        // when
+        final byte[] dictionary = DictionaryTrainer.train(samples, DictionaryTrainer.MAX_SIZE);
+
+        // then
+        Assert.assertEquals(0, dictionary.length);
+    }
+}
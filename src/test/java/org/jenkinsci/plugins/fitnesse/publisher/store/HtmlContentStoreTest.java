@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import hudson.model.Job;
+import hudson.model.Run;
+
+/**
+ * Tests de la classe {@link HtmlContentStore}
+ * 
+ */
+public class HtmlContentStoreTest
+{
+
+    /** Enables the creation of temporary files/folders during tests */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final Job<?, ?> mockJob = Mockito.mock(Job.class);
+
+    private final Run<?, ?> mockFirstBuild = Mockito.mock(Run.class);
+
+    private final Run<?, ?> mockSecondBuild = Mockito.mock(Run.class);
+
+    private HtmlContentStore store;
+
+    /**
+     * Sets up a job with two builds
+     * 
+     * @throws IOException
+     */
+    @Before
+    public void setUp() throws IOException
+    {
+        final File jobDirectory = this.tempFolder.newFolder();
+        final File buildsDirectory = new File(jobDirectory, "builds");
+
+        Mockito.when(this.mockJob.getRootDir()).thenReturn(jobDirectory);
+        Mockito.when(this.mockJob.getBuildDir()).thenReturn(buildsDirectory);
+        Mockito.when(this.mockFirstBuild.getRootDir()).thenReturn(this.newDirectory(buildsDirectory, "1"));
+        Mockito.when(this.mockSecondBuild.getRootDir()).thenReturn(this.newDirectory(buildsDirectory, "2"));
+
+        this.store = HtmlContentStore.forJob(this.mockJob);
+    }
+
+    /**
+     * Test that the content files are kept as long as a build references them
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testSweep() throws IOException
+    {
+        // given
+        final File storeDirectory = this.newDirectory(this.mockJob.getRootDir(), "fitnesse-html-store");
+        final String shared = this.newContentFile(storeDirectory, "aaaa.html");
+        final String firstOnly = this.newContentFile(storeDirectory, "bbbb.html");
+        final String secondOnly = this.newContentFile(storeDirectory, "cccc.html");
+        this.newContentFile(storeDirectory, "dddd.html");
+
+        this.store.recordReferences(this.mockFirstBuild, Arrays.asList(shared, firstOnly));
+        this.store.recordReferences(this.mockSecondBuild, Arrays.asList(shared, secondOnly));
+
+        // when
+        final int unreferenced = this.store.sweep(this.mockJob, Collections.emptySet());
+        final int deleted = this.store.sweep(this.mockJob, Collections.singleton(this.mockFirstBuild.getRootDir().toPath()));
+
+        // then
+        Assert.assertEquals(1, unreferenced);
+        Assert.assertEquals(1, deleted);
+        Assert.assertEquals(new HashSet<>(Arrays.asList("aaaa.html", "cccc.html")), this.store.list());
+    }
+
+    /**
+     * Test that only the content files of the store are referenced by a build, the references of several
+     * publications adding up
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testRecordReferences() throws IOException
+    {
+        // given
+        final File storeDirectory = this.newDirectory(this.mockJob.getRootDir(), "fitnesse-html-store");
+        final String stored = this.newContentFile(storeDirectory, "aaaa.html.zip");
+        final String notStored = this.newContentFile(this.mockFirstBuild.getRootDir(), "SuiteName.PageName.html.zip");
+
+        // when
+        this.store.recordReferences(this.mockFirstBuild, Arrays.asList(stored, notStored));
+        this.store.recordReferences(this.mockFirstBuild, Collections.singletonList(stored));
+
+        // then
+        Assert.assertEquals(Arrays.asList("aaaa.html.zip", "aaaa.html.zip"),
+                Files.readAllLines(new File(this.mockFirstBuild.getRootDir(), "fitnesse-html-store.refs").toPath()));
+    }
+
+    /**
+     * Test that nothing is swept nor listed when nothing was stored yet
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testSweepWithoutStore() throws IOException
+    {
+        // when
+        final int deleted = this.store.sweep(this.mockJob, Collections.singleton(this.mockFirstBuild.getRootDir().toPath()));
+
+        // then
+        Assert.assertEquals(0, deleted);
+        Assert.assertTrue(this.store.list().isEmpty());
+    }
+
+    /**
+     * Test that the store is not swept while a build publishes into it
+     * 
+     * @throws InterruptedException
+     */
+    @Test(timeout = 10000)
+    public void testSweepWaitsForPublishing() throws InterruptedException
+    {
+        // given
+        final Lock publishLock = HtmlContentStore.forJob(this.mockJob).getLock().readLock();
+        final Thread sweeper = new Thread(() -> {
+            try
+            {
+                this.store.sweep(this.mockJob, Collections.emptySet());
+            } catch (final IOException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        publishLock.lock();
+        try
+        {
+            // when
+            sweeper.start();
+            sweeper.join(500);
+
+            // then
+            Assert.assertTrue(sweeper.isAlive());
+        } finally
+        {
+            publishLock.unlock();
+        }
+
+        sweeper.join();
+    }
+
+    /**
+     * Test that the sweeps scheduled by several build deletions are coalesced into one
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testScheduleSweep() throws IOException
+    {
+        // given
+        final File storeDirectory = this.newDirectory(this.mockJob.getRootDir(), "fitnesse-html-store");
+        this.newContentFile(storeDirectory, "dddd.html");
+
+        final ScheduledExecutorService mockExecutor = Mockito.mock(ScheduledExecutorService.class);
+        final ArgumentCaptor<Runnable> sweep = ArgumentCaptor.forClass(Runnable.class);
+
+        // when
+        this.store.scheduleSweep(this.mockJob, Collections.singleton(this.mockFirstBuild.getRootDir().toPath()), mockExecutor, 60);
+        this.store.scheduleSweep(this.mockJob, Collections.singleton(this.mockSecondBuild.getRootDir().toPath()), mockExecutor, 60);
+
+        // then
+        Mockito.verify(mockExecutor).schedule(sweep.capture(), Mockito.eq(60L), Mockito.eq(TimeUnit.SECONDS));
+        Assert.assertEquals(Collections.singleton("dddd.html"), this.store.list());
+
+        sweep.getValue().run();
+        Assert.assertTrue(this.store.list().isEmpty());
+    }
+
+    /**
+     * Test that a scheduled sweep is postponed while a build of the job is running
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testScheduleSweepWhileBuilding() throws IOException
+    {
+        // given
+        final File storeDirectory = this.newDirectory(this.mockJob.getRootDir(), "fitnesse-html-store");
+        this.newContentFile(storeDirectory, "dddd.html");
+
+        Mockito.doReturn(this.mockSecondBuild).when(this.mockJob).getLastBuild();
+        Mockito.doReturn(this.mockFirstBuild).when(this.mockJob).getLastCompletedBuild();
+        Mockito.when(this.mockSecondBuild.isBuilding()).thenReturn(true);
+
+        final ScheduledExecutorService mockExecutor = Mockito.mock(ScheduledExecutorService.class);
+        final ArgumentCaptor<Runnable> sweep = ArgumentCaptor.forClass(Runnable.class);
+
+        // when
+        this.store.scheduleSweep(this.mockJob, Collections.singleton(this.mockFirstBuild.getRootDir().toPath()), mockExecutor, 60);
+        Mockito.verify(mockExecutor).schedule(sweep.capture(), Mockito.eq(60L), Mockito.eq(TimeUnit.SECONDS));
+        sweep.getValue().run();
+
+        // then
+        Mockito.verify(mockExecutor, Mockito.times(2)).schedule(sweep.capture(), Mockito.eq(60L), Mockito.eq(TimeUnit.SECONDS));
+        Assert.assertEquals(Collections.singleton("dddd.html"), this.store.list());
+
+        // when
+        Mockito.when(this.mockSecondBuild.isBuilding()).thenReturn(false);
+        sweep.getValue().run();
+
+        // then
+        Assert.assertTrue(this.store.list().isEmpty());
+        Mockito.verify(this.mockFirstBuild, Mockito.never()).isBuilding();
+    }
+
+    private File newDirectory(final File parent, final String name)
+    {
+        final File directory = new File(parent, name);
+        directory.mkdirs();
+
+        return directory;
+    }
+
+    private String newContentFile(final File directory, final String name) throws IOException
+    {
+        final File file = new File(directory, name);
+        Files.write(file.toPath(), "<p>content</p>".getBytes());
+
+        return file.getPath();
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2019 Société Générale.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jenkinsci.plugins.fitnesse.publisher.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import hudson.model.Run;
+
+/**
+ * Tests de la classe {@link HtmlOutputDictionary}
+ * 
+ */
+public class HtmlOutputDictionaryTest
+{
+
+    /** Enables the creation of temporary files/folders during tests */
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final Run<?, ?> mockBuild = Mockito.mock(Run.class);
+
+    private final List<String> samples = Arrays.asList(
+            "<table class=\"slimTable\"><tr class=\"slimRowTitle\"><td>PageOne</td></tr></table>",
+            "<table class=\"slimTable\"><tr class=\"slimRowTitle\"><td>PageTwo</td></tr></table>");
+
+    /**
+     * Test that the output compressed with a trained dictionary is decompressed with it
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testTrainAndInflate() throws IOException
+    {
+        // given
+        final HtmlOutputDictionary dictionaries = new HtmlOutputDictionary(this.tempFolder.newFolder().toPath());
+        Mockito.when(this.mockBuild.getNumber()).thenReturn(1);
+
+        final byte[] dictionary = dictionaries.train(this.mockBuild, this.samples);
+        final byte[] compressed = HtmlOutputDictionaryTest.deflate(this.samples.get(0), dictionaries.getCurrent());
+
+        // when
+        final String content;
+
+        try (InputStream in = dictionaries.inflate(new ByteArrayInputStream(compressed));
+                Scanner scanner = new Scanner(in, StandardCharsets.UTF_8.name()))
+        {
+            content = scanner.useDelimiter("\\A").next();
+        }
+
+        // then
+        Assert.assertArrayEquals(dictionary, dictionaries.getCurrent());
+        Assert.assertEquals(this.samples.get(0), content);
+    }
+
+    /**
+     * Test that the dictionary is trained when none exists, and retrained periodically
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testNeedsTraining() throws IOException
+    {
+        // given
+        final HtmlOutputDictionary dictionaries = new HtmlOutputDictionary(this.tempFolder.newFolder().toPath());
+        Mockito.when(this.mockBuild.getNumber()).thenReturn(1);
+
+        // when
+        final boolean untrained = dictionaries.needsTraining(this.mockBuild);
+        dictionaries.train(this.mockBuild, this.samples);
+        final boolean trained = dictionaries.needsTraining(this.mockBuild);
+        Mockito.when(this.mockBuild.getNumber()).thenReturn(101);
+        final boolean outdated = dictionaries.needsTraining(this.mockBuild);
+
+        // then
+        Assert.assertTrue(untrained);
+        Assert.assertFalse(trained);
+        Assert.assertTrue(outdated);
+    }
+
+    private static byte[] deflate(final String content, final byte[] dictionary) throws IOException
+    {
+        final Deflater deflater = new Deflater();
+        deflater.setDictionary(dictionary);
+
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        try (OutputStream out = new DeflaterOutputStream(compressed, deflater))
+        {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        } finally
+        {
+            deflater.end();
+        }
+
+        return compressed.toByteArray();
+    }
+}